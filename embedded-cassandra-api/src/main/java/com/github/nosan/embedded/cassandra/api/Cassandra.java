@@ -17,6 +17,7 @@
 package com.github.nosan.embedded.cassandra.api;
 
 import java.net.InetAddress;
+import java.util.concurrent.CompletableFuture;
 
 import com.github.nosan.embedded.cassandra.annotations.Nullable;
 
@@ -47,6 +48,52 @@ public interface Cassandra {
 	 */
 	void stop() throws CassandraException, CassandraInterruptedException;
 
+	/**
+	 * Restarts the {@code Cassandra}. If the {@code Cassandra} has not been started yet, it is just started.
+	 * Implementations may keep the {@code Cassandra's} data across the restart; by default the {@code Cassandra} is
+	 * {@link #stop() stopped} and then {@link #start() started}.
+	 *
+	 * @throws CassandraException if the {@code Cassandra} cannot be restarted
+	 * @throws CassandraInterruptedException if the {@code Cassandra} has been interrupted.
+	 * @since 3.1.0
+	 */
+	default void restart() throws CassandraException, CassandraInterruptedException {
+		stop();
+		start();
+	}
+
+	/**
+	 * Starts the {@code Cassandra} asynchronously. Unlike {@link #start()}, this method does not cause the current
+	 * thread to wait. The returned {@link CompletableFuture} is completed with this {@code Cassandra} once it has
+	 * started, or completed exceptionally with {@link CassandraException} if it cannot be started.
+	 *
+	 * @return a {@code CompletableFuture} for this {@code Cassandra}
+	 * @see #start()
+	 * @since 3.1.0
+	 */
+	default CompletableFuture<Cassandra> startAsync() {
+		return CompletableFuture.supplyAsync(() -> {
+			start();
+			return this;
+		});
+	}
+
+	/**
+	 * Stops the {@code Cassandra} asynchronously. Unlike {@link #stop()}, this method does not cause the current
+	 * thread to wait. The returned {@link CompletableFuture} is completed with this {@code Cassandra} once it has
+	 * stopped, or completed exceptionally with {@link CassandraException} if it cannot be stopped.
+	 *
+	 * @return a {@code CompletableFuture} for this {@code Cassandra}
+	 * @see #stop()
+	 * @since 3.1.0
+	 */
+	default CompletableFuture<Cassandra> stopAsync() {
+		return CompletableFuture.supplyAsync(() -> {
+			stop();
+			return this;
+		});
+	}
+
 	/**
 	 * Returns the name of this {@code Cassandra} instance.
 	 *
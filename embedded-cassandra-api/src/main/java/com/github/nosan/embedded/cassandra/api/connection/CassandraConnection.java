@@ -16,6 +16,9 @@
 
 package com.github.nosan.embedded.cassandra.api.connection;
 
+import java.util.List;
+import java.util.Map;
+
 import com.github.nosan.embedded.cassandra.api.Cassandra;
 
 /**
@@ -45,6 +48,20 @@ public interface CassandraConnection extends AutoCloseable {
 	 */
 	Object execute(String query, Object... values);
 
+	/**
+	 * Executes the provided CQL query using the provided values and returns its rows. Each row maps the names of the
+	 * columns to their values, as they are decoded by the driver.
+	 *
+	 * @param query the CQL query to execute
+	 * @param values values required for the execution of {@code query}
+	 * @return the rows of the result
+	 * @throws UnsupportedOperationException if the connection cannot read rows
+	 * @since 3.1.0
+	 */
+	default List<Map<String, Object>> select(String query, Object... values) {
+		throw new UnsupportedOperationException(getClass().getName() + " cannot read rows");
+	}
+
 	/**
 	 * Returns the underlying native connection.
 	 *
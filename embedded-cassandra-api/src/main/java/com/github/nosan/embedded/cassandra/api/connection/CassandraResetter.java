@@ -0,0 +1,316 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.api.connection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.api.Cassandra;
+import com.github.nosan.embedded.cassandra.api.CassandraInterruptedException;
+import com.github.nosan.embedded.cassandra.api.cql.CqlDataSet;
+import com.github.nosan.embedded.cassandra.commons.util.DaemonThreadFactory;
+
+/**
+ * Resets the data of a running {@link Cassandra} over a {@link CassandraConnection}, which is much cheaper than
+ * restarting it. User tables are listed from {@code system_schema.tables} and truncated in parallel, or user keyspaces
+ * are listed from {@code system_schema.keyspaces} and dropped ({@code system} is used instead of {@code system_schema}
+ * for {@code Cassandra 2.x}). Afterwards, an optional {@link CqlDataSet} is executed.
+ * <p>
+ * {@code CassandraResetter} does not turn {@code auto_snapshot} off, as it cannot be changed over {@code CQL}. If it is
+ * enabled, each {@code TRUNCATE} and {@code DROP} writes a snapshot, hence set {@code auto_snapshot: false} in the
+ * Cassandra's config to keep resets fast.
+ * <pre>
+ * CassandraResetter resetter = new CassandraResetter(connection);
+ * resetter.setCqlDataSet(CqlDataSet.ofClasspaths("schema.cql"));
+ * resetter.reset();
+ * </pre>
+ *
+ * @author Dmytro Nosan
+ * @since 3.1.0
+ */
+public final class CassandraResetter {
+
+	private static final String CQL_SESSION_CLASS = "com.datastax.oss.driver.api.core.CqlSession";
+
+	private static final String CLUSTER_CLASS = "com.datastax.driver.core.Cluster";
+
+	private static final Set<String> SYSTEM_KEYSPACES = Collections.unmodifiableSet(new LinkedHashSet<>(
+			Arrays.asList("system", "system_auth", "system_distributed", "system_schema", "system_traces",
+					"system_views", "system_virtual_schema")));
+
+	private static final ThreadFactory THREAD_FACTORY = new DaemonThreadFactory("cassandra-resetter");
+
+	private final CassandraConnection connection;
+
+	private Strategy strategy = Strategy.TRUNCATE;
+
+	private int parallelism = 4;
+
+	@Nullable
+	private CqlDataSet dataSet;
+
+	/**
+	 * Creates a {@link CassandraResetter} with the specified {@link CassandraConnection}.
+	 *
+	 * @param connection the connection
+	 */
+	public CassandraResetter(CassandraConnection connection) {
+		this.connection = Objects.requireNonNull(connection, "'connection' must not be null");
+	}
+
+	/**
+	 * Returns the strategy used to clear user tables.
+	 *
+	 * @return the strategy
+	 */
+	public Strategy getStrategy() {
+		return this.strategy;
+	}
+
+	/**
+	 * Sets the strategy used to clear user tables. Defaults to {@link Strategy#TRUNCATE}.
+	 *
+	 * @param strategy the strategy
+	 */
+	public void setStrategy(Strategy strategy) {
+		this.strategy = Objects.requireNonNull(strategy, "'strategy' must not be null");
+	}
+
+	/**
+	 * Returns the maximum number of {@code TRUNCATE} statements executed at the same time.
+	 *
+	 * @return the parallelism
+	 */
+	public int getParallelism() {
+		return this.parallelism;
+	}
+
+	/**
+	 * Sets the maximum number of {@code TRUNCATE} statements executed at the same time. Each {@code TRUNCATE} flushes
+	 * memtables and requires all nodes to be available, hence a small value throttles the load put on Cassandra.
+	 * Defaults to {@code 4}.
+	 *
+	 * @param parallelism the parallelism
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("'parallelism' must be greater than 0");
+		}
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Returns the {@link CqlDataSet} executed after user tables have been cleared.
+	 *
+	 * @return the data set, or {@code null}
+	 */
+	@Nullable
+	public CqlDataSet getCqlDataSet() {
+		return this.dataSet;
+	}
+
+	/**
+	 * Sets the {@link CqlDataSet} executed after user tables have been cleared. The data set is required for {@link
+	 * Strategy#DROP}, as it has to recreate the schema.
+	 *
+	 * @param dataSet the data set
+	 */
+	public void setCqlDataSet(@Nullable CqlDataSet dataSet) {
+		this.dataSet = dataSet;
+	}
+
+	/**
+	 * Clears all user tables and executes the {@link #setCqlDataSet data set} (if any).
+	 *
+	 * @throws IllegalStateException if the strategy is {@link Strategy#DROP} and no data set is set
+	 * @throws CassandraInterruptedException if the current thread was interrupted
+	 */
+	public void reset() {
+		CqlDataSet dataSet = this.dataSet;
+		if (this.strategy == Strategy.DROP && dataSet == null) {
+			throw new IllegalStateException("CqlDataSet must be set if the strategy is " + Strategy.DROP);
+		}
+		if (this.strategy == Strategy.DROP) {
+			// keyspaces without tables (e.g. with types or functions only) have to be dropped as well
+			List<String[]> keyspaces = getUserRows("SELECT keyspace_name FROM system_schema.keyspaces",
+					"SELECT keyspace_name FROM system.schema_keyspaces", 1);
+			// schema changes are applied one by one to avoid schema disagreement
+			keyspaces.forEach(keyspace -> this.connection.execute("DROP KEYSPACE IF EXISTS " + quote(keyspace[0])));
+		}
+		else {
+			List<String[]> tables = getUserRows("SELECT keyspace_name, table_name FROM system_schema.tables",
+					"SELECT keyspace_name, columnfamily_name FROM system.schema_columnfamilies", 2);
+			List<String> statements = new ArrayList<>();
+			tables.forEach(table -> statements.add("TRUNCATE " + quote(table[0]) + "." + quote(table[1])));
+			executeInParallel(statements);
+		}
+		if (dataSet != null) {
+			dataSet.getStatements().forEach(this.connection::execute);
+		}
+	}
+
+	private List<String[]> getUserRows(String query, String legacyQuery, int columns) {
+		List<String[]> rows;
+		try {
+			rows = select(query, columns);
+		}
+		catch (RuntimeException ex) {
+			try {
+				rows = select(legacyQuery, columns);
+			}
+			catch (RuntimeException swallow) {
+				ex.addSuppressed(swallow);
+				throw ex;
+			}
+		}
+		List<String[]> userRows = new ArrayList<>();
+		for (String[] row : rows) {
+			if (!SYSTEM_KEYSPACES.contains(row[0]) && !row[0].startsWith("dse_")) {
+				userRows.add(row);
+			}
+		}
+		return userRows;
+	}
+
+	private void executeInParallel(List<String> statements) {
+		if (statements.isEmpty()) {
+			return;
+		}
+		int threads = Math.min(this.parallelism, statements.size());
+		ExecutorService executor = Executors.newFixedThreadPool(threads, THREAD_FACTORY);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (String statement : statements) {
+				futures.add(executor.submit(() -> this.connection.execute(statement)));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new CassandraInterruptedException("Reset has been interrupted", ex);
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new IllegalStateException("Reset has been failed", cause);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private List<String[]> select(String query, int columns) {
+		Object resultSet = this.connection.execute(query);
+		ClassLoader classLoader = getClass().getClassLoader();
+		if (isPresent(CQL_SESSION_CLASS, classLoader) && CqlSessionRows.isResultSet(resultSet)) {
+			return CqlSessionRows.getRows(resultSet, columns);
+		}
+		if (isPresent(CLUSTER_CLASS, classLoader) && ClusterRows.isResultSet(resultSet)) {
+			return ClusterRows.getRows(resultSet, columns);
+		}
+		throw new IllegalStateException(String.format("Result set '%s' is not supported", resultSet));
+	}
+
+	private static String quote(String name) {
+		return "\"" + name.replace("\"", "\"\"") + "\"";
+	}
+
+	private static boolean isPresent(String className, ClassLoader classLoader) {
+		try {
+			Class.forName(className, false, classLoader);
+			return true;
+		}
+		catch (ClassNotFoundException ex) {
+			return false;
+		}
+	}
+
+	/**
+	 * Strategies to clear user tables.
+	 */
+	public enum Strategy {
+
+		/**
+		 * User tables are truncated in parallel. The schema is kept.
+		 */
+		TRUNCATE,
+
+		/**
+		 * User keyspaces are dropped. The schema has to be recreated by the {@link #setCqlDataSet data set}, which is
+		 * therefore required.
+		 */
+		DROP
+
+	}
+
+	private static final class CqlSessionRows {
+
+		static boolean isResultSet(Object resultSet) {
+			return resultSet instanceof com.datastax.oss.driver.api.core.cql.ResultSet;
+		}
+
+		static List<String[]> getRows(Object resultSet, int columns) {
+			List<String[]> rows = new ArrayList<>();
+			for (com.datastax.oss.driver.api.core.cql.Row row
+					: (com.datastax.oss.driver.api.core.cql.ResultSet) resultSet) {
+				String[] values = new String[columns];
+				for (int i = 0; i < columns; i++) {
+					values[i] = row.getString(i);
+				}
+				rows.add(values);
+			}
+			return rows;
+		}
+
+	}
+
+	private static final class ClusterRows {
+
+		static boolean isResultSet(Object resultSet) {
+			return resultSet instanceof com.datastax.driver.core.ResultSet;
+		}
+
+		static List<String[]> getRows(Object resultSet, int columns) {
+			List<String[]> rows = new ArrayList<>();
+			for (com.datastax.driver.core.Row row : (com.datastax.driver.core.ResultSet) resultSet) {
+				String[] values = new String[columns];
+				for (int i = 0; i < columns; i++) {
+					values[i] = row.getString(i);
+				}
+				rows.add(values);
+			}
+			return rows;
+		}
+
+	}
+
+}
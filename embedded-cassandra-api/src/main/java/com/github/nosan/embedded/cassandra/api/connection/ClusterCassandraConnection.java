@@ -16,10 +16,16 @@
 
 package com.github.nosan.embedded.cassandra.api.connection;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.ColumnDefinitions;
 import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
 
 import com.github.nosan.embedded.cassandra.api.Cassandra;
@@ -59,6 +65,21 @@ public final class ClusterCassandraConnection implements CassandraConnection {
 		return this.session.execute(query, values);
 	}
 
+	@Override
+	public List<Map<String, Object>> select(String query, Object... values) {
+		ResultSet resultSet = execute(query, values);
+		ColumnDefinitions definitions = resultSet.getColumnDefinitions();
+		List<Map<String, Object>> rows = new ArrayList<>();
+		for (Row row : resultSet) {
+			Map<String, Object> columns = new LinkedHashMap<>();
+			for (int i = 0; i < definitions.size(); i++) {
+				columns.put(definitions.getName(i), row.getObject(i));
+			}
+			rows.add(columns);
+		}
+		return rows;
+	}
+
 	@Override
 	public Cluster getConnection() {
 		return this.cluster;
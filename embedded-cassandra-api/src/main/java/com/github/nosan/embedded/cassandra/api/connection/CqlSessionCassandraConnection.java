@@ -16,10 +16,16 @@
 
 package com.github.nosan.embedded.cassandra.api.connection;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
 import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.core.cql.SimpleStatement;
 
 import com.github.nosan.embedded.cassandra.api.Cassandra;
@@ -56,6 +62,20 @@ public final class CqlSessionCassandraConnection implements CassandraConnection
 		return this.session.execute(SimpleStatement.newInstance(query, values));
 	}
 
+	@Override
+	public List<Map<String, Object>> select(String query, Object... values) {
+		List<Map<String, Object>> rows = new ArrayList<>();
+		for (Row row : execute(query, values)) {
+			ColumnDefinitions definitions = row.getColumnDefinitions();
+			Map<String, Object> columns = new LinkedHashMap<>();
+			for (int i = 0; i < definitions.size(); i++) {
+				columns.put(definitions.get(i).getName().asInternal(), row.getObject(i));
+			}
+			rows.add(columns);
+		}
+		return rows;
+	}
+
 	@Override
 	public CqlSession getConnection() {
 		return this.session;
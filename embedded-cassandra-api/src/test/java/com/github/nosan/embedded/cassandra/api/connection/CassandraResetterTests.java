@@ -0,0 +1,184 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.api.connection;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import org.junit.jupiter.api.Test;
+
+import com.github.nosan.embedded.cassandra.api.cql.CqlDataSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link CassandraResetter}.
+ *
+ * @author Dmytro Nosan
+ */
+class CassandraResetterTests {
+
+	private final List<String> queries = Collections.synchronizedList(new ArrayList<>());
+
+	private final List<String[]> tables = new ArrayList<>();
+
+	private final List<String[]> keyspaces = new ArrayList<>();
+
+	private final AtomicInteger running = new AtomicInteger();
+
+	private final AtomicInteger maxRunning = new AtomicInteger();
+
+	private final CassandraResetter resetter = new CassandraResetter(new CassandraConnection() {
+
+		@Override
+		public Object execute(String query) {
+			CassandraResetterTests.this.queries.add(query);
+			if (query.equals("SELECT keyspace_name, table_name FROM system_schema.tables")
+					&& !CassandraResetterTests.this.tables.isEmpty()) {
+				return resultSet(CassandraResetterTests.this.tables);
+			}
+			if (query.equals("SELECT keyspace_name FROM system_schema.keyspaces")
+					&& !CassandraResetterTests.this.keyspaces.isEmpty()) {
+				return resultSet(CassandraResetterTests.this.keyspaces);
+			}
+			if (query.startsWith("TRUNCATE")) {
+				int running = CassandraResetterTests.this.running.incrementAndGet();
+				CassandraResetterTests.this.maxRunning.accumulateAndGet(running, Math::max);
+				try {
+					Thread.sleep(50);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				finally {
+					CassandraResetterTests.this.running.decrementAndGet();
+				}
+			}
+			return query;
+		}
+
+		@Override
+		public Object execute(String query, Object... values) {
+			return execute(query);
+		}
+
+		@Override
+		public Object getConnection() {
+			return this;
+		}
+
+		@Override
+		public void close() {
+		}
+
+	});
+
+	@Test
+	void defaults() {
+		assertThat(this.resetter.getStrategy()).isEqualTo(CassandraResetter.Strategy.TRUNCATE);
+		assertThat(this.resetter.getParallelism()).isEqualTo(4);
+		assertThat(this.resetter.getCqlDataSet()).isNull();
+	}
+
+	@Test
+	void invalidParallelism() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.resetter.setParallelism(0));
+	}
+
+	@Test
+	void unsupportedResultSet() {
+		assertThatIllegalStateException().isThrownBy(this.resetter::reset).withMessageContaining("is not supported");
+		assertThat(this.queries).containsExactly("SELECT keyspace_name, table_name FROM system_schema.tables",
+				"SELECT keyspace_name, columnfamily_name FROM system.schema_columnfamilies");
+	}
+
+	@Test
+	void truncate() {
+		this.tables.add(new String[]{"system", "local"});
+		this.tables.add(new String[]{"system_schema", "tables"});
+		this.tables.add(new String[]{"dse_system", "encrypted_keys"});
+		this.tables.add(new String[]{"test", "users"});
+		this.tables.add(new String[]{"test", "Roles"});
+		this.tables.add(new String[]{"other", "events"});
+		this.resetter.setCqlDataSet(CqlDataSet.ofStrings("INSERT INTO test.users (id) VALUES (1)"));
+		this.resetter.reset();
+		assertThat(this.queries.subList(1, 4)).containsExactlyInAnyOrder("TRUNCATE \"test\".\"users\"",
+				"TRUNCATE \"test\".\"Roles\"", "TRUNCATE \"other\".\"events\"");
+		assertThat(this.queries).hasSize(5).endsWith("INSERT INTO test.users (id) VALUES (1)");
+	}
+
+	@Test
+	void truncateThrottled() {
+		for (int i = 0; i < 8; i++) {
+			this.tables.add(new String[]{"test", "table" + i});
+		}
+		this.resetter.setParallelism(2);
+		this.resetter.reset();
+		assertThat(this.queries).hasSize(9);
+		assertThat(this.maxRunning.get()).isBetween(1, 2);
+	}
+
+	@Test
+	void drop() {
+		this.keyspaces.add(new String[]{"system_auth"});
+		this.keyspaces.add(new String[]{"test"});
+		this.keyspaces.add(new String[]{"other"});
+		this.keyspaces.add(new String[]{"types"});
+		this.resetter.setStrategy(CassandraResetter.Strategy.DROP);
+		this.resetter.setCqlDataSet(CqlDataSet.ofStrings("CREATE KEYSPACE test"));
+		this.resetter.reset();
+		assertThat(this.queries).containsExactly("SELECT keyspace_name FROM system_schema.keyspaces",
+				"DROP KEYSPACE IF EXISTS \"test\"", "DROP KEYSPACE IF EXISTS \"other\"",
+				"DROP KEYSPACE IF EXISTS \"types\"", "CREATE KEYSPACE test");
+	}
+
+	@Test
+	void dropWithoutCqlDataSet() {
+		this.tables.add(new String[]{"test", "users"});
+		this.resetter.setStrategy(CassandraResetter.Strategy.DROP);
+		assertThatIllegalStateException().isThrownBy(this.resetter::reset).withMessageContaining("CqlDataSet");
+		assertThat(this.queries).isEmpty();
+	}
+
+	private static ResultSet resultSet(List<String[]> values) {
+		List<Row> rows = new ArrayList<>();
+		for (String[] row : values) {
+			rows.add((Row) Proxy.newProxyInstance(Row.class.getClassLoader(), new Class<?>[]{Row.class},
+					(proxy, method, args) -> {
+						if (method.getName().equals("getString") && args[0] instanceof Integer) {
+							return row[(Integer) args[0]];
+						}
+						throw new UnsupportedOperationException(method.toString());
+					}));
+		}
+		return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+				(proxy, method, args) -> {
+					if (method.getName().equals("iterator")) {
+						return rows.iterator();
+					}
+					throw new UnsupportedOperationException(method.toString());
+				});
+	}
+
+}
@@ -16,29 +16,51 @@
 
 package com.github.nosan.embedded.cassandra.commons.io;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.net.URI;
 import java.net.URL;
 import java.nio.file.FileSystemNotFoundException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveException;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
 import org.apache.commons.compress.archivers.ArchiveStreamFactory;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.compressors.CompressorException;
-import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.compress.utils.IOUtils;
 
 import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.commons.util.DaemonThreadFactory;
 
 /**
  * {@link Resource} implementation for archives.
@@ -48,8 +70,16 @@ import com.github.nosan.embedded.cassandra.annotations.Nullable;
  */
 public class ArchiveResource implements Resource {
 
+	private static final int MAX_PENDING_BYTES = 64 * 1024 * 1024;
+
+	private static final int MAX_ENTRY_BYTES = 8 * 1024 * 1024;
+
+	private static final ThreadFactory THREAD_FACTORY = new DaemonThreadFactory("archive-extractor");
+
 	private final Resource resource;
 
+	private final Map<String, ArchiveInputStreamFactory> decompressors = new ConcurrentHashMap<>();
+
 	/**
 	 * Constructs a new {@link ArchiveResource} with the specified {@link Resource}.
 	 *
@@ -82,8 +112,24 @@ public class ArchiveResource implements Resource {
 	 * @throws IOException if an I/O error occurs or the resource does not exist
 	 */
 	public void extract(Path destination) throws IOException {
+		extract(destination, (Predicate<? super ArchiveEntry>) null);
+	}
+
+	/**
+	 * Extracts the entries of this {@code Resource} that match the given filter into the given destination directory.
+	 * Entries that do not match are skipped and never written to disk.
+	 *
+	 * @param destination the directory to which to extract the files
+	 * @param filter the filter to select entries, or {@code null} to extract all entries
+	 * @throws IOException if an I/O error occurs or the resource does not exist
+	 * @since 3.1.0
+	 */
+	public void extract(Path destination, @Nullable Predicate<? super ArchiveEntry> filter) throws IOException {
 		Objects.requireNonNull(destination, "'destination' must not be null");
 		forEach((entry, stream) -> {
+			if (filter != null && !filter.test(entry)) {
+				return;
+			}
 			if (entry.isDirectory()) {
 				Path directory = destination.resolve(entry.getName());
 				Files.createDirectories(directory);
@@ -100,6 +146,61 @@ public class ArchiveResource implements Resource {
 
 	}
 
+	/**
+	 * Extracts this {@code Resource} into the given destination directory using up to {@code parallelism} threads.
+	 * <p>
+	 * Zip archives located on the file system are random-access, hence their entries are extracted fully in parallel.
+	 * Other archives are extracted by a pipeline: the calling thread decompresses the archive and reads the entries
+	 * into memory, while a bounded pool of {@code parallelism - 1} threads writes them to disk. Large entries, and
+	 * entries of unknown size, are written by the calling thread. {@code 1} is equivalent to {@link #extract(Path)}.
+	 *
+	 * @param destination the directory to which to extract the files
+	 * @param parallelism the maximum number of threads
+	 * @throws IOException if an I/O error occurs or the resource does not exist
+	 * @since 3.1.0
+	 */
+	public void extract(Path destination, int parallelism) throws IOException {
+		extract(destination, parallelism, null);
+	}
+
+	/**
+	 * Extracts the entries of this {@code Resource} that match the given filter into the given destination directory
+	 * using up to {@code parallelism} threads.
+	 *
+	 * @param destination the directory to which to extract the files
+	 * @param parallelism the maximum number of threads
+	 * @param filter the filter to select entries, or {@code null} to extract all entries
+	 * @throws IOException if an I/O error occurs or the resource does not exist
+	 * @see #extract(Path, int)
+	 * @see #extract(Path, Predicate)
+	 * @since 3.1.0
+	 */
+	public void extract(Path destination, int parallelism, @Nullable Predicate<? super ArchiveEntry> filter)
+			throws IOException {
+		Objects.requireNonNull(destination, "'destination' must not be null");
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("'parallelism' must be greater than 0");
+		}
+		if (parallelism == 1) {
+			extract(destination, filter);
+			return;
+		}
+		Path zipFile = getZipFile();
+		ExecutorService executor = Executors.newFixedThreadPool((zipFile != null) ? parallelism : parallelism - 1,
+				THREAD_FACTORY);
+		try {
+			if (zipFile != null) {
+				extractZip(zipFile, destination, executor, filter);
+			}
+			else {
+				extractPipelined(destination, executor, filter);
+			}
+		}
+		finally {
+			shutdown(executor);
+		}
+	}
+
 	/**
 	 * Returns the underlying resource.
 	 *
@@ -187,6 +288,171 @@ public class ArchiveResource implements Resource {
 		return this.resource.hashCode();
 	}
 
+	@Nullable
+	private Path getZipFile() {
+		String name = Objects.toString(getFileName(), "");
+		if (getClass() != ArchiveResource.class || !(name.endsWith(".zip") || name.endsWith(".jar"))) {
+			// subclasses may customize archive streams
+			return null;
+		}
+		for (String extension : this.decompressors.keySet()) {
+			if (name.endsWith(extension)) {
+				// a custom decompressor has to read the stream
+				return null;
+			}
+		}
+		try {
+			Path path = this.resource.toPath();
+			return Files.isRegularFile(path) ? path : null;
+		}
+		catch (IOException | RuntimeException ex) {
+			return null;
+		}
+	}
+
+	private static void extractZip(Path file, Path destination, ExecutorService executor,
+			@Nullable Predicate<? super ArchiveEntry> filter) throws IOException {
+		try (ZipFile zipFile = new ZipFile(file.toFile())) {
+			List<Future<?>> futures = new ArrayList<>();
+			for (ZipEntry entry : Collections.list(zipFile.entries())) {
+				if (filter != null && !filter.test(new ZipArchiveEntry(entry))) {
+					continue;
+				}
+				Path path = destination.resolve(entry.getName());
+				if (entry.isDirectory()) {
+					Files.createDirectories(path);
+				}
+				else {
+					createParentDirectories(path);
+					futures.add(executor.submit(() -> {
+						try (InputStream is = zipFile.getInputStream(entry)) {
+							Files.copy(is, path, StandardCopyOption.REPLACE_EXISTING);
+						}
+						return null;
+					}));
+				}
+			}
+			await(futures);
+		}
+	}
+
+	private void extractPipelined(Path destination, ExecutorService executor,
+			@Nullable Predicate<? super ArchiveEntry> filter) throws IOException {
+		Semaphore pending = new Semaphore(MAX_PENDING_BYTES);
+		List<Future<?>> futures = new ArrayList<>();
+		Set<Path> paths = new HashSet<>();
+		forEach((entry, stream) -> {
+			if (filter != null && !filter.test(entry)) {
+				return;
+			}
+			Path path = destination.resolve(entry.getName());
+			if (entry.isDirectory()) {
+				Files.createDirectories(path);
+				return;
+			}
+			createParentDirectories(path);
+			if (!paths.add(path)) {
+				// the same file is written again, the previous write must complete first
+				await(futures);
+			}
+			long size = entry.getSize();
+			if (size < 0 || size > MAX_ENTRY_BYTES) {
+				Files.copy(stream, path, StandardCopyOption.REPLACE_EXISTING);
+				return;
+			}
+			int bytes = (int) size;
+			acquire(pending, bytes);
+			byte[] content = new byte[bytes];
+			try {
+				int read = IOUtils.readFully(stream, content);
+				if (read != bytes) {
+					throw new IOException("Premature end of entry '" + entry.getName() + "'. Expected '" + bytes
+							+ "' bytes, but was '" + read + "'");
+				}
+			}
+			catch (IOException ex) {
+				pending.release(bytes);
+				throw ex;
+			}
+			futures.add(executor.submit(() -> {
+				try {
+					Files.write(path, content);
+				}
+				finally {
+					pending.release(bytes);
+				}
+				return null;
+			}));
+			if (futures.size() % 64 == 0) {
+				checkCompleted(futures);
+			}
+		});
+		await(futures);
+	}
+
+	private static void shutdown(ExecutorService executor) {
+		executor.shutdownNow();
+		try {
+			// pending writes must not touch the destination once the extraction has returned
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void createParentDirectories(Path path) throws IOException {
+		Path directory = path.getParent();
+		if (directory != null && !Files.exists(directory)) {
+			Files.createDirectories(directory);
+		}
+	}
+
+	private static void acquire(Semaphore semaphore, int permits) throws IOException {
+		try {
+			semaphore.acquire(permits);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Extraction has been interrupted");
+		}
+	}
+
+	private static void checkCompleted(List<Future<?>> futures) throws IOException {
+		Iterator<Future<?>> iterator = futures.iterator();
+		while (iterator.hasNext()) {
+			Future<?> future = iterator.next();
+			if (future.isDone()) {
+				get(future);
+				iterator.remove();
+			}
+		}
+	}
+
+	private static void await(List<Future<?>> futures) throws IOException {
+		for (Future<?> future : futures) {
+			get(future);
+		}
+		futures.clear();
+	}
+
+	private static void get(Future<?> future) throws IOException {
+		try {
+			future.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Extraction has been interrupted");
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			throw new IOException("Entry cannot be extracted", cause);
+		}
+	}
+
 	/**
 	 * Creates {@link ArchiveStreamFactory} for the given resource.
 	 *
@@ -194,7 +460,36 @@ public class ArchiveResource implements Resource {
 	 * @return a factory to create a {@link ArchiveInputStream}.
 	 */
 	protected ArchiveInputStreamFactory createArchiveInputStreamFactory(Resource resource) {
-		return ArchiveStreams.create(resource);
+		return ArchiveStreams.create(resource, this.decompressors);
+	}
+
+	/**
+	 * Sets the {@link Decompressor} of this resource for archives whose file name ends with the given extension, e.g.
+	 * {@code .tar.zst}. The decompressed stream is read as an archive of the given type, e.g. {@link
+	 * ArchiveStreamFactory#TAR}. Extensions set here take precedence over the built-in ones, and the longest matching
+	 * extension wins.
+	 *
+	 * @param extension the file name extension, e.g. {@code .tar.zst}
+	 * @param archiveType the archive type, see {@link ArchiveStreamFactory}
+	 * @param decompressor the decompressor
+	 * @since 3.1.0
+	 */
+	public void setDecompressor(String extension, String archiveType, Decompressor decompressor) {
+		Objects.requireNonNull(extension, "'extension' must not be null");
+		Objects.requireNonNull(archiveType, "'archiveType' must not be null");
+		Objects.requireNonNull(decompressor, "'decompressor' must not be null");
+		this.decompressors.put(extension, ArchiveStreams.create(archiveType, decompressor));
+	}
+
+	/**
+	 * Removes the {@link Decompressor} set for the given extension, so that the built-in one is used again.
+	 *
+	 * @param extension the file name extension
+	 * @since 3.1.0
+	 */
+	public void removeDecompressor(String extension) {
+		Objects.requireNonNull(extension, "'extension' must not be null");
+		this.decompressors.remove(extension);
 	}
 
 	/**
@@ -231,16 +526,38 @@ public class ArchiveResource implements Resource {
 
 	}
 
+	/**
+	 * Decompressor that decodes a compressed archive stream, e.g. {@code gzip} or {@code zstd}.
+	 *
+	 * @see #setDecompressor(String, String, Decompressor)
+	 * @since 3.1.0
+	 */
+	@FunctionalInterface
+	public interface Decompressor {
+
+		/**
+		 * Creates a decompressed {@link InputStream} for the given compressed stream.
+		 *
+		 * @param is the compressed stream
+		 * @return the decompressed stream
+		 * @throws IOException if an I/O error occurs or the stream format is invalid
+		 */
+		InputStream decompress(InputStream is) throws IOException;
+
+	}
+
 	private static final class ArchiveStreams {
 
+		private static final int BUFFER_SIZE = 64 * 1024;
+
 		private static final Map<String, ArchiveInputStreamFactory> STREAMS;
 
 		static {
 			Map<String, ArchiveInputStreamFactory> streams = new LinkedHashMap<>();
-			streams.put(".tar.gz", create(ArchiveStreamFactory.TAR, CompressorStreamFactory.GZIP));
-			streams.put(".tar.bz2", create(ArchiveStreamFactory.TAR, CompressorStreamFactory.BZIP2));
-			streams.put(".tgz", create(ArchiveStreamFactory.TAR, CompressorStreamFactory.GZIP));
-			streams.put(".tbz2", create(ArchiveStreamFactory.TAR, CompressorStreamFactory.BZIP2));
+			streams.put(".tar.gz", create(ArchiveStreamFactory.TAR, ArchiveStreams::gzip));
+			streams.put(".tar.bz2", create(ArchiveStreamFactory.TAR, ArchiveStreams::bzip2));
+			streams.put(".tgz", create(ArchiveStreamFactory.TAR, ArchiveStreams::gzip));
+			streams.put(".tbz2", create(ArchiveStreamFactory.TAR, ArchiveStreams::bzip2));
 			streams.put(".7z", create(ArchiveStreamFactory.SEVEN_Z));
 			streams.put(".a", create(ArchiveStreamFactory.AR));
 			streams.put(".ar", create(ArchiveStreamFactory.AR));
@@ -254,8 +571,21 @@ public class ArchiveResource implements Resource {
 			STREAMS = Collections.unmodifiableMap(streams);
 		}
 
-		static ArchiveInputStreamFactory create(Resource resource) {
+		static ArchiveInputStreamFactory create(Resource resource,
+				Map<String, ArchiveInputStreamFactory> decompressors) {
 			String name = Objects.toString(resource.getFileName(), "");
+			String extension = null;
+			for (String candidate : decompressors.keySet()) {
+				if (name.endsWith(candidate) && (extension == null || candidate.length() > extension.length())) {
+					extension = candidate;
+				}
+			}
+			if (extension != null) {
+				ArchiveInputStreamFactory factory = decompressors.get(extension);
+				if (factory != null) {
+					return factory;
+				}
+			}
 			for (Map.Entry<String, ArchiveInputStreamFactory> entry : STREAMS.entrySet()) {
 				if (name.endsWith(entry.getKey())) {
 					return entry.getValue();
@@ -264,21 +594,39 @@ public class ArchiveResource implements Resource {
 			throw new IllegalArgumentException("Archive Type for '" + resource + "' cannot be determined");
 		}
 
-		private static ArchiveInputStreamFactory create(String archiveType, String compressorType) {
+		static ArchiveInputStreamFactory create(String archiveType, Decompressor decompressor) {
 			return is -> {
+				InputStream decompressed;
+				try {
+					decompressed = decompressor.decompress(is);
+				}
+				catch (IOException ex) {
+					throw new CompressorException("Stream of '" + archiveType + "' archive cannot be decompressed",
+							ex);
+				}
 				ArchiveStreamFactory af = new ArchiveStreamFactory();
-				CompressorStreamFactory csf = new CompressorStreamFactory();
-				return af.createArchiveInputStream(archiveType, csf.createCompressorInputStream(compressorType, is));
+				return af.createArchiveInputStream(archiveType, decompressed);
 			};
 		}
 
 		private static ArchiveInputStreamFactory create(String archiveType) {
 			return is -> {
 				ArchiveStreamFactory af = new ArchiveStreamFactory();
-				return af.createArchiveInputStream(archiveType, is);
+				return af.createArchiveInputStream(archiveType, new BufferedInputStream(is, BUFFER_SIZE));
 			};
 		}
 
+		private static InputStream gzip(InputStream is) throws IOException {
+			// GZIPInputStream inflates with java.util.zip.Inflater just like GzipCompressorInputStream does, the
+			// larger input buffer and the buffered output only spare the archive reader many small reads
+			return new BufferedInputStream(new GZIPInputStream(is, BUFFER_SIZE), BUFFER_SIZE);
+		}
+
+		private static InputStream bzip2(InputStream is) throws IOException {
+			// BZip2CompressorInputStream reads the source byte by byte
+			return new BZip2CompressorInputStream(new BufferedInputStream(is, BUFFER_SIZE), true);
+		}
+
 	}
 
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.commons.util;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link ThreadFactory} that creates daemon threads named {@code <prefix>-<number>}, so that background work never
+ * prevents the JVM from exiting.
+ *
+ * @author Dmytro Nosan
+ * @since 3.1.0
+ */
+public final class DaemonThreadFactory implements ThreadFactory {
+
+	private final AtomicInteger number = new AtomicInteger();
+
+	private final String prefix;
+
+	/**
+	 * Creates a {@link DaemonThreadFactory} with the specified thread name prefix.
+	 *
+	 * @param prefix the thread name prefix
+	 */
+	public DaemonThreadFactory(String prefix) {
+		this.prefix = Objects.requireNonNull(prefix, "'prefix' must not be null");
+	}
+
+	@Override
+	public Thread newThread(Runnable runnable) {
+		Thread thread = new Thread(runnable, this.prefix + "-" + this.number.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	}
+
+}
@@ -17,15 +17,26 @@
 package com.github.nosan.embedded.cassandra.commons.util;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.function.BiPredicate;
 
 import com.github.nosan.embedded.cassandra.annotations.Nullable;
@@ -38,6 +49,8 @@ import com.github.nosan.embedded.cassandra.annotations.Nullable;
  */
 public final class FileUtils {
 
+	private static final long TRANSFER_THRESHOLD = 1024 * 1024;
+
 	private FileUtils() {
 	}
 
@@ -96,6 +109,31 @@ public final class FileUtils {
 		return true;
 	}
 
+	/**
+	 * Delete the supplied {@link Path} using a fork-join directory walk. Sibling directories are deleted in parallel.
+	 * If {@code parallelism} is {@code 1}, this method behaves exactly like {@link #delete(Path)}.
+	 *
+	 * @param path the {@code path} to delete
+	 * @param parallelism the parallelism level
+	 * @return {@code true} if the {@code path} existed and was deleted, or {@code false} it did not exist
+	 * @throws IOException in the case of I/O errors
+	 * @since 3.1.0
+	 */
+	public static boolean delete(@Nullable Path path, int parallelism) throws IOException {
+		checkParallelism(parallelism);
+		if (parallelism == 1) {
+			return delete(path);
+		}
+		if (path == null) {
+			return false;
+		}
+		if (!Files.exists(path, LinkOption.NOFOLLOW_LINKS)) {
+			return false;
+		}
+		invoke(new DeleteAction(path), parallelism);
+		return true;
+	}
+
 	/**
 	 * Recursively copy the contents of the {@code src} file/directory to the {@code dest} file/directory.
 	 *
@@ -130,4 +168,245 @@ public final class FileUtils {
 
 	}
 
+	/**
+	 * Recursively copy the contents of the {@code src} file/directory to the {@code dest} file/directory using a
+	 * fork-join directory walk. Sibling directories are copied in parallel, and large regular files are copied with
+	 * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}. If {@code parallelism} is
+	 * {@code 1}, this method behaves exactly like {@link #copy(Path, Path, BiPredicate)}.
+	 *
+	 * @param src the source path
+	 * @param dest the destination path
+	 * @param matcher the function used to decide whether a path should be copied or not
+	 * @param parallelism the parallelism level
+	 * @throws IOException in the case of I/O errors
+	 * @since 3.1.0
+	 */
+	public static void copy(Path src, Path dest,
+			@Nullable BiPredicate<? super Path, ? super BasicFileAttributes> matcher, int parallelism)
+			throws IOException {
+		Objects.requireNonNull(src, "'src' must not be null");
+		Objects.requireNonNull(dest, "'dest' must not be null");
+		checkParallelism(parallelism);
+		if (parallelism == 1) {
+			copy(src, dest, matcher);
+			return;
+		}
+		BasicFileAttributes attributes = Files.readAttributes(src, BasicFileAttributes.class,
+				LinkOption.NOFOLLOW_LINKS);
+		if (matcher != null && !matcher.test(src, attributes)) {
+			return;
+		}
+		if (attributes.isDirectory()) {
+			Files.createDirectories(dest);
+			invoke(new CopyAction(src, dest, matcher), parallelism);
+		}
+		else {
+			copyFile(src, dest, attributes);
+		}
+	}
+
+	/**
+	 * Recursively link the contents of the {@code src} directory to the {@code dest} directory. Directories are
+	 * created, whereas files are hard-linked. If hard links are not supported (e.g. {@code src} and {@code dest} are
+	 * located on different file stores), files are linked symbolically, and if symbolic links are not supported
+	 * either, files are copied.
+	 *
+	 * @param src the source path
+	 * @param dest the destination path
+	 * @param matcher the function used to decide whether a path should be linked or not
+	 * @throws IOException in the case of I/O errors
+	 * @since 3.1.0
+	 */
+	public static void link(Path src, Path dest,
+			@Nullable BiPredicate<? super Path, ? super BasicFileAttributes> matcher) throws IOException {
+		Objects.requireNonNull(src, "'src' must not be null");
+		Objects.requireNonNull(dest, "'dest' must not be null");
+		Path source = src.toAbsolutePath();
+		Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+
+			private LinkMode mode = LinkMode.HARD;
+
+			@Override
+			public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attrs) throws IOException {
+				if (matcher == null || matcher.test(directory, attrs)) {
+					Files.createDirectories(dest.resolve(source.relativize(directory)));
+					return FileVisitResult.CONTINUE;
+				}
+				return FileVisitResult.SKIP_SUBTREE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				if (matcher == null || matcher.test(file, attrs)) {
+					Path target = dest.resolve(source.relativize(file));
+					Files.deleteIfExists(target);
+					this.mode = this.mode.link(file, target);
+				}
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private static void checkParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("'parallelism' must be greater than 0");
+		}
+	}
+
+	private static void invoke(RecursiveAction action, int parallelism) throws IOException {
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			pool.invoke(action);
+		}
+		catch (UncheckedIOException ex) {
+			throw ex.getCause();
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	private static void copyFile(Path file, Path target, BasicFileAttributes attributes) throws IOException {
+		if (!attributes.isRegularFile() || attributes.size() < TRANSFER_THRESHOLD) {
+			Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING);
+			return;
+		}
+		try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ);
+				FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+						StandardOpenOption.TRUNCATE_EXISTING)) {
+			long size = in.size();
+			long position = 0;
+			while (position < size) {
+				position += in.transferTo(position, size - position, out);
+			}
+		}
+		// Files.copy keeps the permissions of the source, e.g. the execute bit of scripts
+		PosixFileAttributeView view = Files.getFileAttributeView(file, PosixFileAttributeView.class);
+		if (view != null) {
+			Files.setPosixFilePermissions(target, view.readAttributes().permissions());
+		}
+	}
+
+	private static final class CopyAction extends RecursiveAction {
+
+		private final Path src;
+
+		private final Path dest;
+
+		@Nullable
+		private final BiPredicate<? super Path, ? super BasicFileAttributes> matcher;
+
+		CopyAction(Path src, Path dest, @Nullable BiPredicate<? super Path, ? super BasicFileAttributes> matcher) {
+			this.src = src;
+			this.dest = dest;
+			this.matcher = matcher;
+		}
+
+		@Override
+		protected void compute() {
+			try {
+				List<CopyAction> actions = new ArrayList<>();
+				try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.src)) {
+					for (Path path : stream) {
+						BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class,
+								LinkOption.NOFOLLOW_LINKS);
+						if (this.matcher != null && !this.matcher.test(path, attributes)) {
+							continue;
+						}
+						Path target = this.dest.resolve(path.getFileName().toString());
+						if (attributes.isDirectory()) {
+							Files.createDirectories(target);
+							actions.add(new CopyAction(path, target, this.matcher));
+						}
+						else {
+							copyFile(path, target, attributes);
+						}
+					}
+				}
+				invokeAll(actions);
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+
+	}
+
+	private static final class DeleteAction extends RecursiveAction {
+
+		private final Path path;
+
+		DeleteAction(Path path) {
+			this.path = path;
+		}
+
+		@Override
+		protected void compute() {
+			try {
+				if (Files.isDirectory(this.path, LinkOption.NOFOLLOW_LINKS)) {
+					List<DeleteAction> actions = new ArrayList<>();
+					try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.path)) {
+						for (Path child : stream) {
+							if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+								actions.add(new DeleteAction(child));
+							}
+							else {
+								Files.deleteIfExists(child);
+							}
+						}
+					}
+					invokeAll(actions);
+				}
+				Files.deleteIfExists(this.path);
+			}
+			catch (NoSuchFileException ex) {
+				// already deleted
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+
+	}
+
+	private enum LinkMode {
+
+		HARD {
+			@Override
+			LinkMode link(Path file, Path target) throws IOException {
+				try {
+					Files.createLink(target, file);
+					return this;
+				}
+				catch (IOException | UnsupportedOperationException | SecurityException ex) {
+					return SYMBOLIC.link(file, target);
+				}
+			}
+		},
+
+		SYMBOLIC {
+			@Override
+			LinkMode link(Path file, Path target) throws IOException {
+				try {
+					Files.createSymbolicLink(target, file);
+					return this;
+				}
+				catch (IOException | UnsupportedOperationException | SecurityException ex) {
+					return COPY.link(file, target);
+				}
+			}
+		},
+
+		COPY {
+			@Override
+			LinkMode link(Path file, Path target) throws IOException {
+				Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+				return this;
+			}
+		};
+
+		abstract LinkMode link(Path file, Path target) throws IOException;
+
+	}
+
 }
@@ -16,6 +16,8 @@
 
 package com.github.nosan.embedded.cassandra.commons.util;
 
+import java.util.Objects;
+
 import com.github.nosan.embedded.cassandra.annotations.Nullable;
 
 /**
@@ -68,4 +70,20 @@ public final class StringUtils {
 		return false;
 	}
 
+	/**
+	 * Encodes the given {@code bytes} as a lower-case hex {@code string}.
+	 *
+	 * @param bytes the bytes to encode
+	 * @return the hex {@code string}
+	 * @since 3.1.0
+	 */
+	public static String toHex(byte[] bytes) {
+		Objects.requireNonNull(bytes, "'bytes' must not be null");
+		StringBuilder hex = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return hex.toString();
+	}
+
 }
@@ -20,13 +20,26 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.compress.archivers.ArchiveStreamFactory;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.CompressorException;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 
 /**
  * Tests for {@link ArchiveResource}.
@@ -93,4 +106,132 @@ class ArchiveResourceTests {
 		assertThat(destination.resolve("test/text.txt")).isRegularFile();
 	}
 
+	@Test
+	void extractParallel(@TempDir Path destination) throws IOException {
+		this.resource.extract(destination.resolve("sequential"));
+		this.resource.extract(destination.resolve("parallel"), 4);
+		assertThat(destination.resolve("parallel/test")).isDirectory();
+		assertThat(destination.resolve("parallel/test/text.txt")).hasSameContentAs(
+				destination.resolve("sequential/test/text.txt"));
+	}
+
+	@Test
+	void extractZipParallel(@TempDir Path temporaryFolder) throws IOException {
+		Path zip = temporaryFolder.resolve("test.zip");
+		try (ZipOutputStream os = new ZipOutputStream(Files.newOutputStream(zip))) {
+			os.putNextEntry(new ZipEntry("test/"));
+			os.closeEntry();
+			for (int i = 0; i < 32; i++) {
+				os.putNextEntry(new ZipEntry("test/lib/file" + i + ".txt"));
+				os.write(("content" + i).getBytes(StandardCharsets.UTF_8));
+				os.closeEntry();
+			}
+		}
+		Path destination = temporaryFolder.resolve("destination");
+		new ArchiveResource(new FileSystemResource(zip)).extract(destination, 4);
+		for (int i = 0; i < 32; i++) {
+			assertThat(destination.resolve("test/lib/file" + i + ".txt")).hasContent("content" + i);
+		}
+	}
+
+	@Test
+	void extractFiltered(@TempDir Path destination) throws IOException {
+		this.resource.extract(destination.resolve("sequential"), entry -> !entry.getName().endsWith("text.txt"));
+		this.resource.extract(destination.resolve("parallel"), 4, entry -> !entry.getName().endsWith("text.txt"));
+		assertThat(destination.resolve("sequential/test")).isDirectory();
+		assertThat(destination.resolve("sequential/test/text.txt")).doesNotExist();
+		assertThat(destination.resolve("parallel/test")).isDirectory();
+		assertThat(destination.resolve("parallel/test/text.txt")).doesNotExist();
+	}
+
+	@Test
+	void extractZipFiltered(@TempDir Path temporaryFolder) throws IOException {
+		Path zip = temporaryFolder.resolve("test.zip");
+		try (ZipOutputStream os = new ZipOutputStream(Files.newOutputStream(zip))) {
+			for (String name : new String[]{"test/lib/file.txt", "test/doc/file.txt"}) {
+				os.putNextEntry(new ZipEntry(name));
+				os.write(name.getBytes(StandardCharsets.UTF_8));
+				os.closeEntry();
+			}
+		}
+		Path destination = temporaryFolder.resolve("destination");
+		new ArchiveResource(new FileSystemResource(zip)).extract(destination, 4,
+				entry -> !entry.getName().startsWith("test/doc/"));
+		assertThat(destination.resolve("test/lib/file.txt")).hasContent("test/lib/file.txt");
+		assertThat(destination.resolve("test/doc")).doesNotExist();
+	}
+
+	@Test
+	void extractTarBzip2(@TempDir Path temporaryFolder) throws IOException {
+		Path archive = temporaryFolder.resolve("test.tar.bz2");
+		byte[] content = "content".getBytes(StandardCharsets.UTF_8);
+		try (TarArchiveOutputStream os = new TarArchiveOutputStream(
+				new BZip2CompressorOutputStream(Files.newOutputStream(archive)))) {
+			TarArchiveEntry entry = new TarArchiveEntry("test/text.txt");
+			entry.setSize(content.length);
+			os.putArchiveEntry(entry);
+			os.write(content);
+			os.closeArchiveEntry();
+		}
+		Path destination = temporaryFolder.resolve("destination");
+		new ArchiveResource(new FileSystemResource(archive)).extract(destination);
+		assertThat(destination.resolve("test/text.txt")).hasContent("content");
+	}
+
+	@Test
+	void setDecompressor(@TempDir Path temporaryFolder) throws IOException {
+		Path archive = temporaryFolder.resolve("test.tar.custom");
+		Files.copy(Paths.get(this.url.getPath()), archive);
+		AtomicInteger decompressed = new AtomicInteger();
+		ArchiveResource resource = new ArchiveResource(new FileSystemResource(archive));
+		resource.setDecompressor(".tar.custom", ArchiveStreamFactory.TAR, is -> {
+			decompressed.incrementAndGet();
+			return new GZIPInputStream(is);
+		});
+		Path destination = temporaryFolder.resolve("destination");
+		resource.extract(destination);
+		assertThat(decompressed).hasValue(1);
+		assertThat(destination.resolve("test/text.txt")).isRegularFile();
+		assertThatIllegalArgumentException().isThrownBy(() -> new ArchiveResource(new FileSystemResource(archive))
+				.extract(temporaryFolder.resolve("other")));
+		resource.removeDecompressor(".tar.custom");
+		assertThatIllegalArgumentException().isThrownBy(() -> resource.extract(temporaryFolder.resolve("other")));
+	}
+
+	@Test
+	void setDecompressorZipParallel(@TempDir Path temporaryFolder) throws IOException {
+		Path zip = temporaryFolder.resolve("test.zip");
+		try (ZipOutputStream os = new ZipOutputStream(Files.newOutputStream(zip))) {
+			os.putNextEntry(new ZipEntry("test/file.txt"));
+			os.write("content".getBytes(StandardCharsets.UTF_8));
+			os.closeEntry();
+		}
+		AtomicInteger decompressed = new AtomicInteger();
+		ArchiveResource resource = new ArchiveResource(new FileSystemResource(zip));
+		resource.setDecompressor(".zip", ArchiveStreamFactory.ZIP, is -> {
+			decompressed.incrementAndGet();
+			return is;
+		});
+		Path destination = temporaryFolder.resolve("destination");
+		resource.extract(destination, 4);
+		assertThat(decompressed).hasValue(1);
+		assertThat(destination.resolve("test/file.txt")).hasContent("content");
+	}
+
+	@Test
+	void setDecompressorFailure(@TempDir Path temporaryFolder) throws IOException {
+		Path archive = temporaryFolder.resolve("test.tar.custom");
+		Files.copy(Paths.get(this.url.getPath()), archive);
+		ArchiveResource resource = new ArchiveResource(new FileSystemResource(archive));
+		resource.setDecompressor(".tar.custom", ArchiveStreamFactory.TAR, is -> {
+			throw new IOException("Invalid format");
+		});
+		assertThatIOException().isThrownBy(resource::getInputStream).withCauseInstanceOf(CompressorException.class);
+	}
+
+	@Test
+	void extractInvalidParallelism(@TempDir Path destination) {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.resource.extract(destination, 0));
+	}
+
 }
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.commons.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DaemonThreadFactory}.
+ *
+ * @author Dmytro Nosan
+ */
+class DaemonThreadFactoryTests {
+
+	@Test
+	void newThread() {
+		DaemonThreadFactory threadFactory = new DaemonThreadFactory("test");
+		Thread first = threadFactory.newThread(() -> {
+		});
+		Thread second = threadFactory.newThread(() -> {
+		});
+		assertThat(first.isDaemon()).isTrue();
+		assertThat(first.getName()).isEqualTo("test-1");
+		assertThat(second.getName()).isEqualTo("test-2");
+	}
+
+}
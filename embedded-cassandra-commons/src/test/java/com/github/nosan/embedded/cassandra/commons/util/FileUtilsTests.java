@@ -19,14 +19,21 @@ package com.github.nosan.embedded.cassandra.commons.util;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Random;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
 import org.junit.jupiter.api.io.TempDir;
 
 import com.github.nosan.embedded.cassandra.annotations.Nullable;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 
 /**
  * Tests for {@link FileUtils}.
@@ -91,6 +98,20 @@ class FileUtilsTests {
 		assertThat(dest).exists();
 	}
 
+	@Test
+	@DisabledOnOs(OS.WINDOWS)
+	void copyLargeFileParallelKeepsPermissions() throws IOException {
+		Path src = newFile();
+		Files.write(src, new byte[2 * 1024 * 1024]);
+		Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rwxr-x---");
+		Files.setPosixFilePermissions(src, permissions);
+		Path dest = newFile();
+		FileUtils.delete(dest);
+		FileUtils.copy(src, dest, null, 2);
+		assertThat(dest).hasSameContentAs(src);
+		assertThat(Files.getPosixFilePermissions(dest)).isEqualTo(permissions);
+	}
+
 	@Test
 	void copyDir() throws IOException {
 		Path src = newFolder();
@@ -142,6 +163,103 @@ class FileUtilsTests {
 		assertThat(dest.resolve(folder.getFileName()).resolve(file.getFileName())).doesNotExist();
 	}
 
+	@Test
+	void deleteRecursivelyFolderParallel() throws IOException {
+		Path rootDir = newFolder();
+		Path subDir = newFolder(rootDir);
+		Path subSubDir = newFolder(subDir);
+		Path subDirFile = newFile(subSubDir);
+		Path otherDir = newFolder(rootDir);
+		Path otherFile = newFile(otherDir);
+
+		assertThat(FileUtils.delete(rootDir, 4)).isTrue();
+		assertThat(subDirFile).doesNotExist();
+		assertThat(otherFile).doesNotExist();
+		assertThat(rootDir).doesNotExist();
+		assertThat(FileUtils.delete(rootDir, 4)).isFalse();
+	}
+
+	@Test
+	void copyDirParallel() throws IOException {
+		Path src = newFolder();
+		Path folder = newFolder(src);
+		Path file = newFile(folder);
+		Files.write(file, new byte[]{1, 2, 3});
+		Path largeFile = newFile(newFolder(src));
+		byte[] bytes = new byte[3 * 1024 * 1024];
+		new Random().nextBytes(bytes);
+		Files.write(largeFile, bytes);
+
+		Path dest = newFolder();
+		Files.deleteIfExists(dest);
+
+		FileUtils.copy(src, dest, (path, attrs) -> true, 4);
+
+		assertThat(dest.resolve(folder.getFileName()).resolve(file.getFileName())).hasBinaryContent(
+				new byte[]{1, 2, 3});
+		assertThat(dest.resolve(src.relativize(largeFile))).hasBinaryContent(bytes);
+		assertThat(file).hasBinaryContent(new byte[]{1, 2, 3});
+	}
+
+	@Test
+	void shouldNotCopyNestedFilesParallel() throws IOException {
+		Path src = newFolder();
+		Path folder = newFolder(src);
+		Path file = newFile(folder);
+		Path other = newFile(src);
+
+		Path dest = newFolder();
+		Files.deleteIfExists(dest);
+
+		FileUtils.copy(src, dest, (path, attrs) -> !path.equals(folder), 4);
+
+		assertThat(dest.resolve(other.getFileName())).exists();
+		assertThat(dest.resolve(folder.getFileName())).doesNotExist();
+		assertThat(dest.resolve(folder.getFileName()).resolve(file.getFileName())).doesNotExist();
+	}
+
+	@Test
+	void invalidParallelism() {
+		assertThatIllegalArgumentException().isThrownBy(() -> FileUtils.delete(newFolder(), 0));
+		assertThatIllegalArgumentException().isThrownBy(() -> FileUtils.copy(newFolder(), newFolder(), null, 0));
+	}
+
+	@Test
+	void linkDir() throws IOException {
+		Path src = newFolder();
+		Path folder = newFolder(src);
+		Path file = newFile(folder);
+		Files.write(file, new byte[]{1, 2, 3});
+
+		Path dest = newFolder();
+		Files.deleteIfExists(dest);
+
+		FileUtils.link(src, dest, (path, attrs) -> true);
+
+		Path target = dest.resolve(folder.getFileName()).resolve(file.getFileName());
+		assertThat(dest.resolve(folder.getFileName())).isDirectory();
+		assertThat(target).hasBinaryContent(new byte[]{1, 2, 3});
+		assertThat(Files.isSameFile(file, target)).isTrue();
+		FileUtils.delete(dest);
+		assertThat(file).hasBinaryContent(new byte[]{1, 2, 3});
+	}
+
+	@Test
+	void shouldNotLinkNestedFiles() throws IOException {
+		Path src = newFolder();
+		Path folder = newFolder(src);
+		Path file = newFile(folder);
+
+		Path dest = newFolder();
+		Files.deleteIfExists(dest);
+
+		FileUtils.link(src, dest, (path, attrs) -> !path.equals(folder));
+
+		assertThat(dest).isDirectory();
+		assertThat(dest.resolve(folder.getFileName())).doesNotExist();
+		assertThat(dest.resolve(folder.getFileName()).resolve(file.getFileName())).doesNotExist();
+	}
+
 	private Path newFile() throws IOException {
 		return newFile(this.temporaryFolder);
 	}
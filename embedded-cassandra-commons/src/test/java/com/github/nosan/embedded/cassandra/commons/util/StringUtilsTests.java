@@ -53,4 +53,10 @@ class StringUtilsTests {
 		assertThat(StringUtils.isEmpty(null)).isTrue();
 	}
 
+	@Test
+	void toHex() {
+		assertThat(StringUtils.toHex(new byte[0])).isEmpty();
+		assertThat(StringUtils.toHex(new byte[]{0, 10, 127, -128, -1})).isEqualTo("000a7f80ff");
+	}
+
 }
@@ -44,4 +44,11 @@ class MockCassandraTests {
 		assertThat(cassandra.getVersion()).isEqualTo(Version.of("0.0.0-mock"));
 	}
 
+	@Test
+	void testMockCassandraAsync() {
+		MockCassandra cassandra = MockCassandra.INSTANCE;
+		assertThat(cassandra.startAsync().join()).isEqualTo(cassandra);
+		assertThat(cassandra.stopAsync().join()).isEqualTo(cassandra);
+	}
+
 }
@@ -30,12 +30,14 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yaml.snakeyaml.Yaml;
 
+import com.github.nosan.embedded.cassandra.StartupReport.Phase;
 import com.github.nosan.embedded.cassandra.annotations.Nullable;
 import com.github.nosan.embedded.cassandra.commons.io.FileSystemResource;
 import com.github.nosan.embedded.cassandra.commons.io.Resource;
@@ -50,8 +52,12 @@ abstract class AbstractCassandraNode implements CassandraNode {
 
 	private static final String JVM_EXTRA_OPTS = "JVM_EXTRA_OPTS";
 
+	private static final String CASSANDRA_INCLUDE = "CASSANDRA_INCLUDE";
+
 	private static final ByteArrayInputStream EMPTY_STREAM = new ByteArrayInputStream(new byte[0]);
 
+	private static final int DEFAULT_JMX_PORT = 7199;
+
 	protected final Logger logger = LoggerFactory.getLogger(getClass());
 
 	private final Path workingDirectory;
@@ -64,23 +70,34 @@ abstract class AbstractCassandraNode implements CassandraNode {
 
 	private final List<String> jvmOptions;
 
+	@Nullable
+	private final ClassDataSharing classDataSharing;
+
+	private final StartupRecorder recorder;
+
 	@Nullable
 	private volatile Process process;
 
 	private volatile long pid = -1;
 
+	private volatile int jmxPort = -1;
+
 	AbstractCassandraNode(Path workingDirectory, Map<String, Object> properties, List<String> jvmOptions,
-			Map<String, Object> systemProperties, Map<String, Object> environmentVariables) {
+			Map<String, Object> systemProperties, Map<String, Object> environmentVariables,
+			@Nullable ClassDataSharing classDataSharing, StartupRecorder recorder) {
 		this.workingDirectory = workingDirectory;
 		this.properties = Collections.unmodifiableMap(new LinkedHashMap<>(properties));
 		this.jvmOptions = Collections.unmodifiableList(new ArrayList<>(jvmOptions));
 		this.systemProperties = Collections.unmodifiableMap(new LinkedHashMap<>(systemProperties));
 		this.environmentVariables = Collections.unmodifiableMap(new LinkedHashMap<>(environmentVariables));
+		this.classDataSharing = classDataSharing;
+		this.recorder = recorder;
 	}
 
 	@Override
 	public final void start() throws IOException, InterruptedException {
 		RunProcess runProcess = new RunProcess(this.workingDirectory);
+		long configurationStart = System.nanoTime();
 		Map<String, Object> properties = loadProperties();
 		properties.putAll(this.properties);
 		Map<String, Object> systemProperties = new LinkedHashMap<>(this.systemProperties);
@@ -88,8 +105,17 @@ abstract class AbstractCassandraNode implements CassandraNode {
 		configureProperties(properties);
 		Path configFile = Files.createTempFile(this.workingDirectory.resolve("conf"), "", "-cassandra.yaml");
 		dumpProperties(properties, configFile);
+		this.recorder.record(Phase.CONFIGURATION, configurationStart);
 		systemProperties.put("cassandra.config", configFile.toUri().toString());
+		this.jmxPort = getJmxPort(systemProperties);
 		List<String> jvmOptions = new ArrayList<>(this.jvmOptions);
+		if (this.classDataSharing != null) {
+			jvmOptions.addAll(this.classDataSharing.getJvmOptions());
+			Path include = this.classDataSharing.writeInclude(this.workingDirectory);
+			if (include != null) {
+				runProcess.putEnvironment(CASSANDRA_INCLUDE, include);
+			}
+		}
 		for (Map.Entry<String, Object> entry : systemProperties.entrySet()) {
 			Object value = entry.getValue();
 			String name = entry.getKey();
@@ -97,7 +123,9 @@ abstract class AbstractCassandraNode implements CassandraNode {
 		}
 		runProcess.getEnvironment().putAll(this.environmentVariables);
 		runProcess.putEnvironment(JVM_EXTRA_OPTS, String.join(" ", jvmOptions));
+		long spawnStart = System.nanoTime();
 		Process process = doStart(runProcess);
+		this.recorder.record(Phase.PROCESS_SPAWN, spawnStart);
 		this.process = process;
 		this.pid = getPid(process);
 	}
@@ -106,6 +134,9 @@ abstract class AbstractCassandraNode implements CassandraNode {
 	public final void stop() throws IOException, InterruptedException {
 		Process process = this.process;
 		if (process != null && process.isAlive()) {
+			if (this.classDataSharing != null) {
+				this.classDataSharing.verify(this.pid);
+			}
 			doStop(process, this.pid);
 			if (!process.waitFor(3, TimeUnit.SECONDS)) {
 				this.logger.warn("java.lang.Process.destroyForcibly() has been called for '{}'. The behavior of this "
@@ -115,6 +146,15 @@ abstract class AbstractCassandraNode implements CassandraNode {
 				}
 			}
 		}
+		if (process != null && this.classDataSharing != null) {
+			ClassDataSharing classDataSharing = this.classDataSharing;
+			// the archive is dumped in the background, hence stop() does not wait for it
+			classDataSharing.complete().whenComplete((result, ex) -> {
+				if (ex != null) {
+					this.logger.warn("AppCDS archive cannot be created. " + classDataSharing, ex);
+				}
+			});
+		}
 	}
 
 	@Override
@@ -123,6 +163,20 @@ abstract class AbstractCassandraNode implements CassandraNode {
 		return process != null ? process.getInputStream() : EMPTY_STREAM;
 	}
 
+	@Override
+	public final int getJmxPort() {
+		return this.jmxPort;
+	}
+
+	@Override
+	public final CompletableFuture<? extends CassandraNode> onExit() {
+		Process process = this.process;
+		if (process == null) {
+			return CompletableFuture.completedFuture(this);
+		}
+		return process.onExit().thenApply(p -> this);
+	}
+
 	@Override
 	public final boolean isAlive() {
 		Process process = this.process;
@@ -212,6 +266,21 @@ abstract class AbstractCassandraNode implements CassandraNode {
 		configurePort(systemProperties, "cassandra.ssl_storage_port");
 	}
 
+	private static int getJmxPort(Map<String, Object> systemProperties) {
+		for (String name : new String[]{"cassandra.jmx.local.port", "cassandra.jmx.remote.port"}) {
+			Object port = systemProperties.get(name);
+			if (port != null) {
+				try {
+					return Integer.parseInt(port.toString().trim());
+				}
+				catch (NumberFormatException ex) {
+					// Cassandra itself reports a malformed port, fall back to the default one
+				}
+			}
+		}
+		return DEFAULT_JMX_PORT;
+	}
+
 	private void configurePort(Map<String, Object> properties, String name) throws IOException {
 		if (!Objects.toString(properties.get(name), "").trim().equals("0")) {
 			return;
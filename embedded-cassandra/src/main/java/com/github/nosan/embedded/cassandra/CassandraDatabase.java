@@ -45,6 +45,37 @@ interface CassandraDatabase {
 	 */
 	void stop() throws IOException, InterruptedException;
 
+	/**
+	 * Restarts the underlying node, keeping the working and the data directories.
+	 *
+	 * @throws IOException in the case of I/O errors
+	 * @throws InterruptedException if the current thread is interrupted
+	 */
+	void restart() throws IOException, InterruptedException;
+
+	/**
+	 * Takes a snapshot of the {@code Cassandra's} data. {@code Cassandra} is restarted, so that the snapshot is
+	 * consistent. Has no effect if snapshots are not configured or the data has been restored from a snapshot.
+	 *
+	 * @throws IOException if the snapshot cannot be taken
+	 * @throws InterruptedException if the {@code Cassandra} has been interrupted.
+	 */
+	void snapshot() throws IOException, InterruptedException;
+
+	/**
+	 * Whether the {@code Cassandra's} data has been restored from a snapshot on start.
+	 *
+	 * @return {@code true} if the data has been restored
+	 */
+	boolean isRestored();
+
+	/**
+	 * Returns the {@link StartupReport} of the last start.
+	 *
+	 * @return the startup report
+	 */
+	StartupReport getStartupReport();
+
 	/**
 	 * Returns the native transport address ({@code rpc_address}) this {@code Cassandra} is listening on.
 	 *
@@ -76,4 +107,11 @@ interface CassandraDatabase {
 	 */
 	int getRpcPort();
 
+	/**
+	 * Returns the JMX port this {@code Cassandra} is listening on.
+	 *
+	 * @return the JMX port (or -1 if none)
+	 */
+	int getJmxPort();
+
 }
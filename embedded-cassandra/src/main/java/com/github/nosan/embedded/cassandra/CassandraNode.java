@@ -18,6 +18,7 @@ package com.github.nosan.embedded.cassandra;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Simple interface that allows the {@code Cassandra's} node to be  {@link #start() started} and {@link #stop()
@@ -57,4 +58,19 @@ interface CassandraNode {
 	 */
 	InputStream getInputStream();
 
+	/**
+	 * Returns the JMX port the node is listening on.
+	 *
+	 * @return the JMX port (or -1 if the node has not been started)
+	 */
+	int getJmxPort();
+
+	/**
+	 * Returns a {@link CompletableFuture} for the termination of the node.
+	 *
+	 * @return a new {@code CompletableFuture} for the node
+	 * @see Process#onExit()
+	 */
+	CompletableFuture<? extends CassandraNode> onExit();
+
 }
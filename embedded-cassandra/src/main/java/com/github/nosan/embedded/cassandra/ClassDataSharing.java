@@ -0,0 +1,352 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.commons.FileLock;
+
+/**
+ * An {@code AppCDS} archive of the {@code Cassandra's} JVM. The first start (training run) records the loaded classes
+ * ({@code -XX:DumpLoadedClassList}); once the JVM has exited, the archive is dumped in the background by a separate
+ * {@code -Xshare:dump} process, verified by mapping it with {@code -Xshare:on} and only then promoted. The subsequent
+ * starts map the archive ({@code -XX:SharedArchiveFile}). Requires {@code JDK 11+}.
+ * <p>
+ * The JVM maps an archive only if the class path it was dumped with is a prefix of the runtime class path, and a
+ * non-empty directory cannot be a part of the archived class path. Therefore, the archive is built against the jars
+ * of the distribution directory (which do not change between instances), and the starts that map the archive put
+ * {@link #getClassPath() that class path} in front of the remaining entries of Cassandra's class path, including the
+ * {@code conf} directory. The archive is not created if a jar contains a resource of the {@code conf} directory, so
+ * that moving the {@code conf} directory behind the jars never changes which resource is loaded.
+ *
+ * @author Dmytro Nosan
+ */
+class ClassDataSharing {
+
+	private static final Logger log = LoggerFactory.getLogger(ClassDataSharing.class);
+
+	private static final Pattern JAVA_VERSION_PATTERN = Pattern.compile("^\"?(1\\.)?(\\d+).*");
+
+	private final Path archive;
+
+	private final Path javaHome;
+
+	private final int javaVersion;
+
+	private final List<Path> classPath;
+
+	private final Path conf;
+
+	private final Executor executor;
+
+	@Nullable
+	private volatile Path classList;
+
+	ClassDataSharing(Path directory, String key, Path javaHome, int javaVersion, List<Path> classPath, Path conf,
+			Executor executor) {
+		this.archive = directory.resolve(key + ".jsa");
+		this.javaHome = javaHome;
+		this.javaVersion = javaVersion;
+		this.classPath = Collections.unmodifiableList(new ArrayList<>(classPath));
+		this.conf = conf;
+		this.executor = executor;
+	}
+
+	/**
+	 * Returns the class path (the jars of the distribution directory) the archive is built against.
+	 *
+	 * @param directory Cassandra's distribution directory
+	 * @return the class path
+	 * @throws IOException in the case of I/O errors
+	 */
+	static List<Path> getClassPath(Path directory) throws IOException {
+		Path lib = directory.resolve("lib");
+		if (!Files.isDirectory(lib)) {
+			return Collections.emptyList();
+		}
+		try (Stream<Path> stream = Files.list(lib)) {
+			return stream.filter(path -> path.getFileName().toString().endsWith(".jar"))
+					.map(Path::toAbsolutePath).sorted().collect(Collectors.toList());
+		}
+	}
+
+	/**
+	 * Returns the class path the archive is built against.
+	 *
+	 * @return the class path
+	 */
+	String getClassPath() {
+		return this.classPath.stream().map(Path::toString).collect(Collectors.joining(File.pathSeparator));
+	}
+
+	/**
+	 * Returns the JVM options that should be added to the {@code Cassandra's} JVM.
+	 *
+	 * @return the JVM options
+	 * @throws IOException in the case of I/O errors
+	 */
+	List<String> getJvmOptions() throws IOException {
+		this.classList = null;
+		List<String> jvmOptions = new ArrayList<>();
+		if (Files.exists(this.archive)) {
+			log.info("AppCDS archive '{}' is used", this.archive);
+			jvmOptions.add("-Xshare:auto");
+			jvmOptions.add("-XX:SharedArchiveFile=" + this.archive);
+		}
+		else {
+			Files.createDirectories(this.archive.getParent());
+			Path classList = this.archive.resolveSibling(UUID.randomUUID() + ".classlist.tmp");
+			jvmOptions.add("-XX:DumpLoadedClassList=" + classList);
+			this.classList = classList;
+		}
+		return jvmOptions;
+	}
+
+	/**
+	 * Writes a {@code cassandra.in.sh} include file that sources the original one and puts {@link #getClassPath()} in
+	 * front of Cassandra's class path. The jars of the working directory that are replaced by the archived ones are
+	 * removed, all other entries (e.g. the {@code conf} directory or {@code lib/jsr223} jars) are kept in their
+	 * order. The include file is only written if the archive is used, the training run keeps the original class path.
+	 *
+	 * @param workingDirectory Cassandra's working directory
+	 * @return the include file, or {@code null} if the original one should be used
+	 * @throws IOException in the case of I/O errors
+	 */
+	@Nullable
+	Path writeInclude(Path workingDirectory) throws IOException {
+		if (this.classList != null || !Files.exists(this.archive)) {
+			return null;
+		}
+		Path include = workingDirectory.resolve("cassandra-cds.in.sh");
+		List<String> lines = new ArrayList<>();
+		lines.add(". \"" + escape(workingDirectory.resolve("bin/cassandra.in.sh").toAbsolutePath().toString()) + "\"");
+		lines.add("cds_classpath=\"" + escape(getClassPath()) + "\"");
+		lines.add("cds_ifs=\"$IFS\"");
+		lines.add("IFS=:");
+		lines.add("for cds_entry in $CLASSPATH; do");
+		lines.add("\tcase \"$cds_entry\" in");
+		lines.add("\t\t" + this.classPath.stream()
+				.map(jar -> "\"$CASSANDRA_HOME/lib/" + escape(jar.getFileName().toString()) + "\"")
+				.collect(Collectors.joining(" | ")) + ") ;;");
+		lines.add("\t\t*) cds_classpath=\"$cds_classpath:$cds_entry\" ;;");
+		lines.add("\tesac");
+		lines.add("done");
+		lines.add("IFS=\"$cds_ifs\"");
+		lines.add("CLASSPATH=\"$cds_classpath\"");
+		Files.write(include, lines, StandardCharsets.UTF_8);
+		return include;
+	}
+
+	/**
+	 * Checks whether the archive has been mapped by the JVM with the given pid, and logs a warning if the JVM has
+	 * fallen back to loading classes without sharing. Only supported on systems that provide {@code /proc}.
+	 *
+	 * @param pid the pid of the JVM
+	 */
+	void verify(long pid) {
+		if (pid <= 0 || this.classList != null || !Files.exists(this.archive)) {
+			return;
+		}
+		Path maps = Paths.get("/proc", Long.toString(pid), "maps");
+		if (!Files.isReadable(maps)) {
+			return;
+		}
+		try (Stream<String> lines = Files.lines(maps)) {
+			String archive = this.archive.toAbsolutePath().toString();
+			if (lines.noneMatch(line -> line.endsWith(archive))) {
+				log.warn("AppCDS archive '{}' has not been mapped by the JVM (pid: {}). Classes are loaded without"
+						+ " sharing", this.archive, pid);
+			}
+		}
+		catch (IOException | RuntimeException ex) {
+			log.debug("AppCDS archive usage cannot be verified for the JVM (pid: " + pid + ")", ex);
+		}
+	}
+
+	/**
+	 * Completes the training run (if any) in the background. The loaded classes recorded by the training run are
+	 * dumped into a temporary archive which is verified and then moved into its final location unless it already
+	 * exists. Should be invoked once {@code Cassandra's} JVM has exited.
+	 *
+	 * @return a {@code CompletableFuture} that is completed once the training run has been completed
+	 */
+	CompletableFuture<Void> complete() {
+		Path classList = this.classList;
+		this.classList = null;
+		if (classList == null) {
+			return CompletableFuture.completedFuture(null);
+		}
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		this.executor.execute(() -> {
+			try {
+				dump(classList);
+				future.complete(null);
+			}
+			catch (Throwable ex) {
+				future.completeExceptionally(ex);
+			}
+		});
+		return future;
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", ClassDataSharing.class.getSimpleName() + "[", "]")
+				.add("archive=" + this.archive).add("javaVersion=" + this.javaVersion).toString();
+	}
+
+	/**
+	 * Returns the major version of the JDK located in the given directory. The version is read from the {@code
+	 * release} file.
+	 *
+	 * @param javaHome the java home
+	 * @return the major version or {@code -1} if the version cannot be determined
+	 */
+	static int getJavaVersion(Path javaHome) {
+		Path release = javaHome.resolve("release");
+		if (!Files.isRegularFile(release)) {
+			return -1;
+		}
+		Properties properties = new Properties();
+		try (InputStream is = Files.newInputStream(release)) {
+			properties.load(is);
+		}
+		catch (IOException ex) {
+			return -1;
+		}
+		Matcher matcher = JAVA_VERSION_PATTERN.matcher(properties.getProperty("JAVA_VERSION", "").trim());
+		return matcher.matches() ? Integer.parseInt(matcher.group(2)) : -1;
+	}
+
+	private void dump(Path classList) throws IOException, InterruptedException {
+		Path archive = this.archive.resolveSibling(UUID.randomUUID() + ".jsa.tmp");
+		try {
+			if (!Files.exists(classList) || Files.size(classList) == 0) {
+				log.warn("AppCDS class list '{}' has not been created by the JVM", classList);
+				return;
+			}
+			String resource = getConfResource();
+			if (resource != null) {
+				log.warn("AppCDS archive '{}' is not created. '{}' of '{}' is also contained in a jar", this.archive,
+						resource, this.conf);
+				return;
+			}
+			trimIncompleteLine(classList);
+			Path lockFile = this.archive.resolveSibling(this.archive.getFileName() + ".lock");
+			try (FileLock fileLock = FileLock.of(lockFile)) {
+				if (!fileLock.tryLock(30, TimeUnit.SECONDS)) {
+					throw new IllegalStateException("File lock cannot be acquired for a file '" + lockFile + "'");
+				}
+				if (Files.exists(this.archive)) {
+					return;
+				}
+				if (java("-Xshare:dump", "-XX:SharedClassListFile=" + classList, "-XX:SharedArchiveFile=" + archive)
+						!= 0 || !Files.exists(archive)) {
+					log.warn("AppCDS archive '{}' cannot be dumped. Classes are loaded without sharing", this.archive);
+					return;
+				}
+				if (java("-Xshare:on", "-XX:SharedArchiveFile=" + archive, "-version") != 0) {
+					log.warn("AppCDS archive '{}' cannot be mapped. Classes are loaded without sharing", this.archive);
+					return;
+				}
+				Files.move(archive, this.archive, StandardCopyOption.ATOMIC_MOVE);
+				log.info("AppCDS archive '{}' has been created", this.archive);
+			}
+		}
+		finally {
+			Files.deleteIfExists(classList);
+			Files.deleteIfExists(archive);
+		}
+	}
+
+	@Nullable
+	private String getConfResource() throws IOException {
+		if (!Files.isDirectory(this.conf)) {
+			return null;
+		}
+		List<String> names;
+		try (Stream<Path> stream = Files.list(this.conf)) {
+			names = stream.map(path -> path.getFileName().toString()).collect(Collectors.toList());
+		}
+		for (Path jar : this.classPath) {
+			try (ZipFile zipFile = new ZipFile(jar.toFile())) {
+				for (String name : names) {
+					if (zipFile.getEntry(name) != null) {
+						return name;
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	private int java(String... arguments) throws IOException, InterruptedException {
+		RunProcess runProcess = new RunProcess(this.archive.getParent(), this.javaHome.resolve("bin/java"),
+				"-cp", getClassPath());
+		runProcess.addArguments((Object[]) arguments);
+		List<String> output = new ArrayList<>();
+		int exitCode = runProcess.run(output::add);
+		if (exitCode != 0) {
+			log.debug("'{}' has exited with code {}:{}{}", runProcess.getArguments(), exitCode, System.lineSeparator(),
+					String.join(System.lineSeparator(), output));
+		}
+		return exitCode;
+	}
+
+	private static void trimIncompleteLine(Path classList) throws IOException {
+		// a JVM that has been killed may leave the last line incomplete
+		byte[] bytes = Files.readAllBytes(classList);
+		int end = bytes.length;
+		while (end > 0 && bytes[end - 1] != '\n') {
+			end--;
+		}
+		if (end != bytes.length) {
+			Files.write(classList, Arrays.copyOf(bytes, end));
+		}
+	}
+
+	private static String escape(String value) {
+		return value.replaceAll("([\"$`\\\\])", "\\\\$1");
+	}
+
+}
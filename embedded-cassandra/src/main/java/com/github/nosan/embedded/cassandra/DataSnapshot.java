@@ -0,0 +1,222 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.commons.FileLock;
+import com.github.nosan.embedded.cassandra.commons.io.ArchiveResource;
+import com.github.nosan.embedded.cassandra.commons.io.FileSystemResource;
+import com.github.nosan.embedded.cassandra.commons.util.FileUtils;
+
+/**
+ * A snapshot of {@code Cassandra's} data directory ({@code data}, {@code commitlog}, {@code saved_caches}, {@code
+ * hints}). Snapshot is identified by a key and created only once. A snapshot can be stored either as a plain
+ * directory or as a compressed {@code tar.gz} archive, and may be limited to the paths accepted by a filter.
+ *
+ * @author Dmytro Nosan
+ */
+class DataSnapshot {
+
+	private static final Logger log = LoggerFactory.getLogger(DataSnapshot.class);
+
+	private static final String DATA = "data";
+
+	private static final String ARCHIVE = "data.tar.gz";
+
+	private final Path directory;
+
+	private final boolean compressed;
+
+	@Nullable
+	private final Predicate<? super Path> filter;
+
+	DataSnapshot(Path directory, String key) {
+		this(directory, key, false, null);
+	}
+
+	/**
+	 * Creates a new {@link DataSnapshot}.
+	 *
+	 * @param directory the directory where snapshots are stored
+	 * @param key the key of this snapshot
+	 * @param compressed whether the snapshot is stored as a {@code tar.gz} archive
+	 * @param filter the filter of the paths (relative to the data directory) to include, or {@code null}
+	 */
+	DataSnapshot(Path directory, String key, boolean compressed, @Nullable Predicate<? super Path> filter) {
+		this.directory = directory.resolve(key);
+		this.compressed = compressed;
+		this.filter = filter;
+	}
+
+	/**
+	 * Whether the given path, relative to the data directory, does not carry the identity of the node. The commit
+	 * log, saved caches and hints are excluded, as well as {@code system.local} and {@code system.peers} that hold
+	 * the host ID and the tokens of the node. A node started from such data generates a new identity.
+	 *
+	 * @param path the path relative to the data directory
+	 * @return {@code true} if the path can be shared between nodes
+	 */
+	static boolean isShareable(Path path) {
+		if (path.toString().isEmpty()) {
+			return true;
+		}
+		if (!path.getName(0).toString().equals("data")) {
+			return false;
+		}
+		if (path.getNameCount() < 3 || !path.getName(1).toString().equals("system")) {
+			return true;
+		}
+		String table = path.getName(2).toString();
+		int index = table.indexOf('-');
+		String name = (index != -1) ? table.substring(0, index) : table;
+		return !name.equals("local") && !name.equals("peers") && !name.equals("peers_v2");
+	}
+
+	/**
+	 * Whether this snapshot has already been created.
+	 *
+	 * @return {@code true} if snapshot exists
+	 */
+	boolean exists() {
+		return Files.exists(this.directory.resolve(".snapshot"));
+	}
+
+	/**
+	 * Restores this snapshot into the given data directory.
+	 *
+	 * @param dataDirectory Cassandra's data directory
+	 * @throws IOException in the case of I/O errors
+	 */
+	void restore(Path dataDirectory) throws IOException {
+		restore(dataDirectory, 1);
+	}
+
+	/**
+	 * Restores this snapshot into the given data directory using up to {@code parallelism} threads.
+	 *
+	 * @param dataDirectory Cassandra's data directory
+	 * @param parallelism the maximum number of threads
+	 * @throws IOException in the case of I/O errors
+	 */
+	void restore(Path dataDirectory, int parallelism) throws IOException {
+		log.info("Restores a snapshot '{}' into '{}' directory", this.directory, dataDirectory);
+		FileUtils.delete(dataDirectory, parallelism);
+		if (this.compressed) {
+			Files.createDirectories(dataDirectory);
+			new ArchiveResource(new FileSystemResource(this.directory.resolve(ARCHIVE)))
+					.extract(dataDirectory, parallelism);
+		}
+		else {
+			FileUtils.copy(this.directory.resolve(DATA), dataDirectory, null, parallelism);
+		}
+	}
+
+	/**
+	 * Creates this snapshot from the given data directory if it does not exist yet. {@code Cassandra} must not be
+	 * running.
+	 *
+	 * @param dataDirectory Cassandra's data directory
+	 * @throws IOException in the case of I/O errors
+	 */
+	void create(Path dataDirectory) throws IOException {
+		if (exists()) {
+			return;
+		}
+		Files.createDirectories(this.directory);
+		Path lockFile = this.directory.resolve(".lock");
+		try (FileLock fileLock = FileLock.of(lockFile)) {
+			if (!fileLock.tryLock(2, TimeUnit.MINUTES)) {
+				throw new IllegalStateException("File lock cannot be acquired for a file '" + lockFile + "'");
+			}
+			if (!exists()) {
+				log.info("Creates a snapshot of '{}' into '{}' directory", dataDirectory, this.directory);
+				if (this.compressed) {
+					archive(dataDirectory, this.directory.resolve(ARCHIVE), this.filter);
+				}
+				else {
+					Path target = this.directory.resolve(DATA);
+					FileUtils.delete(target);
+					Predicate<? super Path> filter = this.filter;
+					FileUtils.copy(dataDirectory, target, (filter != null)
+							? (path, attributes) -> filter.test(dataDirectory.relativize(path)) : null);
+				}
+				FileUtils.createIfNotExists(this.directory.resolve(".snapshot"));
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", DataSnapshot.class.getSimpleName() + "[", "]")
+				.add("directory=" + this.directory).add("compressed=" + this.compressed).toString();
+	}
+
+	private static void archive(Path dataDirectory, Path archive, @Nullable Predicate<? super Path> filter)
+			throws IOException {
+		Path tempFile = Files.createTempFile(archive.getParent(), "", "-" + ARCHIVE);
+		try {
+			try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(tempFile));
+					TarArchiveOutputStream tos = new TarArchiveOutputStream(new GzipCompressorOutputStream(os));
+					Stream<Path> stream = Files.walk(dataDirectory)) {
+				tos.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+				tos.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+				Iterator<Path> iterator = stream.iterator();
+				while (iterator.hasNext()) {
+					Path path = iterator.next();
+					if (path.equals(dataDirectory)) {
+						continue;
+					}
+					Path relativePath = dataDirectory.relativize(path);
+					if (filter != null && !filter.test(relativePath)) {
+						continue;
+					}
+					String name = relativePath.toString().replace('\\', '/');
+					ArchiveEntry entry = tos.createArchiveEntry(path.toFile(), name);
+					tos.putArchiveEntry(entry);
+					if (Files.isRegularFile(path)) {
+						Files.copy(path, tos);
+					}
+					tos.closeArchiveEntry();
+				}
+				tos.finish();
+			}
+			Files.move(tempFile, archive, StandardCopyOption.REPLACE_EXISTING);
+		}
+		finally {
+			Files.deleteIfExists(tempFile);
+		}
+	}
+
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.commons.util.FileUtils;
+
+/**
+ * Deletes directories in the background. A directory is moved into a {@code .embedded-cassandra-trash} directory
+ * located next to it (hence its path can be reused immediately) and then deleted by a parallel file walk on a daemon
+ * thread. Pending deletions are awaited by the shutdown hook of {@code Cassandra} once it has been stopped. Trash
+ * entries carry the pid of the JVM that created them and a token of its pid namespace, so entries left behind by a
+ * JVM of the same namespace that no longer runs are {@link #sweep(Path) swept} later.
+ *
+ * @author Dmytro Nosan
+ */
+class DirectoryReaper {
+
+	private static final Logger log = LoggerFactory.getLogger(DirectoryReaper.class);
+
+	private static final String TRASH = ".embedded-cassandra-trash";
+
+	private static final long SHUTDOWN_TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+
+	private static final long PID = ProcessHandle.current().pid();
+
+	private static final String NAMESPACE = getNamespace();
+
+	private static final Pattern TRASH_ENTRY = Pattern.compile("(.+)-(\\p{XDigit}{8})-(\\d{1,18})-"
+			+ "\\p{XDigit}{8}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{12}");
+
+	private static volatile DirectoryReaper instance;
+
+	private final Set<CompletableFuture<Void>> pending = ConcurrentHashMap.newKeySet();
+
+	private final Set<Path> swept = ConcurrentHashMap.newKeySet();
+
+	private final Executor executor;
+
+	private final int parallelism;
+
+	DirectoryReaper(int parallelism) {
+		this.executor = EmbeddedCassandraFactory.createExecutor("embedded-cassandra-reaper", true);
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Returns the shared {@link DirectoryReaper}.
+	 *
+	 * @return the reaper
+	 */
+	static DirectoryReaper getInstance() {
+		DirectoryReaper reaper = instance;
+		if (reaper == null) {
+			synchronized (DirectoryReaper.class) {
+				reaper = instance;
+				if (reaper == null) {
+					reaper = new DirectoryReaper(Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors())));
+					instance = reaper;
+				}
+			}
+		}
+		return reaper;
+	}
+
+	/**
+	 * Waits for the pending deletions of the shared {@link DirectoryReaper}, if it has been created. Intended to be
+	 * called by a shutdown hook after {@code Cassandra} has been stopped.
+	 */
+	static void awaitInstance() {
+		DirectoryReaper reaper = instance;
+		if (reaper != null) {
+			reaper.await(SHUTDOWN_TIMEOUT);
+		}
+	}
+
+	/**
+	 * Deletes the given directory in the background. If the directory cannot be moved into a trash directory, it is
+	 * deleted synchronously.
+	 *
+	 * @param directory the directory to delete
+	 * @return a {@code CompletableFuture} that is completed once the directory has been deleted
+	 * @throws IOException in the case of I/O errors
+	 */
+	CompletableFuture<Void> delete(Path directory) throws IOException {
+		if (!Files.exists(directory, LinkOption.NOFOLLOW_LINKS)) {
+			return CompletableFuture.completedFuture(null);
+		}
+		Path trash;
+		try {
+			trash = moveToTrash(directory);
+		}
+		catch (IOException ex) {
+			log.debug("Directory '" + directory + "' cannot be moved into a trash. It will be deleted synchronously",
+					ex);
+			FileUtils.delete(directory, this.parallelism);
+			return CompletableFuture.completedFuture(null);
+		}
+		return submit(trash);
+	}
+
+	/**
+	 * Deletes in the background the entries of the trash directory located next to the given directory that have been
+	 * left behind by JVMs that no longer run. Only entries created within the pid namespace of this JVM are swept, as
+	 * the pids of other hosts or containers sharing the directory are not visible. Each trash directory is swept once.
+	 *
+	 * @param directory the directory whose sibling trash directory should be swept
+	 * @throws IOException in the case of I/O errors
+	 */
+	void sweep(Path directory) throws IOException {
+		Path parent = directory.toAbsolutePath().getParent();
+		if (parent == null) {
+			return;
+		}
+		Path trash = parent.resolve(TRASH);
+		if (!this.swept.add(trash) || !Files.isDirectory(trash)) {
+			return;
+		}
+		List<Path> entries;
+		try (Stream<Path> stream = Files.list(trash)) {
+			entries = stream.collect(Collectors.toList());
+		}
+		for (Path entry : entries) {
+			String name = entry.getFileName().toString();
+			Matcher matcher = TRASH_ENTRY.matcher(name);
+			if (!matcher.matches() || !matcher.group(2).equals(NAMESPACE)
+					|| ProcessHandle.of(Long.parseLong(matcher.group(3))).isPresent()) {
+				continue;
+			}
+			// renaming claims the entry, hence concurrent JVMs do not delete it twice
+			Path target = trash.resolve(getEntryName(matcher.group(1)));
+			try {
+				Files.move(entry, target, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (NoSuchFileException ex) {
+				continue;
+			}
+			log.info("Deletes '{}' left behind by a JVM that no longer runs", entry);
+			submit(target);
+		}
+	}
+
+	/**
+	 * Waits for all pending deletions, including deletions submitted while waiting.
+	 *
+	 * @param timeout the maximum time to wait in milliseconds
+	 * @return {@code true} if all pending deletions have been completed successfully
+	 */
+	boolean await(long timeout) {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+		boolean success = true;
+		while (!this.pending.isEmpty()) {
+			for (CompletableFuture<Void> future : new ArrayList<>(this.pending)) {
+				try {
+					future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+				catch (ExecutionException ex) {
+					// has already been logged by the deletion itself
+					success = false;
+				}
+				catch (TimeoutException ex) {
+					log.warn("{} directories have not been deleted within {}ms", this.pending.size(), timeout);
+					return false;
+				}
+				this.pending.remove(future);
+			}
+		}
+		return success;
+	}
+
+	private CompletableFuture<Void> submit(Path trash) {
+		CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
+			try {
+				FileUtils.delete(trash, this.parallelism);
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}, this.executor);
+		this.pending.add(future);
+		future.whenComplete((result, ex) -> {
+			if (ex != null) {
+				log.error("Directory '" + trash + "' has not been deleted", ex);
+			}
+			else {
+				this.pending.remove(future);
+			}
+		});
+		return future;
+	}
+
+	private static Path moveToTrash(Path directory) throws IOException {
+		Path absolute = directory.toAbsolutePath();
+		Path parent = absolute.getParent();
+		if (parent == null) {
+			throw new IOException("Directory '" + directory + "' does not have a parent");
+		}
+		Path trash = parent.resolve(TRASH);
+		Files.createDirectories(trash);
+		Path target = trash.resolve(getEntryName(absolute.getFileName().toString()));
+		Files.move(absolute, target, StandardCopyOption.ATOMIC_MOVE);
+		return target;
+	}
+
+	private static String getEntryName(String name) {
+		return name + "-" + NAMESPACE + "-" + PID + "-" + UUID.randomUUID();
+	}
+
+	private static String getNamespace() {
+		// the start time of the init process identifies the host (or container) whose pids this JVM can see
+		Optional<Instant> start = ProcessHandle.of(1).flatMap(init -> init.info().startInstant());
+		int token = start.map(Instant::hashCode).orElseGet(() -> UUID.randomUUID().hashCode());
+		return String.format("%08x", token);
+	}
+
+}
@@ -17,7 +17,11 @@
 package com.github.nosan.embedded.cassandra;
 
 import java.net.InetAddress;
+import java.util.List;
 import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,6 +31,9 @@ import com.github.nosan.embedded.cassandra.api.Cassandra;
 import com.github.nosan.embedded.cassandra.api.CassandraException;
 import com.github.nosan.embedded.cassandra.api.CassandraInterruptedException;
 import com.github.nosan.embedded.cassandra.api.Version;
+import com.github.nosan.embedded.cassandra.api.connection.CassandraConnection;
+import com.github.nosan.embedded.cassandra.api.connection.CassandraConnectionFactory;
+import com.github.nosan.embedded.cassandra.api.cql.CqlDataSet;
 
 /**
  * Embedded {@link Cassandra}.
@@ -43,14 +50,29 @@ class EmbeddedCassandra implements Cassandra {
 
 	private final CassandraDatabase database;
 
+	private final Executor executor;
+
+	private final CqlDataSet dataSet;
+
+	private final CassandraConnectionFactory connectionFactory;
+
+	@Nullable
+	private final Consumer<? super StartupReport> startupListener;
+
 	private volatile boolean started = false;
 
 	private volatile boolean running = false;
 
-	EmbeddedCassandra(String name, Version version, CassandraDatabase database) {
+	EmbeddedCassandra(String name, Version version, CassandraDatabase database, Executor executor,
+			CqlDataSet dataSet, CassandraConnectionFactory connectionFactory,
+			@Nullable Consumer<? super StartupReport> startupListener) {
 		this.name = name;
 		this.version = version;
 		this.database = database;
+		this.executor = executor;
+		this.dataSet = dataSet;
+		this.connectionFactory = connectionFactory;
+		this.startupListener = startupListener;
 	}
 
 	@Override
@@ -63,9 +85,12 @@ class EmbeddedCassandra implements Cassandra {
 			log.info("Starts {}", toString());
 			doStart();
 			this.running = true;
+			doInitialize();
 			log.info("{} has been started and ready for connections!", toString());
+			publishStartupReport();
 		}
 		catch (CassandraException ex) {
+			this.running = false;
 			try {
 				doStop();
 				this.started = false;
@@ -89,6 +114,52 @@ class EmbeddedCassandra implements Cassandra {
 		this.running = false;
 	}
 
+	/**
+	 * Restarts the {@code Cassandra's} process. The working and the data directories are kept, hence the {@code CQL}
+	 * data set is not executed again. Ports that have been configured as {@code 0} are allocated again.
+	 */
+	@Override
+	public synchronized void restart() {
+		if (!this.started) {
+			start();
+			return;
+		}
+		try {
+			log.info("Restarts {}", toString());
+			this.running = false;
+			doRestart();
+			this.running = true;
+			log.info("{} has been restarted and ready for connections!", toString());
+			publishStartupReport();
+		}
+		catch (CassandraException ex) {
+			try {
+				doStop();
+				this.started = false;
+			}
+			catch (CassandraException swallow) {
+				ex.addSuppressed(swallow);
+			}
+			throw ex;
+		}
+	}
+
+	@Override
+	public CompletableFuture<Cassandra> startAsync() {
+		return CompletableFuture.supplyAsync(() -> {
+			start();
+			return this;
+		}, this.executor);
+	}
+
+	@Override
+	public CompletableFuture<Cassandra> stopAsync() {
+		return CompletableFuture.supplyAsync(() -> {
+			stop();
+			return this;
+		}, this.executor);
+	}
+
 	@Override
 	public String getName() {
 		return this.name;
@@ -132,6 +203,13 @@ class EmbeddedCassandra implements Cassandra {
 		return -1;
 	}
 
+	int getJmxPort() {
+		if (this.running) {
+			return this.database.getJmxPort();
+		}
+		return -1;
+	}
+
 	@Override
 	public String toString() {
 		return new StringJoiner(", ", EmbeddedCassandra.class.getSimpleName() + "[", "]")
@@ -152,6 +230,53 @@ class EmbeddedCassandra implements Cassandra {
 		}
 	}
 
+	private void doRestart() {
+		try {
+			this.database.restart();
+		}
+		catch (InterruptedException ex) {
+			throw new CassandraInterruptedException("Cassandra restart interrupted", ex);
+		}
+		catch (Exception ex) {
+			throw new CassandraException("Unable to restart " + toString(), ex);
+		}
+	}
+
+	private void publishStartupReport() {
+		StartupReport report = this.database.getStartupReport();
+		log.debug("{} {}", toString(), report);
+		if (this.startupListener != null) {
+			try {
+				this.startupListener.accept(report);
+			}
+			catch (Exception ex) {
+				log.error("Startup listener has failed for " + toString(), ex);
+			}
+		}
+	}
+
+	private void doInitialize() {
+		if (this.database.isRestored()) {
+			log.info("{} has been restored from the existing data", toString());
+			return;
+		}
+		try {
+			List<String> statements = this.dataSet.getStatements();
+			if (!statements.isEmpty()) {
+				try (CassandraConnection connection = this.connectionFactory.create(this)) {
+					statements.forEach(connection::execute);
+				}
+			}
+			this.database.snapshot();
+		}
+		catch (InterruptedException ex) {
+			throw new CassandraInterruptedException("Cassandra initialization interrupted", ex);
+		}
+		catch (Exception ex) {
+			throw new CassandraException("Unable to initialize " + toString(), ex);
+		}
+	}
+
 	private void doStop() {
 		try {
 			this.database.stop();
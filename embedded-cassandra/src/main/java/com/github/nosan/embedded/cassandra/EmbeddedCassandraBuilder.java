@@ -26,6 +26,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 
@@ -33,6 +35,8 @@ import com.github.nosan.embedded.cassandra.annotations.Nullable;
 import com.github.nosan.embedded.cassandra.api.Cassandra;
 import com.github.nosan.embedded.cassandra.api.CassandraFactory;
 import com.github.nosan.embedded.cassandra.api.Version;
+import com.github.nosan.embedded.cassandra.api.connection.CassandraConnectionFactory;
+import com.github.nosan.embedded.cassandra.api.cql.CqlDataSet;
 import com.github.nosan.embedded.cassandra.artifact.ArchiveArtifact;
 import com.github.nosan.embedded.cassandra.artifact.Artifact;
 import com.github.nosan.embedded.cassandra.artifact.DefaultArtifact;
@@ -114,6 +118,48 @@ public final class EmbeddedCassandraBuilder implements CassandraFactory {
 	@Nullable
 	private Path javaHome;
 
+	@Nullable
+	private Executor executor;
+
+	@Nullable
+	private CqlDataSet cqlDataSet;
+
+	@Nullable
+	private CassandraConnectionFactory cassandraConnectionFactory;
+
+	@Nullable
+	private Path snapshotDirectory;
+
+	@Nullable
+	private Boolean goldenImageEnabled;
+
+	@Nullable
+	private Consumer<? super StartupReport> startupListener;
+
+	@Nullable
+	private StartupProfile startupProfile;
+
+	@Nullable
+	private Boolean classDataSharingEnabled;
+
+	@Nullable
+	private StorageMode storageMode;
+
+	@Nullable
+	private Path memoryDirectory;
+
+	@Nullable
+	private Boolean asyncTeardownEnabled;
+
+	@Nullable
+	private Integer fileParallelism;
+
+	@Nullable
+	private Boolean workingDirectoryTemplateEnabled;
+
+	@Nullable
+	private Boolean keepData;
+
 	/**
 	 * Sets the RPC address ({@code rpc_address}). The address to bind the Thrift RPC service and native transport.
 	 *
@@ -333,6 +379,188 @@ public final class EmbeddedCassandraBuilder implements CassandraFactory {
 		return this;
 	}
 
+	/**
+	 * Sets the {@link Executor} that should be used to run {@link Cassandra#startAsync()} and {@link
+	 * Cassandra#stopAsync()}.
+	 *
+	 * @param executor the executor
+	 * @return this builder
+	 * @since 3.1.0
+	 */
+	public EmbeddedCassandraBuilder withExecutor(@Nullable Executor executor) {
+		this.executor = executor;
+		return this;
+	}
+
+	/**
+	 * Sets the {@link CqlDataSet} that should be executed once {@link Cassandra} has started.
+	 *
+	 * @param cqlDataSet the data set
+	 * @return this builder
+	 * @since 3.1.0
+	 */
+	public EmbeddedCassandraBuilder withCqlDataSet(@Nullable CqlDataSet cqlDataSet) {
+		this.cqlDataSet = cqlDataSet;
+		return this;
+	}
+
+	/**
+	 * Sets the {@link CassandraConnectionFactory} that should be used to execute the {@link CqlDataSet}.
+	 *
+	 * @param cassandraConnectionFactory the connection factory
+	 * @return this builder
+	 * @since 3.1.0
+	 */
+	public EmbeddedCassandraBuilder withCassandraConnectionFactory(
+			@Nullable CassandraConnectionFactory cassandraConnectionFactory) {
+		this.cassandraConnectionFactory = cassandraConnectionFactory;
+		return this;
+	}
+
+	/**
+	 * Sets the directory where snapshots of the Cassandra's data should be stored.
+	 *
+	 * @param snapshotDirectory the snapshot directory
+	 * @return this builder
+	 * @see EmbeddedCassandraFactory#setSnapshotDirectory(Path)
+	 * @since 3.1.0
+	 */
+	public EmbeddedCassandraBuilder withSnapshotDirectory(@Nullable Path snapshotDirectory) {
+		this.snapshotDirectory = snapshotDirectory;
+		return this;
+	}
+
+	/**
+	 * Sets if a golden image of the initialized but empty Cassandra's data should be used.
+	 *
+	 * @param goldenImageEnabled if the golden image should be used
+	 * @return this builder
+	 * @see EmbeddedCassandraFactory#setGoldenImageEnabled(boolean)
+	 * @since 3.1.0
+	 */
+	public EmbeddedCassandraBuilder withGoldenImageEnabled(@Nullable Boolean goldenImageEnabled) {
+		this.goldenImageEnabled = goldenImageEnabled;
+		return this;
+	}
+
+	/**
+	 * Sets the listener that should be notified with a {@link StartupReport} once {@link Cassandra} has started.
+	 *
+	 * @param startupListener the startup listener
+	 * @return this builder
+	 * @see EmbeddedCassandraFactory#setStartupListener(Consumer)
+	 * @since 3.1.0
+	 */
+	public EmbeddedCassandraBuilder withStartupListener(@Nullable Consumer<? super StartupReport> startupListener) {
+		this.startupListener = startupListener;
+		return this;
+	}
+
+	/**
+	 * Sets the {@link StartupProfile} that should be applied to Cassandra's properties.
+	 *
+	 * @param startupProfile the startup profile
+	 * @return this builder
+	 * @see EmbeddedCassandraFactory#setStartupProfile(StartupProfile)
+	 * @since 3.1.0
+	 */
+	public EmbeddedCassandraBuilder withStartupProfile(@Nullable StartupProfile startupProfile) {
+		this.startupProfile = startupProfile;
+		return this;
+	}
+
+	/**
+	 * Sets if a dynamic AppCDS archive should be used for the Cassandra's JVM.
+	 *
+	 * @param classDataSharingEnabled if the AppCDS archive should be used
+	 * @return this builder
+	 * @see EmbeddedCassandraFactory#setClassDataSharingEnabled(boolean)
+	 * @since 3.1.0
+	 */
+	public EmbeddedCassandraBuilder withClassDataSharingEnabled(@Nullable Boolean classDataSharingEnabled) {
+		this.classDataSharingEnabled = classDataSharingEnabled;
+		return this;
+	}
+
+	/**
+	 * Sets the {@link StorageMode} that defines where Cassandra's data should be stored.
+	 *
+	 * @param storageMode the storage mode
+	 * @return this builder
+	 * @see EmbeddedCassandraFactory#setStorageMode(StorageMode)
+	 * @since 3.1.0
+	 */
+	public EmbeddedCassandraBuilder withStorageMode(@Nullable StorageMode storageMode) {
+		this.storageMode = storageMode;
+		return this;
+	}
+
+	/**
+	 * Sets the RAM-backed directory ({@code tmpfs}) that should be used by {@link StorageMode#MEMORY}.
+	 *
+	 * @param memoryDirectory the memory directory
+	 * @return this builder
+	 * @see EmbeddedCassandraFactory#setMemoryDirectory(Path)
+	 * @since 3.1.0
+	 */
+	public EmbeddedCassandraBuilder withMemoryDirectory(@Nullable Path memoryDirectory) {
+		this.memoryDirectory = memoryDirectory;
+		return this;
+	}
+
+	/**
+	 * Sets if the working directory should be deleted in the background.
+	 *
+	 * @param asyncTeardownEnabled if the working directory should be deleted in the background
+	 * @return this builder
+	 * @see EmbeddedCassandraFactory#setAsyncTeardownEnabled(boolean)
+	 * @since 3.1.0
+	 */
+	public EmbeddedCassandraBuilder withAsyncTeardownEnabled(@Nullable Boolean asyncTeardownEnabled) {
+		this.asyncTeardownEnabled = asyncTeardownEnabled;
+		return this;
+	}
+
+	/**
+	 * Sets the parallelism level used to copy and delete the working directory.
+	 *
+	 * @param fileParallelism the parallelism level
+	 * @return this builder
+	 * @see EmbeddedCassandraFactory#setFileParallelism(int)
+	 * @since 3.1.0
+	 */
+	public EmbeddedCassandraBuilder withFileParallelism(@Nullable Integer fileParallelism) {
+		this.fileParallelism = fileParallelism;
+		return this;
+	}
+
+	/**
+	 * Sets if the working directory should be cloned from a cached template.
+	 *
+	 * @param workingDirectoryTemplateEnabled if the working directory should be cloned from a cached template
+	 * @return this builder
+	 * @see EmbeddedCassandraFactory#setWorkingDirectoryTemplateEnabled(boolean)
+	 * @since 3.1.0
+	 */
+	public EmbeddedCassandraBuilder withWorkingDirectoryTemplateEnabled(
+			@Nullable Boolean workingDirectoryTemplateEnabled) {
+		this.workingDirectoryTemplateEnabled = workingDirectoryTemplateEnabled;
+		return this;
+	}
+
+	/**
+	 * Sets if the working directory and the data should be kept when {@code Cassandra} is stopped.
+	 *
+	 * @param keepData if the working directory and the data should be kept
+	 * @return this builder
+	 * @see EmbeddedCassandraFactory#setKeepData(boolean)
+	 * @since 3.1.0
+	 */
+	public EmbeddedCassandraBuilder withKeepData(@Nullable Boolean keepData) {
+		this.keepData = keepData;
+		return this;
+	}
+
 	/**
 	 * Add config property such as {@code start_rpc: true}.
 	 *
@@ -448,6 +676,21 @@ public final class EmbeddedCassandraBuilder implements CassandraFactory {
 		Optional.ofNullable(this.storagePort).ifPresent(cassandraFactory::setStoragePort);
 		Optional.ofNullable(this.sslStoragePort).ifPresent(cassandraFactory::setSslStoragePort);
 		Optional.ofNullable(this.jmxLocalPort).ifPresent(cassandraFactory::setJmxLocalPort);
+		Optional.ofNullable(this.executor).ifPresent(cassandraFactory::setExecutor);
+		Optional.ofNullable(this.cqlDataSet).ifPresent(cassandraFactory::setCqlDataSet);
+		Optional.ofNullable(this.cassandraConnectionFactory).ifPresent(cassandraFactory::setCassandraConnectionFactory);
+		Optional.ofNullable(this.snapshotDirectory).ifPresent(cassandraFactory::setSnapshotDirectory);
+		Optional.ofNullable(this.goldenImageEnabled).ifPresent(cassandraFactory::setGoldenImageEnabled);
+		Optional.ofNullable(this.startupListener).ifPresent(cassandraFactory::setStartupListener);
+		Optional.ofNullable(this.startupProfile).ifPresent(cassandraFactory::setStartupProfile);
+		Optional.ofNullable(this.classDataSharingEnabled).ifPresent(cassandraFactory::setClassDataSharingEnabled);
+		Optional.ofNullable(this.storageMode).ifPresent(cassandraFactory::setStorageMode);
+		Optional.ofNullable(this.memoryDirectory).ifPresent(cassandraFactory::setMemoryDirectory);
+		Optional.ofNullable(this.asyncTeardownEnabled).ifPresent(cassandraFactory::setAsyncTeardownEnabled);
+		Optional.ofNullable(this.fileParallelism).ifPresent(cassandraFactory::setFileParallelism);
+		Optional.ofNullable(this.workingDirectoryTemplateEnabled)
+				.ifPresent(cassandraFactory::setWorkingDirectoryTemplateEnabled);
+		Optional.ofNullable(this.keepData).ifPresent(cassandraFactory::setKeepData);
 		return cassandraFactory.create();
 	}
 
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.api.Cassandra;
+import com.github.nosan.embedded.cassandra.api.CassandraException;
+import com.github.nosan.embedded.cassandra.api.Version;
+
+/**
+ * A {@link Cassandra} cluster that consists of several nodes. The seed node is started first, then all other nodes
+ * are started in parallel. The address and ports of the cluster are the address and ports of the seed node.
+ *
+ * @author Dmytro Nosan
+ * @see EmbeddedCassandraClusterFactory
+ * @since 3.1.0
+ */
+public final class EmbeddedCassandraCluster implements Cassandra {
+
+	private static final Logger log = LoggerFactory.getLogger(EmbeddedCassandraCluster.class);
+
+	private final String name;
+
+	private final Version version;
+
+	private final List<Cassandra> nodes;
+
+	private final Executor executor;
+
+	private volatile boolean started = false;
+
+	EmbeddedCassandraCluster(String name, Version version, List<Cassandra> nodes, Executor executor) {
+		this.name = name;
+		this.version = version;
+		this.nodes = Collections.unmodifiableList(new ArrayList<>(nodes));
+		this.executor = executor;
+	}
+
+	@Override
+	public synchronized void start() {
+		if (this.started) {
+			return;
+		}
+		this.started = true;
+		log.info("Starts {}", toString());
+		try {
+			this.nodes.get(0).start();
+			List<Cassandra> nodes = this.nodes.subList(1, this.nodes.size());
+			join("Unable to start " + toString(), nodes.stream().map(Cassandra::startAsync)
+					.toArray(CompletableFuture[]::new));
+			log.info("{} has been started and ready for connections!", toString());
+		}
+		catch (CassandraException ex) {
+			try {
+				doStop();
+				this.started = false;
+			}
+			catch (CassandraException swallow) {
+				ex.addSuppressed(swallow);
+			}
+			throw ex;
+		}
+	}
+
+	@Override
+	public synchronized void stop() {
+		if (!this.started) {
+			return;
+		}
+		log.info("Stops {}", toString());
+		doStop();
+		log.info("{} has been stopped", toString());
+		this.started = false;
+	}
+
+	/**
+	 * Restarts the nodes one by one (a rolling restart), starting from the seed. The nodes keep their data.
+	 */
+	@Override
+	public synchronized void restart() {
+		if (!this.started) {
+			start();
+			return;
+		}
+		log.info("Restarts {}", toString());
+		try {
+			this.nodes.forEach(Cassandra::restart);
+			log.info("{} has been restarted and ready for connections!", toString());
+		}
+		catch (CassandraException ex) {
+			try {
+				doStop();
+				this.started = false;
+			}
+			catch (CassandraException swallow) {
+				ex.addSuppressed(swallow);
+			}
+			throw ex;
+		}
+	}
+
+	@Override
+	public CompletableFuture<Cassandra> startAsync() {
+		return CompletableFuture.supplyAsync(() -> {
+			start();
+			return this;
+		}, this.executor);
+	}
+
+	@Override
+	public CompletableFuture<Cassandra> stopAsync() {
+		return CompletableFuture.supplyAsync(() -> {
+			stop();
+			return this;
+		}, this.executor);
+	}
+
+	/**
+	 * Returns the nodes of this cluster. The first node is a seed.
+	 *
+	 * @return the nodes
+	 */
+	public List<Cassandra> getNodes() {
+		return this.nodes;
+	}
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+
+	@Override
+	public Version getVersion() {
+		return this.version;
+	}
+
+	@Override
+	@Nullable
+	public InetAddress getAddress() {
+		return this.nodes.get(0).getAddress();
+	}
+
+	@Override
+	public int getPort() {
+		return this.nodes.get(0).getPort();
+	}
+
+	@Override
+	public int getSslPort() {
+		return this.nodes.get(0).getSslPort();
+	}
+
+	@Override
+	public int getRpcPort() {
+		return this.nodes.get(0).getRpcPort();
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", EmbeddedCassandraCluster.class.getSimpleName() + "[", "]")
+				.add("name='" + this.name + "'")
+				.add("version='" + this.version + "'")
+				.add("nodes=" + this.nodes.size())
+				.toString();
+	}
+
+	private void doStop() {
+		join("Unable to stop " + toString(), this.nodes.stream().map(Cassandra::stopAsync)
+				.toArray(CompletableFuture[]::new));
+	}
+
+	private static void join(String message, CompletableFuture<?>... futures) {
+		CassandraException exception = null;
+		for (CompletableFuture<?> future : futures) {
+			try {
+				future.join();
+			}
+			catch (CompletionException ex) {
+				Throwable cause = ex.getCause();
+				CassandraException cassandraException = (cause instanceof CassandraException)
+						? (CassandraException) cause : new CassandraException(message, cause);
+				if (exception == null) {
+					exception = cassandraException;
+				}
+				else {
+					exception.addSuppressed(cassandraException);
+				}
+			}
+		}
+		if (exception != null) {
+			throw exception;
+		}
+	}
+
+}
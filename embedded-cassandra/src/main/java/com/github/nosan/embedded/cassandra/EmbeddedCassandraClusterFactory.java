@@ -0,0 +1,356 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.api.Cassandra;
+import com.github.nosan.embedded.cassandra.api.CassandraCreationException;
+import com.github.nosan.embedded.cassandra.api.CassandraFactory;
+import com.github.nosan.embedded.cassandra.api.Version;
+import com.github.nosan.embedded.cassandra.artifact.Artifact;
+import com.github.nosan.embedded.cassandra.commons.io.Resource;
+import com.github.nosan.embedded.cassandra.commons.util.StringUtils;
+
+/**
+ * {@link CassandraFactory} that can be used to create and configure an {@link EmbeddedCassandraCluster}. Each node of
+ * the cluster is an {@code EmbeddedCassandra} which is listening on its own loopback address ({@code 127.0.0.1},
+ * {@code 127.0.0.2}, ...) and the first node is used as a seed.
+ * <p><strong>Example:</strong>
+ * <pre>
+ * class Scratch {
+ *
+ *   public static void main(String[] args) {
+ *     EmbeddedCassandraClusterFactory clusterFactory = new EmbeddedCassandraClusterFactory();
+ *     clusterFactory.setNodes(3);
+ *     clusterFactory.setNodeCustomizer((index, cassandraFactory) -&gt; cassandraFactory.getJvmOptions()
+ *         .add("-Xmx512m"));
+ *     EmbeddedCassandraCluster cluster = clusterFactory.create();
+ *     cluster.start();
+ *     try {
+ *       // ...
+ *     }
+ *     finally {
+ *       cluster.stop();
+ *     }
+ *   }
+ *
+ * }
+ * </pre>
+ * <p>
+ * Nodes are configured with {@code auto_bootstrap: false} and {@code cassandra.consistent.rangemovement=false}, so
+ * that all non-seed nodes can be started in parallel once the seed node has started. Loopback addresses other than
+ * {@code 127.0.0.1} may have to be configured on some operating systems (e.g. macOS).
+ *
+ * @author Dmytro Nosan
+ * @see EmbeddedCassandraFactory
+ * @see EmbeddedCassandraCluster
+ * @since 3.1.0
+ */
+public final class EmbeddedCassandraClusterFactory implements CassandraFactory {
+
+	private static final AtomicLong NUMBER = new AtomicLong();
+
+	private static final BigInteger TOKEN_RANGE = BigInteger.ONE.shiftLeft(64);
+
+	private int nodes = 3;
+
+	@Nullable
+	private String name;
+
+	@Nullable
+	private Artifact artifact;
+
+	@Nullable
+	private Resource topologyConfig;
+
+	@Nullable
+	private NodeCustomizer nodeCustomizer;
+
+	@Nullable
+	private Executor executor;
+
+	private boolean daemon = true;
+
+	private boolean registerShutdownHook = true;
+
+	/**
+	 * Returns the number of nodes. Defaults to {@code 3}.
+	 *
+	 * @return the number of nodes
+	 */
+	public int getNodes() {
+		return this.nodes;
+	}
+
+	/**
+	 * Sets the number of nodes. Defaults to {@code 3}.
+	 *
+	 * @param nodes the number of nodes
+	 */
+	public void setNodes(int nodes) {
+		if (nodes < 1) {
+			throw new IllegalArgumentException("'nodes' must be greater than 0");
+		}
+		this.nodes = nodes;
+	}
+
+	/**
+	 * Returns the cluster's name.
+	 *
+	 * @return the name (or null if none)
+	 */
+	@Nullable
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Sets the cluster's name. Nodes are named {@code <name>-node-<index>}. Defaults to {@code 'cassandra-cluster-N'}.
+	 *
+	 * @param name the name
+	 */
+	public void setName(@Nullable String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Returns the {@link Artifact} that is shared by all nodes.
+	 *
+	 * @return the artifact (or null if none)
+	 */
+	@Nullable
+	public Artifact getArtifact() {
+		return this.artifact;
+	}
+
+	/**
+	 * Sets the {@link Artifact} that should be shared by all nodes. The distribution is resolved only once. Defaults to
+	 * the {@link EmbeddedCassandraFactory}'s default.
+	 *
+	 * @param artifact the artifact
+	 */
+	public void setArtifact(@Nullable Artifact artifact) {
+		this.artifact = artifact;
+	}
+
+	/**
+	 * Returns the {@code cassandra-topology.properties} that is used by all nodes.
+	 *
+	 * @return the topology config (or null if none)
+	 */
+	@Nullable
+	public Resource getTopologyConfig() {
+		return this.topologyConfig;
+	}
+
+	/**
+	 * Sets the {@code cassandra-topology.properties} that should be used by all nodes ({@code PropertyFileSnitch}).
+	 * Node's specific {@code cassandra-rackdc.properties} ({@code GossipingPropertyFileSnitch}) can be set via {@link
+	 * #setNodeCustomizer(NodeCustomizer)}.
+	 *
+	 * @param topologyConfig the topology config
+	 */
+	public void setTopologyConfig(@Nullable Resource topologyConfig) {
+		this.topologyConfig = topologyConfig;
+	}
+
+	/**
+	 * Returns the {@link NodeCustomizer} that is used to customize each node.
+	 *
+	 * @return the node customizer (or null if none)
+	 */
+	@Nullable
+	public NodeCustomizer getNodeCustomizer() {
+		return this.nodeCustomizer;
+	}
+
+	/**
+	 * Sets the {@link NodeCustomizer} that should be used to customize each node. The customizer is invoked after the
+	 * cluster's properties have been applied, hence it is able to override them.
+	 *
+	 * @param nodeCustomizer the node customizer
+	 */
+	public void setNodeCustomizer(@Nullable NodeCustomizer nodeCustomizer) {
+		this.nodeCustomizer = nodeCustomizer;
+	}
+
+	/**
+	 * Returns the {@link Executor} that is used to start and stop the cluster asynchronously.
+	 *
+	 * @return the executor (or null if none)
+	 */
+	@Nullable
+	public Executor getExecutor() {
+		return this.executor;
+	}
+
+	/**
+	 * Sets the {@link Executor} that should be used to start and stop the cluster asynchronously. Defaults to an
+	 * executor that starts a new thread for each task.
+	 *
+	 * @param executor the executor
+	 */
+	public void setExecutor(@Nullable Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Whether the threads of the cluster and its nodes are daemons or not.
+	 *
+	 * @return the daemon or not
+	 */
+	public boolean isDaemon() {
+		return this.daemon;
+	}
+
+	/**
+	 * Sets if the threads of the cluster and its nodes are daemons or not. Defaults to {@code true}.
+	 *
+	 * @param daemon {@code Cassandra's} threads are daemons or not
+	 */
+	public void setDaemon(boolean daemon) {
+		this.daemon = daemon;
+	}
+
+	/**
+	 * Whether shutdown hook should be registered or not.
+	 *
+	 * @return {@code true} if shutdown hook should be registered
+	 */
+	public boolean isRegisterShutdownHook() {
+		return this.registerShutdownHook;
+	}
+
+	/**
+	 * Sets if the shutdown hook that stops the whole cluster should be registered. Defaults to {@code true}.
+	 *
+	 * @param registerShutdownHook if the shutdown hook should be registered
+	 */
+	public void setRegisterShutdownHook(boolean registerShutdownHook) {
+		this.registerShutdownHook = registerShutdownHook;
+	}
+
+	@Override
+	public EmbeddedCassandraCluster create() throws CassandraCreationException {
+		try {
+			return doCreate();
+		}
+		catch (Exception ex) {
+			throw new CassandraCreationException("Cassandra cluster cannot be created", ex);
+		}
+	}
+
+	private EmbeddedCassandraCluster doCreate() throws Exception {
+		String name = getName();
+		if (!StringUtils.hasText(name)) {
+			name = "cassandra-cluster-" + NUMBER.incrementAndGet();
+		}
+		Artifact artifact = getArtifact();
+		if (artifact == null) {
+			artifact = Artifact.ofVersion("4.0-alpha3");
+		}
+		Artifact.Distribution distribution = artifact.getDistribution();
+		Version version = distribution.getVersion();
+		int nodes = getNodes();
+		List<InetAddress> addresses = new ArrayList<>(nodes);
+		for (int i = 0; i < nodes; i++) {
+			addresses.add(InetAddress.getByAddress(new byte[]{127, 0, 0, (byte) (i + 1)}));
+		}
+		List<Cassandra> cassandras = new ArrayList<>(nodes);
+		for (int i = 0; i < nodes; i++) {
+			EmbeddedCassandraFactory cassandraFactory = new EmbeddedCassandraFactory();
+			cassandraFactory.setName(name + "-node-" + i);
+			cassandraFactory.setArtifact(() -> distribution);
+			cassandraFactory.setDaemon(isDaemon());
+			cassandraFactory.setRegisterShutdownHook(false);
+			cassandraFactory.setTopologyConfig(getTopologyConfig());
+			cassandraFactory.setAddress(addresses.get(i));
+			cassandraFactory.setJmxLocalPort(0);
+			cassandraFactory.getConfigProperties().put("listen_address", addresses.get(i).getHostAddress());
+			cassandraFactory.getConfigProperties().put("seed_provider", getSeedProvider(addresses.get(0)));
+			cassandraFactory.getConfigProperties().put("auto_bootstrap", false);
+			cassandraFactory.getSystemProperties().put("cassandra.consistent.rangemovement", false);
+			NodeCustomizer nodeCustomizer = getNodeCustomizer();
+			if (nodeCustomizer != null) {
+				nodeCustomizer.customize(i, cassandraFactory);
+			}
+			configureTokens(cassandraFactory, i, nodes);
+			cassandras.add(cassandraFactory.create());
+		}
+		Executor executor = getExecutor();
+		if (executor == null) {
+			executor = EmbeddedCassandraFactory.createExecutor(name, isDaemon());
+		}
+		EmbeddedCassandraCluster cluster = new EmbeddedCassandraCluster(name, version, cassandras, executor);
+		if (isRegisterShutdownHook()) {
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				cluster.stop();
+				DirectoryReaper.awaitInstance();
+			}, name + "-sh"));
+		}
+		return cluster;
+	}
+
+	private static List<Map<String, Object>> getSeedProvider(InetAddress seed) {
+		Map<String, Object> parameters = new LinkedHashMap<>();
+		parameters.put("seeds", seed.getHostAddress());
+		Map<String, Object> seedProvider = new LinkedHashMap<>();
+		seedProvider.put("class_name", "org.apache.cassandra.locator.SimpleSeedProvider");
+		seedProvider.put("parameters", Collections.singletonList(parameters));
+		return Collections.singletonList(seedProvider);
+	}
+
+	private static void configureTokens(EmbeddedCassandraFactory cassandraFactory, int index, int nodes) {
+		// a single token per node must be unique across the cluster, evenly spaced Murmur3 tokens are used
+		Map<String, Object> configProperties = cassandraFactory.getConfigProperties();
+		if (cassandraFactory.getStartupProfile() != StartupProfile.FAST_BOOT
+				|| configProperties.containsKey("num_tokens") || configProperties.containsKey("initial_token")) {
+			return;
+		}
+		BigInteger token = TOKEN_RANGE.multiply(BigInteger.valueOf(index)).divide(BigInteger.valueOf(nodes))
+				.add(BigInteger.valueOf(Long.MIN_VALUE));
+		configProperties.put("num_tokens", 1);
+		configProperties.put("initial_token", token.toString());
+	}
+
+	/**
+	 * Callback interface that can be used to customize the {@link EmbeddedCassandraFactory} of each node.
+	 */
+	@FunctionalInterface
+	public interface NodeCustomizer {
+
+		/**
+		 * Customizes the given {@link EmbeddedCassandraFactory}.
+		 *
+		 * @param index the index of the node ({@code 0} is a seed)
+		 * @param cassandraFactory the factory of the node
+		 */
+		void customize(int index, EmbeddedCassandraFactory cassandraFactory);
+
+	}
+
+}
@@ -28,13 +28,17 @@ import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,6 +61,10 @@ class EmbeddedCassandraDatabase implements CassandraDatabase {
 
 	private static final Logger log = LoggerFactory.getLogger(EmbeddedCassandraDatabase.class);
 
+	private static final String INITIALIZED = ".initialized";
+
+	private static final List<String> IMMUTABLE_DIRECTORIES = Arrays.asList("bin", "lib", "pylib", "tools");
+
 	private final String name;
 
 	private final Version version;
@@ -65,6 +73,8 @@ class EmbeddedCassandraDatabase implements CassandraDatabase {
 
 	private final Path workingDirectory;
 
+	private final Path dataDirectory;
+
 	private final boolean daemon;
 
 	private final Logger logger;
@@ -82,6 +92,24 @@ class EmbeddedCassandraDatabase implements CassandraDatabase {
 	@Nullable
 	private final Resource topologyConfig;
 
+	@Nullable
+	private final DataSnapshot snapshot;
+
+	@Nullable
+	private final DataSnapshot goldenImage;
+
+	private final StartupRecorder recorder;
+
+	@Nullable
+	private final DirectoryReaper reaper;
+
+	private final int parallelism;
+
+	@Nullable
+	private final WorkingDirectoryTemplate template;
+
+	private final boolean keepData;
+
 	@Nullable
 	private volatile InetAddress address;
 
@@ -91,51 +119,121 @@ class EmbeddedCassandraDatabase implements CassandraDatabase {
 
 	private volatile int rpcPort = -1;
 
-	EmbeddedCassandraDatabase(String name, Version version, Path directory, Path workingDirectory, boolean daemon,
-			Logger logger, Duration timeout, @Nullable Resource config, @Nullable Resource rackConfig,
-			@Nullable Resource topologyConfig, CassandraNode node) {
+	private volatile boolean restored;
+
+	EmbeddedCassandraDatabase(String name, Version version, Path directory, Path workingDirectory,
+			Path dataDirectory, boolean daemon, Logger logger, Duration timeout, @Nullable Resource config,
+			@Nullable Resource rackConfig, @Nullable Resource topologyConfig, @Nullable DataSnapshot snapshot,
+			@Nullable DataSnapshot goldenImage, StartupRecorder recorder, @Nullable DirectoryReaper reaper,
+			int parallelism, @Nullable WorkingDirectoryTemplate template, boolean keepData,
+			CassandraNode node) {
 		this.name = name;
 		this.version = version;
 		this.directory = directory;
 		this.workingDirectory = workingDirectory;
+		this.dataDirectory = dataDirectory;
 		this.daemon = daemon;
 		this.logger = logger;
 		this.timeout = timeout;
 		this.config = config;
 		this.rackConfig = rackConfig;
 		this.topologyConfig = topologyConfig;
+		this.snapshot = snapshot;
+		this.goldenImage = goldenImage;
+		this.recorder = recorder;
+		this.reaper = reaper;
+		this.parallelism = parallelism;
+		this.template = template;
+		this.keepData = keepData;
 		this.node = node;
 	}
 
 	@Override
 	public void start() throws InterruptedException, IOException {
+		this.recorder.reset();
+		if (this.keepData && Files.isDirectory(this.workingDirectory)
+				&& Files.exists(this.dataDirectory.resolve(INITIALIZED))) {
+			this.restored = true;
+			startNode();
+			return;
+		}
+		long initializeStart = System.nanoTime();
 		initialize();
-		this.node.start();
-		log.info("{} has been started", toString());
-		NativeTransportReadinessConsumer nativeTransportReadiness = new NativeTransportReadinessConsumer(this.version);
-		RpcTransportReadinessConsumer rpcTransportReadiness = new RpcTransportReadinessConsumer(this.version);
-		await(nativeTransportReadiness, rpcTransportReadiness);
-		int sslPort = nativeTransportReadiness.getSslPort();
-		int port = nativeTransportReadiness.getPort();
-		this.port = (port != -1) ? port : sslPort;
-		this.sslPort = sslPort;
-		this.rpcPort = rpcTransportReadiness.getRpcPort();
-		InetAddress address = nativeTransportReadiness.getAddress();
-		this.address = (address != null) ? address : rpcTransportReadiness.getAddress();
+		this.recorder.record(StartupReport.Phase.WORKING_DIRECTORY, initializeStart);
+		DataSnapshot snapshot = this.snapshot;
+		this.restored = false;
+		if (snapshot != null && snapshot.exists()) {
+			snapshot.restore(this.dataDirectory, this.parallelism);
+			this.restored = true;
+			startNode();
+			markInitialized();
+			return;
+		}
+		DataSnapshot goldenImage = this.goldenImage;
+		if (goldenImage != null && goldenImage.exists()) {
+			goldenImage.restore(this.dataDirectory, this.parallelism);
+			startNode();
+			return;
+		}
+		startNode();
+		if (goldenImage != null) {
+			stopNode();
+			goldenImage.create(this.dataDirectory);
+			startNode();
+		}
+	}
+
+	@Override
+	public void snapshot() throws InterruptedException, IOException {
+		DataSnapshot snapshot = this.snapshot;
+		if (snapshot != null && !this.restored && !snapshot.exists()) {
+			stopNode();
+			snapshot.create(this.dataDirectory);
+			startNode();
+		}
+		markInitialized();
+	}
+
+	@Override
+	public void restart() throws InterruptedException, IOException {
+		stopNode();
+		this.recorder.reset();
+		this.restored = true;
+		startNode();
+	}
+
+	@Override
+	public StartupReport getStartupReport() {
+		return this.recorder.report();
+	}
+
+	@Override
+	public boolean isRestored() {
+		return this.restored;
 	}
 
 	@Override
 	public void stop() throws InterruptedException, IOException {
-		if (this.node.isAlive()) {
-			this.node.stop();
-			log.info("{} has been stopped", toString());
+		stopNode();
+		if (this.keepData) {
+			log.info("Working Directory '{}' and Data Directory '{}' have been kept", this.workingDirectory,
+					this.dataDirectory);
+			return;
 		}
 		try {
-			FileUtils.delete(this.workingDirectory);
+			delete(this.workingDirectory);
 		}
 		catch (IOException ex) {
 			log.error("Working Directory '" + this.workingDirectory + "' has not been deleted", ex);
 		}
+		if (!this.dataDirectory.startsWith(this.workingDirectory)) {
+			try {
+				delete(this.dataDirectory);
+			}
+			catch (IOException ex) {
+				log.error("Data Directory '" + this.dataDirectory + "' has not been deleted", ex);
+			}
+		}
 	}
 
 	@Override
@@ -159,6 +257,11 @@ class EmbeddedCassandraDatabase implements CassandraDatabase {
 		return this.rpcPort;
 	}
 
+	@Override
+	public int getJmxPort() {
+		return this.node.getJmxPort();
+	}
+
 	@Override
 	public String toString() {
 		return new StringJoiner(", ", EmbeddedCassandraDatabase.class.getSimpleName() + "[", "]")
@@ -166,40 +269,101 @@ class EmbeddedCassandraDatabase implements CassandraDatabase {
 				.toString();
 	}
 
+	private void startNode() throws InterruptedException, IOException {
+		this.node.start();
+		StartupLogConsumer startupLogConsumer = new StartupLogConsumer(this.recorder, System.nanoTime());
+		log.info("{} has been started", toString());
+		NativeTransportReadinessConsumer nativeTransportReadiness = new NativeTransportReadinessConsumer(this.version);
+		RpcTransportReadinessConsumer rpcTransportReadiness = new RpcTransportReadinessConsumer(this.version);
+		await(startupLogConsumer, nativeTransportReadiness, rpcTransportReadiness);
+		int sslPort = nativeTransportReadiness.getSslPort();
+		int port = nativeTransportReadiness.getPort();
+		this.port = (port != -1) ? port : sslPort;
+		this.sslPort = sslPort;
+		this.rpcPort = rpcTransportReadiness.getRpcPort();
+		InetAddress address = nativeTransportReadiness.getAddress();
+		this.address = (address != null) ? address : rpcTransportReadiness.getAddress();
+	}
+
+	private void stopNode() throws InterruptedException, IOException {
+		if (this.node.isAlive()) {
+			this.node.stop();
+			log.info("{} has been stopped", toString());
+		}
+	}
+
+	private void markInitialized() throws IOException {
+		if (this.keepData) {
+			FileUtils.createIfNotExists(this.dataDirectory.resolve(INITIALIZED));
+		}
+	}
+
+	private void delete(Path directory) throws IOException {
+		if (this.reaper != null) {
+			this.reaper.delete(directory);
+		}
+		else {
+			FileUtils.delete(directory, this.parallelism);
+		}
+	}
+
 	private void initialize() throws IOException {
 		Files.createDirectories(this.workingDirectory);
-		FileUtils.copy(this.directory, this.workingDirectory, (path, attributes) -> {
+		Files.createDirectories(this.dataDirectory);
+		if (this.template != null) {
+			this.template.cloneInto(this.workingDirectory, this.parallelism, this::prepare);
+		}
+		else {
+			prepare(this.workingDirectory);
+		}
+	}
+
+	private void prepare(Path directory) throws IOException {
+		FileUtils.copy(this.directory, directory, (path, attributes) -> {
 			if (attributes.isDirectory()) {
 				String name = path.getFileName().toString().toLowerCase(Locale.ENGLISH);
-				return !name.equals("javadoc") && !name.equals("doc");
+				return !name.equals("javadoc") && !name.equals("doc") && !isImmutable(path);
 			}
 			return true;
-		});
+		}, this.parallelism);
+		for (String name : IMMUTABLE_DIRECTORIES) {
+			Path source = this.directory.resolve(name);
+			if (Files.isDirectory(source)) {
+				FileUtils.link(source, directory.resolve(name), null);
+			}
+		}
 		if (this.config != null) {
 			try (InputStream is = this.config.getInputStream()) {
-				Files.copy(is, this.workingDirectory.resolve("conf/cassandra.yaml"),
-						StandardCopyOption.REPLACE_EXISTING);
+				Files.copy(is, directory.resolve("conf/cassandra.yaml"), StandardCopyOption.REPLACE_EXISTING);
 			}
 		}
 		if (this.topologyConfig != null) {
 			try (InputStream is = this.topologyConfig.getInputStream()) {
-				Files.copy(is, this.workingDirectory.resolve("conf/cassandra-topology.properties"),
+				Files.copy(is, directory.resolve("conf/cassandra-topology.properties"),
 						StandardCopyOption.REPLACE_EXISTING);
 			}
 		}
 		if (this.rackConfig != null) {
 			try (InputStream is = this.rackConfig.getInputStream()) {
-				Files.copy(is, this.workingDirectory.resolve("conf/cassandra-rackdc.properties"),
+				Files.copy(is, directory.resolve("conf/cassandra-rackdc.properties"),
 						StandardCopyOption.REPLACE_EXISTING);
 			}
 		}
 	}
 
-	private void await(ReadinessConsumer... readinessConsumers) throws IOException, InterruptedException {
+	private boolean isImmutable(Path path) {
+		Path parent = path.getParent();
+		return parent != null && parent.equals(this.directory) && IMMUTABLE_DIRECTORIES
+				.contains(path.getFileName().toString());
+	}
+
+	private void await(StartupLogConsumer startupLogConsumer, ReadinessConsumer... readinessConsumers)
+			throws IOException, InterruptedException {
 		CompositeConsumer<String> compositeConsumer = new CompositeConsumer<>();
 		CacheConsumer<String> cacheConsumer = new CacheConsumer<>(30);
 		compositeConsumer.add(this.logger::info);
 		compositeConsumer.add(cacheConsumer);
+		compositeConsumer.add(startupLogConsumer);
 		for (ReadinessConsumer readinessConsumer : readinessConsumers) {
 			compositeConsumer.add(readinessConsumer);
 		}
@@ -225,11 +389,22 @@ class EmbeddedCassandraDatabase implements CassandraDatabase {
 		thread.setDaemon(this.daemon);
 		thread.setUncaughtExceptionHandler((t, ex) -> log.error("Exception in thread " + t, ex));
 		thread.start();
-		long start = System.nanoTime();
-		long rem = this.timeout.toNanos();
-		while (rem > 0 && this.node.isAlive() && !isReady(readinessConsumers)) {
-			Thread.sleep(Math.min(TimeUnit.NANOSECONDS.toMillis(rem) + 1, 100));
-			rem = this.timeout.toNanos() - (System.nanoTime() - start);
+		CompletableFuture<?>[] readiness = new CompletableFuture<?>[readinessConsumers.length];
+		for (int i = 0; i < readinessConsumers.length; i++) {
+			readiness[i] = readinessConsumers[i].onReady();
+		}
+		CompletableFuture<Void> ready = CompletableFuture.allOf(readiness);
+		ready.thenRun(startupLogConsumer::ready);
+		boolean timedOut = false;
+		try {
+			CompletableFuture.anyOf(ready, this.node.onExit())
+					.get(this.timeout.toNanos(), TimeUnit.NANOSECONDS);
+		}
+		catch (ExecutionException ex) {
+			throw new IOException(ex.getCause());
+		}
+		catch (TimeoutException ex) {
+			timedOut = true;
 		}
 		if (!this.node.isAlive()) {
 			thread.join(100);
@@ -238,7 +413,7 @@ class EmbeddedCassandraDatabase implements CassandraDatabase {
 			throw new IOException(String.format("'%s' is not alive. Please see logs for more details%n\t%s", this.node,
 					String.join(String.format("%n\t"), lines)));
 		}
-		if (rem <= 0) {
+		if (timedOut) {
 			throw new IllegalStateException(
 					toString() + " couldn't be started within " + this.timeout.toMillis() + "ms");
 		}
@@ -246,15 +421,7 @@ class EmbeddedCassandraDatabase implements CassandraDatabase {
 			compositeConsumer.remove(readinessConsumer);
 		}
 		compositeConsumer.remove(cacheConsumer);
-	}
-
-	private static boolean isReady(Readiness... readinesses) {
-		for (Readiness readiness : readinesses) {
-			if (!readiness.isReady()) {
-				return false;
-			}
-		}
-		return true;
+		compositeConsumer.remove(startupLogConsumer);
 	}
 
 }
@@ -16,33 +16,46 @@
 
 package com.github.nosan.embedded.cassandra;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.InetAddress;
+import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.yaml.snakeyaml.Yaml;
 
 import com.github.nosan.embedded.cassandra.annotations.Nullable;
 import com.github.nosan.embedded.cassandra.api.Cassandra;
 import com.github.nosan.embedded.cassandra.api.CassandraCreationException;
 import com.github.nosan.embedded.cassandra.api.CassandraFactory;
 import com.github.nosan.embedded.cassandra.api.Version;
+import com.github.nosan.embedded.cassandra.api.connection.CassandraConnectionFactory;
+import com.github.nosan.embedded.cassandra.api.connection.DefaultCassandraConnectionFactory;
+import com.github.nosan.embedded.cassandra.api.cql.CqlDataSet;
 import com.github.nosan.embedded.cassandra.artifact.ArchiveArtifact;
 import com.github.nosan.embedded.cassandra.artifact.Artifact;
 import com.github.nosan.embedded.cassandra.artifact.DefaultArtifact;
 import com.github.nosan.embedded.cassandra.artifact.RemoteArtifact;
 import com.github.nosan.embedded.cassandra.commons.io.Resource;
+import com.github.nosan.embedded.cassandra.commons.io.UrlResource;
 import com.github.nosan.embedded.cassandra.commons.util.StringUtils;
 
 /**
@@ -93,8 +106,12 @@ import com.github.nosan.embedded.cassandra.commons.util.StringUtils;
  */
 public final class EmbeddedCassandraFactory implements CassandraFactory {
 
+	private static final Logger log = LoggerFactory.getLogger(EmbeddedCassandraFactory.class);
+
 	private static final AtomicLong NUMBER = new AtomicLong();
 
+	private static final long MINIMUM_MEMORY_SIZE = 256L * 1024 * 1024;
+
 	private final Map<String, Object> environmentVariables = new LinkedHashMap<>();
 
 	private final List<String> jvmOptions = new ArrayList<>();
@@ -157,6 +174,40 @@ public final class EmbeddedCassandraFactory implements CassandraFactory {
 	@Nullable
 	private InetAddress address;
 
+	@Nullable
+	private Executor executor;
+
+	@Nullable
+	private CqlDataSet cqlDataSet;
+
+	@Nullable
+	private CassandraConnectionFactory cassandraConnectionFactory;
+
+	@Nullable
+	private Path snapshotDirectory;
+
+	private boolean goldenImageEnabled;
+
+	@Nullable
+	private Consumer<? super StartupReport> startupListener;
+
+	private StartupProfile startupProfile = StartupProfile.DEFAULT;
+
+	private boolean classDataSharingEnabled;
+
+	private StorageMode storageMode = StorageMode.DISK;
+
+	@Nullable
+	private Path memoryDirectory;
+
+	private boolean asyncTeardownEnabled;
+
+	private int fileParallelism = Runtime.getRuntime().availableProcessors();
+
+	private boolean workingDirectoryTemplateEnabled;
+
+	private boolean keepData;
+
 	/**
 	 * Returns Cassandra's name. Defaults to {@code 'cassandra'}.
 	 *
@@ -561,6 +612,346 @@ public final class EmbeddedCassandraFactory implements CassandraFactory {
 		this.registerShutdownHook = registerShutdownHook;
 	}
 
+	/**
+	 * Returns the {@link Executor} that is used to run {@link Cassandra#startAsync()} and {@link
+	 * Cassandra#stopAsync()}.
+	 *
+	 * @return the executor (or null if none)
+	 * @since 3.1.0
+	 */
+	@Nullable
+	public Executor getExecutor() {
+		return this.executor;
+	}
+
+	/**
+	 * Sets the {@link Executor} that should be used to run {@link Cassandra#startAsync()} and {@link
+	 * Cassandra#stopAsync()}. Defaults to an executor that runs each operation in a new thread.
+	 *
+	 * @param executor the executor
+	 * @since 3.1.0
+	 */
+	public void setExecutor(@Nullable Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Returns the {@link CqlDataSet} that is executed once {@link Cassandra} has started.
+	 *
+	 * @return the data set (or null if none)
+	 * @since 3.1.0
+	 */
+	@Nullable
+	public CqlDataSet getCqlDataSet() {
+		return this.cqlDataSet;
+	}
+
+	/**
+	 * Sets the {@link CqlDataSet} that should be executed once {@link Cassandra} has started. If a {@link
+	 * #setSnapshotDirectory(Path) snapshot} of the data is restored, the data set is not executed.
+	 *
+	 * @param cqlDataSet the data set
+	 * @since 3.1.0
+	 */
+	public void setCqlDataSet(@Nullable CqlDataSet cqlDataSet) {
+		this.cqlDataSet = cqlDataSet;
+	}
+
+	/**
+	 * Returns the {@link CassandraConnectionFactory} that is used to execute the {@link #getCqlDataSet() data set}.
+	 *
+	 * @return the connection factory (or null if none)
+	 * @since 3.1.0
+	 */
+	@Nullable
+	public CassandraConnectionFactory getCassandraConnectionFactory() {
+		return this.cassandraConnectionFactory;
+	}
+
+	/**
+	 * Sets the {@link CassandraConnectionFactory} that should be used to execute the {@link #getCqlDataSet() data
+	 * set}. Defaults to {@link DefaultCassandraConnectionFactory}.
+	 *
+	 * @param cassandraConnectionFactory the connection factory
+	 * @since 3.1.0
+	 */
+	public void setCassandraConnectionFactory(@Nullable CassandraConnectionFactory cassandraConnectionFactory) {
+		this.cassandraConnectionFactory = cassandraConnectionFactory;
+	}
+
+	/**
+	 * Returns the directory where snapshots of the Cassandra's data are stored.
+	 *
+	 * @return the snapshot directory (or null if none)
+	 * @since 3.1.0
+	 */
+	@Nullable
+	public Path getSnapshotDirectory() {
+		return this.snapshotDirectory;
+	}
+
+	/**
+	 * Sets the directory where snapshots of the Cassandra's data ({@code data}, {@code commitlog}, {@code
+	 * saved_caches}) should be stored. If set, the data is snapshotted after the first start and the {@link
+	 * #getCqlDataSet() data set} execution, and restored on the subsequent starts before Cassandra is launched. A
+	 * snapshot is identified by Cassandra's version, configuration and data set. Taking a snapshot requires Cassandra
+	 * to be restarted once. Defaults to {@code null} (disabled).
+	 *
+	 * @param snapshotDirectory the snapshot directory
+	 * @since 3.1.0
+	 */
+	public void setSnapshotDirectory(@Nullable Path snapshotDirectory) {
+		this.snapshotDirectory = snapshotDirectory;
+	}
+
+	/**
+	 * Whether a golden image of the initialized but empty Cassandra's data should be used or not.
+	 *
+	 * @return the golden image enabled or not
+	 * @since 3.1.0
+	 */
+	public boolean isGoldenImageEnabled() {
+		return this.goldenImageEnabled;
+	}
+
+	/**
+	 * Sets if a golden image of the initialized but empty Cassandra's data (system keyspaces) should be used. If
+	 * enabled, the image is built lazily on the first start (which requires Cassandra to be restarted once) and every
+	 * subsequent working directory is seeded from it. The image does not contain the commit log, {@code system.local}
+	 * and {@code system.peers}, hence every seeded node generates its own host ID and tokens. The image is compressed,
+	 * stored in the {@code user.home/.embedded-cassandra/golden-images} directory, and identified by Cassandra's
+	 * version and configuration. Defaults to {@code false}.
+	 *
+	 * @param goldenImageEnabled if the golden image should be used
+	 * @since 3.1.0
+	 */
+	public void setGoldenImageEnabled(boolean goldenImageEnabled) {
+		this.goldenImageEnabled = goldenImageEnabled;
+	}
+
+	/**
+	 * Returns the listener that is notified with a {@link StartupReport} once {@link Cassandra} has started.
+	 *
+	 * @return the startup listener (or null if none)
+	 * @since 3.1.0
+	 */
+	@Nullable
+	public Consumer<? super StartupReport> getStartupListener() {
+		return this.startupListener;
+	}
+
+	/**
+	 * Sets the listener that should be notified with a {@link StartupReport} every time {@link Cassandra} has
+	 * started. The report contains the durations of the startup phases and can be used to find out where the startup
+	 * time goes.
+	 *
+	 * @param startupListener the startup listener
+	 * @since 3.1.0
+	 */
+	public void setStartupListener(@Nullable Consumer<? super StartupReport> startupListener) {
+		this.startupListener = startupListener;
+	}
+
+	/**
+	 * Returns the {@link StartupProfile} that is applied to Cassandra's properties.
+	 *
+	 * @return the startup profile
+	 * @since 3.1.0
+	 */
+	public StartupProfile getStartupProfile() {
+		return this.startupProfile;
+	}
+
+	/**
+	 * Sets the {@link StartupProfile} that should be applied to Cassandra's properties. The profile never overrides
+	 * properties that have been set explicitly, neither as config properties nor in the {@link #setConfig config} (or
+	 * the {@code cassandra.config} system property). Defaults to {@link StartupProfile#DEFAULT}.
+	 *
+	 * @param startupProfile the startup profile
+	 * @since 3.1.0
+	 */
+	public void setStartupProfile(@Nullable StartupProfile startupProfile) {
+		this.startupProfile = (startupProfile != null) ? startupProfile : StartupProfile.DEFAULT;
+	}
+
+	/**
+	 * Whether an AppCDS archive should be used for the Cassandra's JVM or not.
+	 *
+	 * @return the class data sharing enabled or not
+	 * @since 3.1.0
+	 */
+	public boolean isClassDataSharingEnabled() {
+		return this.classDataSharingEnabled;
+	}
+
+	/**
+	 * Sets if an AppCDS archive should be used for the Cassandra's JVM. If enabled, the first start records the loaded
+	 * classes, and once it has stopped, an archive is dumped in the background, verified and stored in the {@code
+	 * user.home/.embedded-cassandra/cds} directory. The subsequent starts map the archive. The archive is built against
+	 * the jars of the distribution directory, hence these jars are put in front of Cassandra's class path, followed by
+	 * its remaining entries (e.g. the {@code conf} directory). No archive is built if one of these jars contains a
+	 * resource of the {@code conf} directory. Requires Cassandra to be run on {@code JDK 11+} (e.g. Cassandra 4.0), and
+	 * is not supported on Windows; otherwise nothing is changed and a warning is logged. Defaults to {@code false}.
+	 *
+	 * @param classDataSharingEnabled if the AppCDS archive should be used
+	 * @since 3.1.0
+	 */
+	public void setClassDataSharingEnabled(boolean classDataSharingEnabled) {
+		this.classDataSharingEnabled = classDataSharingEnabled;
+	}
+
+	/**
+	 * Returns the {@link StorageMode} that defines where Cassandra's data is stored.
+	 *
+	 * @return the storage mode
+	 * @since 3.1.0
+	 */
+	public StorageMode getStorageMode() {
+		return this.storageMode;
+	}
+
+	/**
+	 * Sets the {@link StorageMode} that defines where Cassandra's data should be stored. If {@link
+	 * StorageMode#MEMORY} is used, Cassandra's data directories are created in the {@link #setMemoryDirectory(Path)
+	 * memory directory} and deleted on stop. If the memory directory does not exist or does not have at least {@code
+	 * 256MB} of usable space, {@link StorageMode#DISK} is used instead. Data directories that have been set
+	 * explicitly via {@link #getConfigProperties()} are not overridden. Defaults to {@link StorageMode#DISK}.
+	 *
+	 * @param storageMode the storage mode
+	 * @since 3.1.0
+	 */
+	public void setStorageMode(@Nullable StorageMode storageMode) {
+		this.storageMode = (storageMode != null) ? storageMode : StorageMode.DISK;
+	}
+
+	/**
+	 * Returns the RAM-backed directory ({@code tmpfs}) that is used by {@link StorageMode#MEMORY}.
+	 *
+	 * @return the memory directory (or null if none)
+	 * @since 3.1.0
+	 */
+	@Nullable
+	public Path getMemoryDirectory() {
+		return this.memoryDirectory;
+	}
+
+	/**
+	 * Sets the RAM-backed directory ({@code tmpfs}) that should be used by {@link StorageMode#MEMORY}. Defaults to
+	 * {@code /dev/shm}.
+	 *
+	 * @param memoryDirectory the memory directory
+	 * @since 3.1.0
+	 */
+	public void setMemoryDirectory(@Nullable Path memoryDirectory) {
+		this.memoryDirectory = memoryDirectory;
+	}
+
+	/**
+	 * Whether the working directory is deleted in the background or not.
+	 *
+	 * @return the async teardown enabled or not
+	 * @since 3.1.0
+	 */
+	public boolean isAsyncTeardownEnabled() {
+		return this.asyncTeardownEnabled;
+	}
+
+	/**
+	 * Sets if the working directory (and the data directory) should be deleted in the background. If enabled, {@link
+	 * Cassandra#stop()} returns as soon as Cassandra's process has exited: the directory is moved into a {@code
+	 * .embedded-cassandra-trash} directory located next to it and then deleted by a parallel file walk. Pending
+	 * deletions are awaited by the {@link #setRegisterShutdownHook shutdown hook} once Cassandra has been stopped.
+	 * Trash left behind by a JVM of the same host (or container) that exited earlier is deleted when the next {@link
+	 * Cassandra} instance is created. Defaults to {@code false}.
+	 *
+	 * @param asyncTeardownEnabled if the working directory should be deleted in the background
+	 * @since 3.1.0
+	 */
+	public void setAsyncTeardownEnabled(boolean asyncTeardownEnabled) {
+		this.asyncTeardownEnabled = asyncTeardownEnabled;
+	}
+
+	/**
+	 * Parallelism level used to copy and delete the working directory.
+	 *
+	 * @return the parallelism level
+	 * @since 3.1.0
+	 */
+	public int getFileParallelism() {
+		return this.fileParallelism;
+	}
+
+	/**
+	 * Sets the parallelism level used to copy and delete the working directory. Sibling directories are processed in
+	 * parallel by a fork-join directory walk, {@code 1} means a single-threaded walk. Defaults to the number of
+	 * available processors.
+	 *
+	 * @param fileParallelism the parallelism level
+	 * @since 3.1.0
+	 */
+	public void setFileParallelism(int fileParallelism) {
+		if (fileParallelism < 1) {
+			throw new IllegalArgumentException("'fileParallelism' must be greater than 0");
+		}
+		this.fileParallelism = fileParallelism;
+	}
+
+	/**
+	 * Whether the working directory is cloned from a cached template or not.
+	 *
+	 * @return the working directory template enabled or not
+	 * @since 3.1.0
+	 */
+	public boolean isWorkingDirectoryTemplateEnabled() {
+		return this.workingDirectoryTemplateEnabled;
+	}
+
+	/**
+	 * Sets if the working directory should be cloned from a cached template. If enabled, a fully prepared working
+	 * directory (the distribution with {@link #setConfig config}, {@link #setRackConfig rack config} and {@link
+	 * #setTopologyConfig topology config} applied) is created once per fingerprint in the {@code
+	 * user.home/.embedded-cassandra/templates} directory. The fingerprint includes the digest of the distribution's
+	 * files, if the artifact provides one, so a re-extracted or changed distribution gets a new template. New working
+	 * directories are cloned from the template with hard links; only the {@code conf} directory is copied, as ports,
+	 * data directories and {@link #setConfigProperties config properties} are still applied per instance. Defaults to
+	 * {@code false}.
+	 *
+	 * @param workingDirectoryTemplateEnabled if the working directory should be cloned from a cached template
+	 * @since 3.1.0
+	 */
+	public void setWorkingDirectoryTemplateEnabled(boolean workingDirectoryTemplateEnabled) {
+		this.workingDirectoryTemplateEnabled = workingDirectoryTemplateEnabled;
+	}
+
+	/**
+	 * Whether the working directory and the data are kept when {@link Cassandra} is stopped or not.
+	 *
+	 * @return the keep data or not
+	 * @since 3.1.0
+	 */
+	public boolean isKeepData() {
+		return this.keepData;
+	}
+
+	/**
+	 * Sets if the working directory and the data should be kept when {@link Cassandra} is stopped. If enabled, the
+	 * next start reuses the initialized working directory and the data: the working directory is not initialized
+	 * again and the {@link #setCqlDataSet CQL data set} is not executed again, whereas ports configured as {@code 0}
+	 * are allocated again. This also applies to a fixed {@link #setWorkingDirectory working directory} across JVMs.
+	 * The directories have to be deleted manually, therefore the {@link #setWorkingDirectory working directory} must
+	 * be set. The data is considered initialized only if the data directory holds it, so with {@link
+	 * StorageMode#MEMORY} the data directory is derived from the working directory and survives until the {@code
+	 * tmpfs} is cleared (e.g. reboot), after which the data is initialized again. Defaults to {@code false}.
+	 * <p>
+	 * {@link Cassandra#restart()} keeps the data regardless of this setting.
+	 *
+	 * @param keepData if the working directory and the data should be kept
+	 * @since 3.1.0
+	 */
+	public void setKeepData(boolean keepData) {
+		this.keepData = keepData;
+	}
+
 	@Override
 	public Cassandra create() throws CassandraCreationException {
 		try {
@@ -580,10 +971,16 @@ public final class EmbeddedCassandraFactory implements CassandraFactory {
 		if (artifact == null) {
 			artifact = Artifact.ofVersion("4.0-alpha3");
 		}
+		StartupRecorder recorder = new StartupRecorder();
+		long artifactStart = System.nanoTime();
 		Artifact.Distribution distribution = artifact.getDistribution();
+		recorder.record(StartupReport.Phase.ARTIFACT_RESOLUTION, artifactStart);
 		Version version = distribution.getVersion();
 		Path workingDirectory = getWorkingDirectory();
 		if (workingDirectory == null) {
+			if (isKeepData()) {
+				throw new IllegalStateException("Working directory must be set if the data should be kept");
+			}
 			workingDirectory = Files.createTempDirectory("apache-cassandra-" + version + "-");
 		}
 		if (Files.exists(workingDirectory) && !Files.isDirectory(workingDirectory)) {
@@ -604,17 +1001,109 @@ public final class EmbeddedCassandraFactory implements CassandraFactory {
 		if (timeout == null || timeout.toMillis() <= 0) {
 			timeout = Duration.ofSeconds(90);
 		}
-		CassandraNode node = createNode(version, workingDirectory);
+		CqlDataSet dataSet = getCqlDataSet();
+		if (dataSet == null) {
+			dataSet = CqlDataSet.empty();
+		}
+		CassandraConnectionFactory connectionFactory = getCassandraConnectionFactory();
+		if (connectionFactory == null) {
+			connectionFactory = new DefaultCassandraConnectionFactory();
+		}
+		DataSnapshot snapshot = createSnapshot(version, directory, dataSet);
+		DataSnapshot goldenImage = createGoldenImage(version, directory);
+		Path dataDirectory = getDataDirectory(version, workingDirectory);
+		CassandraNode node = createNode(version, directory, workingDirectory, dataDirectory, recorder);
+		DirectoryReaper reaper = isAsyncTeardownEnabled() ? DirectoryReaper.getInstance() : null;
+		if (reaper != null) {
+			reaper.sweep(workingDirectory);
+			reaper.sweep(dataDirectory);
+		}
+		WorkingDirectoryTemplate template = createWorkingDirectoryTemplate(version, directory,
+				distribution.getDigest());
 		CassandraDatabase database = new EmbeddedCassandraDatabase(name, version, directory, workingDirectory,
-				isDaemon(), logger, timeout, getConfig(), getRackConfig(), getTopologyConfig(), node);
-		EmbeddedCassandra cassandra = new EmbeddedCassandra(name, version, database);
+				dataDirectory, isDaemon(), logger, timeout, getConfig(), getRackConfig(), getTopologyConfig(), snapshot,
+				goldenImage, recorder, reaper, getFileParallelism(), template, isKeepData(), node);
+		Executor executor = getExecutor();
+		if (executor == null) {
+			executor = createExecutor(name, isDaemon());
+		}
+		EmbeddedCassandra cassandra = new EmbeddedCassandra(name, version, database, executor, dataSet,
+				connectionFactory, getStartupListener());
 		if (isRegisterShutdownHook()) {
-			Runtime.getRuntime().addShutdownHook(new Thread(cassandra::stop, name + "-sh"));
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				cassandra.stop();
+				DirectoryReaper.awaitInstance();
+			}, name + "-sh"));
 		}
 		return cassandra;
 	}
 
-	private CassandraNode createNode(Version version, Path workingDirectory) {
+	@Nullable
+	private DataSnapshot createSnapshot(Version version, Path directory, CqlDataSet dataSet) throws IOException {
+		Path snapshotDirectory = getSnapshotDirectory();
+		if (snapshotDirectory == null) {
+			return null;
+		}
+		String key = configurationFingerprint(version, directory).add(getConfigProperties())
+				.add(getSystemProperties()).add(getAddress()).add(getStartupProfile()).add(dataSet.getStatements())
+				.get();
+		return new DataSnapshot(snapshotDirectory, key);
+	}
+
+	@Nullable
+	private DataSnapshot createGoldenImage(Version version, Path directory) throws IOException {
+		if (!isGoldenImageEnabled()) {
+			return null;
+		}
+		String key = configurationFingerprint(version, directory).add(getConfigProperties())
+				.add(getSystemProperties()).add(getAddress()).add(getStartupProfile()).get();
+		return new DataSnapshot(getCacheDirectory("golden-images"), key, true, DataSnapshot::isShareable);
+	}
+
+	@Nullable
+	private WorkingDirectoryTemplate createWorkingDirectoryTemplate(Version version, Path directory,
+			@Nullable String digest) throws IOException {
+		if (!isWorkingDirectoryTemplateEnabled()) {
+			return null;
+		}
+		String key = configurationFingerprint(version, directory).add(digest).get();
+		return new WorkingDirectoryTemplate(getCacheDirectory("templates"), key);
+	}
+
+	private Fingerprint configurationFingerprint(Version version, Path directory) throws IOException {
+		return new Fingerprint().add(version).add(directory).add(getConfig()).add(getRackConfig())
+				.add(getTopologyConfig());
+	}
+
+	private Path getDataDirectory(Version version, Path workingDirectory) throws IOException {
+		Path dataDirectory = workingDirectory.resolve("data");
+		if (getStorageMode() != StorageMode.MEMORY) {
+			return dataDirectory;
+		}
+		Path memoryDirectory = getMemoryDirectory();
+		if (memoryDirectory == null) {
+			memoryDirectory = Paths.get("/dev/shm");
+		}
+		if (!Files.isDirectory(memoryDirectory)) {
+			log.warn("Memory directory '{}' does not exist. Data is stored in '{}'", memoryDirectory, dataDirectory);
+			return dataDirectory;
+		}
+		long usableSpace = Files.getFileStore(memoryDirectory).getUsableSpace();
+		if (usableSpace < MINIMUM_MEMORY_SIZE) {
+			log.warn("Memory directory '{}' has only {} bytes of usable space, at least {} bytes are required."
+					+ " Data is stored in '{}'", memoryDirectory, usableSpace, MINIMUM_MEMORY_SIZE, dataDirectory);
+			return dataDirectory;
+		}
+		if (isKeepData()) {
+			String key = new Fingerprint().add(workingDirectory.toAbsolutePath().normalize()).get();
+			return memoryDirectory.resolve("apache-cassandra-" + version + "-" + key.substring(0, 16));
+		}
+		// created on start and deleted on stop, so nothing is left in the memory directory if Cassandra never starts
+		return memoryDirectory.resolve("apache-cassandra-" + version + "-" + UUID.randomUUID());
+	}
+
+	private CassandraNode createNode(Version version, Path directory, Path workingDirectory, Path dataDirectory,
+			StartupRecorder recorder) throws IOException {
 		Map<String, Object> systemProperties = new LinkedHashMap<>(getSystemProperties());
 		systemProperties.keySet().removeIf(Objects::isNull);
 		Map<String, Object> environmentVariables = new LinkedHashMap<>(getEnvironmentVariables());
@@ -656,12 +1145,94 @@ public final class EmbeddedCassandraFactory implements CassandraFactory {
 		if (jmxLocalPort != null) {
 			systemProperties.put("cassandra.jmx.local.port", jmxLocalPort);
 		}
+		getStartupProfile().configure(version, loadConfig(systemProperties), systemProperties, configProperties);
+		if (!dataDirectory.startsWith(workingDirectory)) {
+			configureDataDirectories(version, dataDirectory, configProperties);
+		}
+		ClassDataSharing classDataSharing = createClassDataSharing(version, directory, javaHome, jvmOptions);
 		if (isWindows()) {
 			return new WindowsCassandraNode(version, workingDirectory, jvmOptions, systemProperties,
-					environmentVariables, configProperties);
+					environmentVariables, configProperties, classDataSharing, recorder);
 		}
 		return new UnixCassandraNode(version, workingDirectory, jvmOptions, systemProperties, environmentVariables,
-				configProperties, isRootAllowed());
+				configProperties, isRootAllowed(), classDataSharing, recorder);
+	}
+
+	private Map<String, Object> loadConfig(Map<String, Object> systemProperties) throws IOException {
+		Object url = systemProperties.get("cassandra.config");
+		Resource config = (url != null) ? new UrlResource(new URL(url.toString())) : getConfig();
+		if (config == null) {
+			return Collections.emptyMap();
+		}
+		try (InputStream is = config.getInputStream()) {
+			Map<String, Object> properties = new Yaml().load(is);
+			return (properties != null) ? properties : Collections.emptyMap();
+		}
+	}
+
+	private static void configureDataDirectories(Version version, Path dataDirectory,
+			Map<String, Object> configProperties) {
+		configProperties.putIfAbsent("data_file_directories",
+				Collections.singletonList(dataDirectory.resolve("data").toString()));
+		configProperties.putIfAbsent("commitlog_directory", dataDirectory.resolve("commitlog").toString());
+		configProperties.putIfAbsent("saved_caches_directory", dataDirectory.resolve("saved_caches").toString());
+		if (version.getMajor() >= 3) {
+			configProperties.putIfAbsent("hints_directory", dataDirectory.resolve("hints").toString());
+		}
+		if (version.compareTo(Version.of("3.8")) >= 0) {
+			configProperties.putIfAbsent("cdc_raw_directory", dataDirectory.resolve("cdc_raw").toString());
+		}
+	}
+
+	@Nullable
+	private ClassDataSharing createClassDataSharing(Version version, Path directory, @Nullable Path javaHome,
+			List<String> jvmOptions) throws IOException {
+		if (!isClassDataSharingEnabled()) {
+			return null;
+		}
+		if (javaHome == null) {
+			log.warn("AppCDS archive is not used. Java Home cannot be determined");
+			return null;
+		}
+		if (isWindows()) {
+			log.warn("AppCDS archive is not used. Windows is not supported");
+			return null;
+		}
+		int javaVersion = ClassDataSharing.getJavaVersion(javaHome);
+		if (javaVersion < 11) {
+			log.warn("AppCDS archive is not supported by '{}'. Java 11+ is required", javaHome);
+			return null;
+		}
+		List<Path> classPath = ClassDataSharing.getClassPath(directory);
+		if (classPath.isEmpty()) {
+			log.warn("AppCDS archive is not used. '{}' does not contain any jars", directory.resolve("lib"));
+			return null;
+		}
+		String key = new Fingerprint().add(version).add(directory).add(javaHome).add(javaVersion).add(jvmOptions)
+				.add(classPath).get();
+		// a non-daemon thread, so that an exiting JVM does not leave a half-dumped archive behind
+		Executor executor = createExecutor("embedded-cassandra-cds", false);
+		return new ClassDataSharing(getCacheDirectory("cds"), key, javaHome, javaVersion, classPath,
+				directory.resolve("conf"), executor);
+	}
+
+	private static Path getCacheDirectory(String name) {
+		Path home = Optional.ofNullable(System.getProperty("user.home")).map(Paths::get)
+				.orElseGet(() -> Paths.get(System.getProperty("java.io.tmpdir")));
+		return home.resolve(".embedded-cassandra").resolve(name);
+	}
+
+	static Executor createExecutor(String name, boolean daemon) {
+		AtomicLong number = new AtomicLong();
+		return command -> {
+			Map<String, String> context = MDC.getCopyOfContextMap();
+			Thread thread = new Thread(() -> {
+				Optional.ofNullable(context).ifPresent(MDC::setContextMap);
+				command.run();
+			}, name + "-async-" + number.incrementAndGet());
+			thread.setDaemon(daemon);
+			thread.start();
+		};
 	}
 
 	private static boolean isWindows() {
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.commons.io.Resource;
+import com.github.nosan.embedded.cassandra.commons.util.StringUtils;
+
+/**
+ * Simple class that computes a {@code SHA-256} fingerprint of the given values.
+ *
+ * @author Dmytro Nosan
+ */
+final class Fingerprint {
+
+	private final MessageDigest digest;
+
+	Fingerprint() {
+		try {
+			this.digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 algorithm is not available", ex);
+		}
+	}
+
+	/**
+	 * Adds the string representation of the given value to this fingerprint.
+	 *
+	 * @param value the value
+	 * @return this fingerprint
+	 */
+	Fingerprint add(@Nullable Object value) {
+		return add(Objects.toString(value).getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Adds the content of the given resource to this fingerprint.
+	 *
+	 * @param resource the resource
+	 * @return this fingerprint
+	 * @throws IOException if the resource cannot be read
+	 */
+	Fingerprint add(@Nullable Resource resource) throws IOException {
+		if (resource == null) {
+			return add((Object) null);
+		}
+		return add(resource.getBytes());
+	}
+
+	/**
+	 * Returns this fingerprint as a hex string.
+	 *
+	 * @return the fingerprint
+	 */
+	String get() {
+		return StringUtils.toHex(this.digest.digest());
+	}
+
+	private Fingerprint add(byte[] bytes) {
+		this.digest.update(bytes);
+		this.digest.update((byte) 0);
+		return this;
+	}
+
+}
@@ -0,0 +1,399 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import javax.management.JMException;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.api.Cassandra;
+import com.github.nosan.embedded.cassandra.api.CassandraException;
+import com.github.nosan.embedded.cassandra.api.connection.CassandraConnection;
+import com.github.nosan.embedded.cassandra.commons.util.FileUtils;
+
+/**
+ * Clones a template keyspace into new keyspaces with the same schema and data. The template keyspace is flushed and
+ * snapshotted once, then for every clone the schema (keyspace, user types, tables and dropped columns) is recreated
+ * from {@code system_schema}, the SSTables of the snapshot are hard-linked into the new tables' directories and loaded
+ * over JMX with {@code importNewSSTables} of the table, or {@code StorageService.loadNewSSTables} if the former is not
+ * available. This gives isolated copies of a large dataset without replaying {@code CQL}. Rows of {@code system_schema}
+ * are read with {@link CassandraConnection#select(String, Object...)}.
+ * <p>
+ * Only a single {@code Cassandra 3.0+} node created by {@link EmbeddedCassandraFactory} is supported. Table options
+ * (compaction, compression, etc.), secondary indexes and materialized views are not cloned. Writes to the template
+ * keyspace after the first clone are not visible in subsequent clones unless {@link #flush()} is invoked, which
+ * replaces the snapshot of the template keyspace.
+ * <pre>
+ * KeyspaceCloner cloner = new KeyspaceCloner(cassandra, connection, "fixture");
+ * cloner.clone("test_1");
+ * </pre>
+ *
+ * @author Dmytro Nosan
+ * @since 3.1.0
+ */
+public final class KeyspaceCloner {
+
+	private static final String STORAGE_SERVICE = "org.apache.cassandra.db:type=StorageService";
+
+	private static final String SNAPSHOT_PREFIX = "keyspace-cloner-";
+
+	private final EmbeddedCassandra cassandra;
+
+	private final CassandraConnection connection;
+
+	private final String template;
+
+	@Nullable
+	private volatile String snapshot;
+
+	/**
+	 * Creates a {@link KeyspaceCloner}.
+	 *
+	 * @param cassandra the Cassandra created by {@link EmbeddedCassandraFactory}
+	 * @param connection the connection to the {@code cassandra}
+	 * @param template the name of the template keyspace
+	 */
+	public KeyspaceCloner(Cassandra cassandra, CassandraConnection connection, String template) {
+		Objects.requireNonNull(cassandra, "'cassandra' must not be null");
+		Objects.requireNonNull(connection, "'connection' must not be null");
+		Objects.requireNonNull(template, "'template' must not be null");
+		if (!(cassandra instanceof EmbeddedCassandra)) {
+			throw new IllegalArgumentException("'cassandra' must be created by " + EmbeddedCassandraFactory.class);
+		}
+		this.cassandra = (EmbeddedCassandra) cassandra;
+		this.connection = connection;
+		this.template = template;
+	}
+
+	/**
+	 * Flushes and snapshots the template keyspace, so its latest data is visible in subsequent clones.
+	 */
+	public synchronized void flush() {
+		execute(mbeans -> {
+			snapshot(mbeans);
+			return null;
+		});
+	}
+
+	/**
+	 * Creates a new keyspace with the schema and data of the template keyspace.
+	 *
+	 * @param keyspace the name of the new keyspace
+	 */
+	public synchronized void clone(String keyspace) {
+		Objects.requireNonNull(keyspace, "'keyspace' must not be null");
+		if (this.cassandra.getVersion().getMajor() < 3) {
+			throw new IllegalStateException("Keyspace cloning requires Cassandra 3.0+");
+		}
+		execute(mbeans -> {
+			String snapshot = this.snapshot;
+			if (snapshot == null) {
+				snapshot = snapshot(mbeans);
+			}
+			String[] locations = (String[]) mbeans.getAttribute(new ObjectName(STORAGE_SERVICE),
+					"AllDataFileLocations");
+			createKeyspace(keyspace);
+			createTypes(keyspace);
+			Map<String, String> templateTables = getTableIds(this.template);
+			createTables(keyspace, templateTables.keySet());
+			Map<String, String> tables = getTableIds(keyspace);
+			for (Map.Entry<String, String> entry : templateTables.entrySet()) {
+				String table = entry.getKey();
+				for (String location : locations) {
+					Path source = Paths.get(location).resolve(this.template).resolve(table + "-" + entry.getValue())
+							.resolve("snapshots").resolve(snapshot);
+					Path target = Paths.get(location).resolve(keyspace).resolve(table + "-" + tables.get(table));
+					if (Files.isDirectory(source)) {
+						linkSSTables(source, target);
+					}
+				}
+				loadSSTables(mbeans, keyspace, table);
+			}
+			return null;
+		});
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", KeyspaceCloner.class.getSimpleName() + "[", "]")
+				.add("cassandra=" + this.cassandra).add("template='" + this.template + "'").toString();
+	}
+
+	private String snapshot(MBeanServerConnection mbeans) throws IOException, JMException {
+		ObjectName storageService = new ObjectName(STORAGE_SERVICE);
+		String[] signature = {String.class.getName(), String[].class.getName()};
+		mbeans.invoke(storageService, "forceKeyspaceFlush", new Object[]{this.template, new String[0]}, signature);
+		// unlike the table directory, a snapshot holds only live SSTables, neither temporary ones of a running
+		// compaction nor obsolete ones whose deletion is still pending in a transaction log
+		String snapshot = SNAPSHOT_PREFIX + UUID.randomUUID();
+		mbeans.invoke(storageService, "takeSnapshot", new Object[]{snapshot, new String[]{this.template}},
+				signature);
+		String previous = this.snapshot;
+		this.snapshot = snapshot;
+		if (previous != null) {
+			mbeans.invoke(storageService, "clearSnapshot", new Object[]{previous, new String[]{this.template}},
+					signature);
+		}
+		return snapshot;
+	}
+
+	private void createKeyspace(String keyspace) {
+		List<Map<String, Object>> rows = this.connection.select(
+				"SELECT replication FROM system_schema.keyspaces WHERE keyspace_name = ?", this.template);
+		if (rows.isEmpty()) {
+			throw new IllegalStateException("Keyspace '" + this.template + "' does not exist");
+		}
+		Map<?, ?> replication = (Map<?, ?>) rows.get(0).get("replication");
+		StringJoiner options = new StringJoiner(", ", "{", "}");
+		replication.forEach((name, value) -> options.add("'" + name + "': '" + value + "'"));
+		this.connection.execute("CREATE KEYSPACE " + quote(keyspace) + " WITH replication = " + options);
+	}
+
+	private void createTypes(String keyspace) {
+		Map<String, String> types = new LinkedHashMap<>();
+		for (Map<String, Object> row : this.connection.select(
+				"SELECT type_name, field_names, field_types FROM system_schema.types WHERE keyspace_name = ?",
+				this.template)) {
+			List<?> names = (List<?>) row.get("field_names");
+			List<?> fieldTypes = (List<?>) row.get("field_types");
+			StringJoiner fields = new StringJoiner(", ", "(", ")");
+			for (int i = 0; i < names.size(); i++) {
+				fields.add(quote(names.get(i).toString()) + " " + fieldTypes.get(i));
+			}
+			types.put(getString(row, "type_name"), fields.toString());
+		}
+		// a type has to be created after the types it refers to
+		Set<String> created = new LinkedHashSet<>();
+		while (created.size() < types.size()) {
+			int size = created.size();
+			for (Map.Entry<String, String> entry : types.entrySet()) {
+				String name = entry.getKey();
+				if (!created.contains(name) && refersTo(entry.getValue(), types.keySet(), created, name)) {
+					this.connection.execute("CREATE TYPE " + quote(keyspace) + "." + quote(name) + " "
+							+ entry.getValue());
+					created.add(name);
+				}
+			}
+			if (created.size() == size) {
+				throw new IllegalStateException("Types " + types.keySet() + " have cyclic dependencies");
+			}
+		}
+	}
+
+	private void createTables(String keyspace, Collection<String> tables) {
+		Map<String, List<Map<String, Object>>> columns = new LinkedHashMap<>();
+		for (Map<String, Object> row : this.connection.select("SELECT table_name, column_name, kind, position, type, "
+				+ "clustering_order FROM system_schema.columns WHERE keyspace_name = ?", this.template)) {
+			String table = getString(row, "table_name");
+			columns.computeIfAbsent(table, name -> new ArrayList<>()).add(row);
+		}
+		Map<String, List<Map<String, Object>>> droppedColumns = new LinkedHashMap<>();
+		for (Map<String, Object> row : this.connection.select("SELECT table_name, column_name, dropped_time, type "
+				+ "FROM system_schema.dropped_columns WHERE keyspace_name = ?", this.template)) {
+			String table = getString(row, "table_name");
+			droppedColumns.computeIfAbsent(table, name -> new ArrayList<>()).add(row);
+		}
+		for (String table : tables) {
+			List<Map<String, Object>> rows = columns.getOrDefault(table, new ArrayList<>());
+			rows.sort(Comparator.comparingInt(row -> ((Number) row.get("position")).intValue()));
+			StringJoiner definition = new StringJoiner(", ", "(", ")");
+			StringJoiner partitionKey = new StringJoiner(", ", "(", ")");
+			StringJoiner clusteringKey = new StringJoiner(", ");
+			StringJoiner clusteringOrder = new StringJoiner(", ");
+			Set<String> names = new LinkedHashSet<>();
+			for (Map<String, Object> row : rows) {
+				String column = getString(row, "column_name");
+				names.add(column);
+				String name = quote(column);
+				String kind = getString(row, "kind");
+				definition.add(name + " " + getString(row, "type") + (kind.equals("static") ? " STATIC" : ""));
+				if (kind.equals("partition_key")) {
+					partitionKey.add(name);
+				}
+				else if (kind.equals("clustering")) {
+					clusteringKey.add(name);
+					String order = getString(row, "clustering_order");
+					clusteringOrder.add(name + " " + (order.equalsIgnoreCase("desc") ? "DESC" : "ASC"));
+				}
+			}
+			String primaryKey = partitionKey.toString();
+			if (clusteringKey.length() > 0) {
+				primaryKey += ", " + clusteringKey;
+			}
+			definition.add("PRIMARY KEY (" + primaryKey + ")");
+			String statement = "CREATE TABLE " + quote(keyspace) + "." + quote(table) + " " + definition;
+			if (clusteringOrder.length() > 0) {
+				statement += " WITH CLUSTERING ORDER BY (" + clusteringOrder + ")";
+			}
+			this.connection.execute(statement);
+			for (Map<String, Object> row : droppedColumns.getOrDefault(table, Collections.emptyList())) {
+				dropColumn(keyspace, table, row, names.contains(getString(row, "column_name")));
+			}
+		}
+	}
+
+	// SSTables may still hold cells of dropped columns, which are skipped only if the column is dropped at the same
+	// time in the clone
+	private void dropColumn(String keyspace, String table, Map<String, Object> row, boolean readded) {
+		String name = quote(getString(row, "column_name"));
+		String type = getString(row, "type");
+		// java.util.Date for the 3.x driver and java.time.Instant for the 4.x driver
+		Object time = row.get("dropped_time");
+		long timestamp = TimeUnit.MILLISECONDS
+				.toMicros((time instanceof Instant) ? ((Instant) time).toEpochMilli() : ((Date) time).getTime());
+		String alter = "ALTER TABLE " + quote(keyspace) + "." + quote(table);
+		String drop = alter + " DROP " + name + " USING TIMESTAMP " + timestamp;
+		String add = alter + " ADD " + name + " " + type;
+		if (readded) {
+			this.connection.execute(drop);
+			this.connection.execute(add);
+		}
+		else {
+			this.connection.execute(add);
+			this.connection.execute(drop);
+		}
+	}
+
+	private Map<String, String> getTableIds(String keyspace) {
+		Map<String, String> tables = new LinkedHashMap<>();
+		for (Map<String, Object> row : this.connection.select(
+				"SELECT table_name, id FROM system_schema.tables WHERE keyspace_name = ?", keyspace)) {
+			tables.put(getString(row, "table_name"), row.get("id").toString().replace("-", ""));
+		}
+		return tables;
+	}
+
+	private static void loadSSTables(MBeanServerConnection mbeans, String keyspace, String table)
+			throws IOException, JMException {
+		ObjectName tables = new ObjectName(
+				"org.apache.cassandra.db:type=Tables,keyspace=" + keyspace + ",table=" + table);
+		// StorageService.loadNewSSTables is deprecated since 4.0 in favour of importNewSSTables of the table
+		if (mbeans.isRegistered(tables) && hasImportNewSSTables(mbeans, tables)) {
+			String[] signature = {Set.class.getName(), "boolean", "boolean", "boolean", "boolean", "boolean",
+					"boolean"};
+			// srcPaths, resetLevel, clearRepaired, verifySSTables, verifyTokens, invalidateCaches, extendedVerify
+			Object failed = mbeans.invoke(tables, "importNewSSTables",
+					new Object[]{Collections.emptySet(), true, true, true, true, true, false}, signature);
+			if (failed instanceof Collection && !((Collection<?>) failed).isEmpty()) {
+				throw new IllegalStateException("SSTables of '" + keyspace + "." + table + "' cannot be imported from "
+						+ failed);
+			}
+		}
+		else {
+			mbeans.invoke(new ObjectName(STORAGE_SERVICE), "loadNewSSTables", new Object[]{keyspace, table},
+					new String[]{String.class.getName(), String.class.getName()});
+		}
+	}
+
+	private static boolean hasImportNewSSTables(MBeanServerConnection mbeans, ObjectName tables)
+			throws IOException, JMException {
+		for (MBeanOperationInfo operation : mbeans.getMBeanInfo(tables).getOperations()) {
+			if (operation.getName().equals("importNewSSTables") && operation.getSignature().length == 7) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private <T> T execute(JmxCallback<T> callback) {
+		int port = this.cassandra.getJmxPort();
+		if (port == -1) {
+			throw new IllegalStateException(this.cassandra + " is not running");
+		}
+		String host = InetAddress.getLoopbackAddress().getHostAddress();
+		try {
+			JMXServiceURL url = new JMXServiceURL(
+					String.format("service:jmx:rmi:///jndi/rmi://%s:%d/jmxrmi", host, port));
+			try (JMXConnector connector = JMXConnectorFactory.connect(url)) {
+				return callback.call(connector.getMBeanServerConnection());
+			}
+		}
+		catch (IOException | JMException ex) {
+			throw new CassandraException("Keyspace '" + this.template + "' cannot be cloned", ex);
+		}
+	}
+
+	private static void linkSSTables(Path source, Path target) throws IOException {
+		Files.createDirectories(target);
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(source)) {
+			for (Path file : stream) {
+				String name = file.getFileName().toString();
+				// the manifest and the schema of a snapshot are not part of SSTables
+				if (Files.isRegularFile(file) && !name.equals("manifest.json") && !name.equals("schema.cql")) {
+					FileUtils.link(file, target.resolve(name), null);
+				}
+			}
+		}
+	}
+
+	private static boolean refersTo(String fields, Set<String> types, Set<String> created, String name) {
+		for (String type : types) {
+			Pattern pattern = Pattern.compile("\\b" + Pattern.quote(type) + "\\b");
+			if (!type.equals(name) && !created.contains(type) && pattern.matcher(fields).find()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static String getString(Map<String, Object> row, String column) {
+		Object value = row.get(column);
+		if (value == null) {
+			throw new IllegalStateException("Column '" + column + "' of row " + row + " is null");
+		}
+		return value.toString();
+	}
+
+	private static String quote(String name) {
+		return "\"" + name.replace("\"", "\"\"") + "\"";
+	}
+
+	private interface JmxCallback<T> {
+
+		T call(MBeanServerConnection mbeans) throws IOException, JMException;
+
+	}
+
+}
@@ -19,6 +19,7 @@ package com.github.nosan.embedded.cassandra;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -46,6 +47,8 @@ class NativeTransportReadinessConsumer implements ReadinessConsumer {
 
 	private static final String ENCRYPTED = "(encrypted)";
 
+	private final CompletableFuture<Readiness> ready = new CompletableFuture<>();
+
 	private final Version version;
 
 	@Nullable
@@ -62,6 +65,9 @@ class NativeTransportReadinessConsumer implements ReadinessConsumer {
 
 	NativeTransportReadinessConsumer(Version version) {
 		this.version = version;
+		if (this.version.getMajor() < 2) {
+			this.ready.complete(this);
+		}
 	}
 
 	@Override
@@ -77,9 +83,11 @@ class NativeTransportReadinessConsumer implements ReadinessConsumer {
 				this.port = Integer.parseInt(matcher.group(2));
 			}
 			this.started = true;
+			this.ready.complete(this);
 		}
 		else if (TRANSPORT_NOT_START_PATTERN.matcher(line).matches()) {
 			this.started = false;
+			this.ready.complete(this);
 		}
 	}
 
@@ -88,6 +96,11 @@ class NativeTransportReadinessConsumer implements ReadinessConsumer {
 		return this.version.getMajor() < 2 || this.started != null;
 	}
 
+	@Override
+	public CompletableFuture<? extends Readiness> onReady() {
+		return this.ready;
+	}
+
 	/**
 	 * Returns the native transport address ({@code rpc_address}) this {@code Cassandra} is listening on.
 	 *
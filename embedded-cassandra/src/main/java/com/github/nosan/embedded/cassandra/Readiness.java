@@ -16,6 +16,8 @@
 
 package com.github.nosan.embedded.cassandra;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Strategy interface that indicates that {@code Cassandra} is ready to accept connections.
  *
@@ -30,4 +32,11 @@ interface Readiness {
 	 */
 	boolean isReady();
 
+	/**
+	 * Returns a {@link CompletableFuture} that is completed as soon as Cassandra is ready to accept connections.
+	 *
+	 * @return a {@code CompletableFuture} for the readiness
+	 */
+	CompletableFuture<? extends Readiness> onReady();
+
 }
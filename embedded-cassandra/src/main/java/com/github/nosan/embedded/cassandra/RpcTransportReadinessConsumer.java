@@ -18,6 +18,7 @@ package com.github.nosan.embedded.cassandra;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -43,6 +44,8 @@ class RpcTransportReadinessConsumer implements ReadinessConsumer {
 	private static final Pattern RPC_TRANSPORT_NOT_START_PATTERN = Pattern.compile(
 			"(?i).*not\\s*starting\\s*rpc\\s*server.*");
 
+	private final CompletableFuture<Readiness> ready = new CompletableFuture<>();
+
 	private final Version version;
 
 	@Nullable
@@ -56,6 +59,9 @@ class RpcTransportReadinessConsumer implements ReadinessConsumer {
 
 	RpcTransportReadinessConsumer(Version version) {
 		this.version = version;
+		if (this.version.getMajor() >= 4) {
+			this.ready.complete(this);
+		}
 	}
 
 	@Override
@@ -65,9 +71,11 @@ class RpcTransportReadinessConsumer implements ReadinessConsumer {
 			this.address = getAddress(matcher.group(1));
 			this.rpcPort = Integer.parseInt(matcher.group(2));
 			this.started = true;
+			this.ready.complete(this);
 		}
 		else if (RPC_TRANSPORT_NOT_START_PATTERN.matcher(line).matches()) {
 			this.started = false;
+			this.ready.complete(this);
 		}
 	}
 
@@ -76,6 +84,11 @@ class RpcTransportReadinessConsumer implements ReadinessConsumer {
 		return this.version.getMajor() >= 4 || this.started != null;
 	}
 
+	@Override
+	public CompletableFuture<? extends Readiness> onReady() {
+		return this.ready;
+	}
+
 	/**
 	 * Returns the native transport address ({@code rpc_address}) this {@code Cassandra} is listening on.
 	 *
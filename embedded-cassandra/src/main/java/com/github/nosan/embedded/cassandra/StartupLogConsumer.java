@@ -0,0 +1,116 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.github.nosan.embedded.cassandra.StartupReport.Phase;
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+
+/**
+ * This class used to parse Cassandra's output to record {@link Phase#FIRST_LOG_LINE}, {@link Phase#GOSSIP_SETTLE} and
+ * {@link Phase#TRANSPORT_READINESS} phases.
+ *
+ * @author Dmytro Nosan
+ */
+class StartupLogConsumer implements Consumer<String> {
+
+	private static final Pattern TIMESTAMP_PATTERN = Pattern.compile(
+			"(\\d{4}-\\d{2}-\\d{2}[\\sT]\\d{2}:\\d{2}:\\d{2}[,.]\\d{3})");
+
+	private static final Pattern GOSSIP_START_PATTERN = Pattern.compile(
+			"(?i).*waiting\\s*for\\s*gossip\\s*to\\s*settle.*");
+
+	private static final Pattern GOSSIP_END_PATTERN = Pattern.compile(
+			"(?i).*((no\\s*gossip\\s*backlog)|(gossip\\s*settled\\s*after)).*");
+
+	private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss,SSS");
+
+	private final StartupRecorder recorder;
+
+	private final long spawnNanos;
+
+	private boolean firstLine = true;
+
+	@Nullable
+	private LocalDateTime firstTimestamp;
+
+	@Nullable
+	private LocalDateTime lastTimestamp;
+
+	@Nullable
+	private LocalDateTime gossipTimestamp;
+
+	StartupLogConsumer(StartupRecorder recorder, long spawnNanos) {
+		this.recorder = recorder;
+		this.spawnNanos = spawnNanos;
+	}
+
+	@Override
+	public synchronized void accept(String line) {
+		if (this.firstLine) {
+			this.firstLine = false;
+			this.recorder.record(Phase.FIRST_LOG_LINE, this.spawnNanos);
+		}
+		LocalDateTime timestamp = getTimestamp(line);
+		if (timestamp == null) {
+			return;
+		}
+		if (this.firstTimestamp == null) {
+			this.firstTimestamp = timestamp;
+		}
+		this.lastTimestamp = timestamp;
+		if (GOSSIP_START_PATTERN.matcher(line).matches()) {
+			this.gossipTimestamp = timestamp;
+		}
+		else if (this.gossipTimestamp != null && GOSSIP_END_PATTERN.matcher(line).matches()) {
+			this.recorder.record(Phase.GOSSIP_SETTLE, Duration.between(this.gossipTimestamp, timestamp));
+			this.gossipTimestamp = null;
+		}
+	}
+
+	/**
+	 * Records the {@link Phase#TRANSPORT_READINESS} phase. Should be invoked once the transports are ready.
+	 */
+	synchronized void ready() {
+		if (this.firstTimestamp != null && this.lastTimestamp != null) {
+			this.recorder.record(Phase.TRANSPORT_READINESS, Duration.between(this.firstTimestamp, this.lastTimestamp));
+		}
+	}
+
+	@Nullable
+	private static LocalDateTime getTimestamp(String line) {
+		Matcher matcher = TIMESTAMP_PATTERN.matcher(line);
+		if (!matcher.find()) {
+			return null;
+		}
+		String timestamp = matcher.group(1).replace('T', ' ').replace('.', ',');
+		try {
+			return LocalDateTime.parse(timestamp, FORMATTER);
+		}
+		catch (DateTimeParseException ex) {
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.util.Map;
+
+import com.github.nosan.embedded.cassandra.api.Version;
+
+/**
+ * Predefined sets of {@code Cassandra's} properties that affect the startup time. Profile properties never override
+ * the properties that have been set explicitly, either as properties or in the Cassandra's config file.
+ *
+ * @author Dmytro Nosan
+ * @since 3.1.0
+ * @see EmbeddedCassandraFactory#setStartupProfile(StartupProfile)
+ */
+public enum StartupProfile {
+
+	/**
+	 * Cassandra is started with its own defaults.
+	 */
+	DEFAULT {
+		@Override
+		void configure(Version version, Map<String, Object> config, Map<String, Object> systemProperties,
+				Map<String, Object> configProperties) {
+		}
+	},
+
+	/**
+	 * Cassandra is tuned to boot a single node as fast as possible: gossip settle and ring delays are skipped, the
+	 * ring state is not loaded, a single token is used, hinted handoff and auto snapshots (taken on {@code TRUNCATE}
+	 * and {@code DROP}) are disabled and the superuser is set up immediately. Properties are chosen according to the
+	 * Cassandra's version.
+	 */
+	FAST_BOOT {
+		@Override
+		void configure(Version version, Map<String, Object> config, Map<String, Object> systemProperties,
+				Map<String, Object> configProperties) {
+			systemProperties.putIfAbsent("cassandra.skip_wait_for_gossip_to_settle", 0);
+			systemProperties.putIfAbsent("cassandra.ring_delay_ms", 1000);
+			systemProperties.putIfAbsent("cassandra.load_ring_state", false);
+			if (version.compareTo(Version.of("2.2")) >= 0) {
+				systemProperties.putIfAbsent("cassandra.superuser_setup_delay_ms", 0);
+			}
+			if (version.getMajor() >= 4) {
+				systemProperties.putIfAbsent("cassandra.skip_schema_check", true);
+			}
+			// the tokens of existing data cannot be changed, hence both are only set if neither has been set
+			if (!isSet("num_tokens", config, configProperties) && !isSet("initial_token", config, configProperties)) {
+				configProperties.put("num_tokens", 1);
+				configProperties.put("initial_token", 0);
+			}
+			putIfAbsent("hinted_handoff_enabled", false, config, configProperties);
+			putIfAbsent("auto_bootstrap", false, config, configProperties);
+			putIfAbsent("auto_snapshot", false, config, configProperties);
+		}
+	};
+
+	/**
+	 * Applies this profile to the given properties.
+	 *
+	 * @param version Cassandra's version
+	 * @param config properties of the Cassandra's config file that has been set explicitly (empty if none)
+	 * @param systemProperties Cassandra's system properties
+	 * @param configProperties Cassandra's config properties
+	 */
+	abstract void configure(Version version, Map<String, Object> config, Map<String, Object> systemProperties,
+			Map<String, Object> configProperties);
+
+	private static boolean isSet(String name, Map<String, Object> config, Map<String, Object> configProperties) {
+		return config.containsKey(name) || configProperties.containsKey(name);
+	}
+
+	private static void putIfAbsent(String name, Object value, Map<String, Object> config,
+			Map<String, Object> configProperties) {
+		if (!isSet(name, config, configProperties)) {
+			configProperties.put(name, value);
+		}
+	}
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.github.nosan.embedded.cassandra.StartupReport.Phase;
+
+/**
+ * Records the durations of the {@code Cassandra's} startup {@link Phase phases}. If a phase is recorded several times
+ * (e.g. {@code Cassandra} has been restarted during a single start), the durations are summed.
+ *
+ * @author Dmytro Nosan
+ */
+class StartupRecorder {
+
+	private final Map<Phase, Duration> durations = new EnumMap<>(Phase.class);
+
+	/**
+	 * Records the time elapsed since the given {@link System#nanoTime()} value.
+	 *
+	 * @param phase the phase
+	 * @param startNanos the start time in nanoseconds
+	 */
+	void record(Phase phase, long startNanos) {
+		record(phase, Duration.ofNanos(System.nanoTime() - startNanos));
+	}
+
+	/**
+	 * Records the given duration.
+	 *
+	 * @param phase the phase
+	 * @param duration the duration
+	 */
+	synchronized void record(Phase phase, Duration duration) {
+		if (!duration.isNegative()) {
+			this.durations.merge(phase, duration, Duration::plus);
+		}
+	}
+
+	/**
+	 * Removes all recorded durations except {@link Phase#ARTIFACT_RESOLUTION}, which is recorded only once.
+	 */
+	synchronized void reset() {
+		this.durations.keySet().removeIf(phase -> phase != Phase.ARTIFACT_RESOLUTION);
+	}
+
+	/**
+	 * Creates a {@link StartupReport} from the recorded durations.
+	 *
+	 * @return a new report
+	 */
+	synchronized StartupReport report() {
+		return new StartupReport(this.durations);
+	}
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+
+/**
+ * A report that contains the durations of the {@code Cassandra's} startup phases. Only the phases that took place are
+ * recorded. The report is published to the {@link EmbeddedCassandraFactory#setStartupListener startup listener} every
+ * time {@code Cassandra} has been started.
+ *
+ * @author Dmytro Nosan
+ * @since 3.1.0
+ */
+public final class StartupReport {
+
+	private final Map<Phase, Duration> durations;
+
+	/**
+	 * Constructs a new {@link StartupReport} with the specified durations.
+	 *
+	 * @param durations the durations of the startup phases
+	 */
+	public StartupReport(Map<Phase, Duration> durations) {
+		Objects.requireNonNull(durations, "'durations' must not be null");
+		Map<Phase, Duration> copy = new EnumMap<>(Phase.class);
+		copy.putAll(durations);
+		this.durations = Collections.unmodifiableMap(copy);
+	}
+
+	/**
+	 * Returns the durations of the recorded startup phases ordered by the {@link Phase}.
+	 *
+	 * @return the durations
+	 */
+	public Map<Phase, Duration> getDurations() {
+		return this.durations;
+	}
+
+	/**
+	 * Returns the duration of the given phase.
+	 *
+	 * @param phase the phase
+	 * @return the duration (or null if the phase has not been recorded)
+	 */
+	@Nullable
+	public Duration getDuration(Phase phase) {
+		Objects.requireNonNull(phase, "'phase' must not be null");
+		return this.durations.get(phase);
+	}
+
+	@Override
+	public boolean equals(@Nullable Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (other == null || getClass() != other.getClass()) {
+			return false;
+		}
+		StartupReport that = (StartupReport) other;
+		return this.durations.equals(that.durations);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.durations.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		StringJoiner joiner = new StringJoiner(", ", StartupReport.class.getSimpleName() + "[", "]");
+		this.durations.forEach((phase, duration) -> joiner.add(phase + "=" + duration.toMillis() + "ms"));
+		return joiner.toString();
+	}
+
+	/**
+	 * {@code Cassandra's} startup phases.
+	 */
+	public enum Phase {
+
+		/**
+		 * Resolution of the {@code Cassandra's} distribution ({@code Artifact.getDistribution()}). This phase is
+		 * recorded only once, when {@code Cassandra} is created.
+		 */
+		ARTIFACT_RESOLUTION,
+
+		/**
+		 * Initialization of the working directory.
+		 */
+		WORKING_DIRECTORY,
+
+		/**
+		 * Loading and dumping of the {@code cassandra.yaml}.
+		 */
+		CONFIGURATION,
+
+		/**
+		 * Spawning of the {@code Cassandra's} process.
+		 */
+		PROCESS_SPAWN,
+
+		/**
+		 * Time between the process spawn and the first line in the {@code Cassandra's} output.
+		 */
+		FIRST_LOG_LINE,
+
+		/**
+		 * Gossip settle, parsed from the {@code Cassandra's} log timestamps.
+		 */
+		GOSSIP_SETTLE,
+
+		/**
+		 * Time between the first log line and the moment the native and RPC transports are ready, parsed from the
+		 * {@code Cassandra's} log timestamps.
+		 */
+		TRANSPORT_READINESS
+
+	}
+
+}
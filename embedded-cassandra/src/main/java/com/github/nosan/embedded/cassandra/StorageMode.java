@@ -0,0 +1,41 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+/**
+ * Defines where {@code Cassandra's} data ({@code data_file_directories}, {@code commitlog_directory}, {@code
+ * hints_directory}, {@code saved_caches_directory} and {@code cdc_raw_directory}) is stored.
+ *
+ * @author Dmytro Nosan
+ * @since 3.1.0
+ * @see EmbeddedCassandraFactory#setStorageMode(StorageMode)
+ */
+public enum StorageMode {
+
+	/**
+	 * Data is stored in the working directory.
+	 */
+	DISK,
+
+	/**
+	 * Data is stored in a RAM-backed file system ({@code tmpfs}), e.g. {@code /dev/shm}.
+	 *
+	 * @see EmbeddedCassandraFactory#setMemoryDirectory(java.nio.file.Path)
+	 */
+	MEMORY
+
+}
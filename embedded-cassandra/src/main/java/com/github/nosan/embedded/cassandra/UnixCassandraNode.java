@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
 import com.github.nosan.embedded.cassandra.api.Version;
 
 /**
@@ -40,8 +41,10 @@ class UnixCassandraNode extends AbstractCassandraNode {
 
 	UnixCassandraNode(Version version, Path workingDirectory, List<String> jvmOptions,
 			Map<String, Object> systemProperties,
-			Map<String, Object> environmentVariables, Map<String, Object> properties, boolean rootAllowed) {
-		super(workingDirectory, properties, jvmOptions, systemProperties, environmentVariables);
+			Map<String, Object> environmentVariables, Map<String, Object> properties, boolean rootAllowed,
+			@Nullable ClassDataSharing classDataSharing, StartupRecorder recorder) {
+		super(workingDirectory, properties, jvmOptions, systemProperties, environmentVariables, classDataSharing,
+				recorder);
 		this.version = version;
 		this.workingDirectory = workingDirectory;
 		this.rootAllowed = rootAllowed;
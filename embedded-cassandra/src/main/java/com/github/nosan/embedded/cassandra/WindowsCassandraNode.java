@@ -44,8 +44,10 @@ class WindowsCassandraNode extends AbstractCassandraNode {
 
 	WindowsCassandraNode(Version version, Path workingDirectory, List<String> jvmOptions,
 			Map<String, Object> systemProperties,
-			Map<String, Object> environmentVariables, Map<String, Object> properties) {
-		super(workingDirectory, properties, jvmOptions, systemProperties, environmentVariables);
+			Map<String, Object> environmentVariables, Map<String, Object> properties,
+			@Nullable ClassDataSharing classDataSharing, StartupRecorder recorder) {
+		super(workingDirectory, properties, jvmOptions, systemProperties, environmentVariables, classDataSharing,
+				recorder);
 		this.version = version;
 		this.workingDirectory = workingDirectory;
 	}
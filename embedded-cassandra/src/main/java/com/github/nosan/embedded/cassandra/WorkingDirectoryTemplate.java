@@ -0,0 +1,122 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.commons.util.FileUtils;
+
+/**
+ * A pristine, fully prepared working directory shared between {@code Cassandra} instances with the same fingerprint.
+ * The template is prepared once into a temporary directory and then atomically moved into its final location, hence
+ * a template that exists is always complete. New working directories are cloned from the template with hard links,
+ * except the {@code conf} directory that is copied, as it is patched per instance.
+ *
+ * @author Dmytro Nosan
+ */
+class WorkingDirectoryTemplate {
+
+	private static final Logger log = LoggerFactory.getLogger(WorkingDirectoryTemplate.class);
+
+	private static final String CONF = "conf";
+
+	private final Path directory;
+
+	WorkingDirectoryTemplate(Path directory, String key) {
+		this.directory = directory.resolve(key);
+	}
+
+	/**
+	 * Returns the directory of this template.
+	 *
+	 * @return the directory
+	 */
+	Path getDirectory() {
+		return this.directory;
+	}
+
+	/**
+	 * Clones this template into the given working directory. The template is prepared with the given {@code
+	 * preparer} if it does not exist yet.
+	 *
+	 * @param workingDirectory the working directory
+	 * @param parallelism the parallelism level used to copy the {@code conf} directory
+	 * @param preparer the callback used to prepare the template
+	 * @throws IOException in the case of I/O errors
+	 */
+	void cloneInto(Path workingDirectory, int parallelism, Preparer preparer) throws IOException {
+		if (!Files.isDirectory(this.directory)) {
+			prepare(preparer);
+		}
+		Path conf = this.directory.resolve(CONF);
+		FileUtils.link(this.directory, workingDirectory, (path, attributes) -> !path.equals(conf));
+		if (Files.isDirectory(conf)) {
+			FileUtils.copy(conf, workingDirectory.resolve(CONF), null, parallelism);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", WorkingDirectoryTemplate.class.getSimpleName() + "[", "]")
+				.add("directory=" + this.directory).toString();
+	}
+
+	private void prepare(Preparer preparer) throws IOException {
+		Files.createDirectories(this.directory.getParent());
+		Path tmp = this.directory.resolveSibling(this.directory.getFileName() + "-" + UUID.randomUUID() + ".tmp");
+		try {
+			Files.createDirectories(tmp);
+			preparer.prepare(tmp);
+			Files.move(tmp, this.directory, StandardCopyOption.ATOMIC_MOVE);
+			log.info("Working directory template '{}' has been created", this.directory);
+		}
+		catch (IOException ex) {
+			if (!Files.isDirectory(this.directory)) {
+				throw ex;
+			}
+			// prepared concurrently by another instance
+		}
+		finally {
+			FileUtils.delete(tmp);
+		}
+	}
+
+	/**
+	 * Callback interface used to prepare a template directory.
+	 */
+	@FunctionalInterface
+	interface Preparer {
+
+		/**
+		 * Prepares the given directory.
+		 *
+		 * @param directory the directory to prepare
+		 * @throws IOException in the case of I/O errors
+		 */
+		void prepare(Path directory) throws IOException;
+
+	}
+
+}
@@ -23,7 +23,9 @@ import java.nio.file.Paths;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
+import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,11 +34,11 @@ import com.github.nosan.embedded.cassandra.api.Version;
 import com.github.nosan.embedded.cassandra.commons.FileLock;
 import com.github.nosan.embedded.cassandra.commons.io.ArchiveResource;
 import com.github.nosan.embedded.cassandra.commons.io.Resource;
-import com.github.nosan.embedded.cassandra.commons.util.FileUtils;
 
 /**
  * An {@link Artifact} that provides a {@link Distribution} based on the specified archive resource and Cassandra's
- * version. Archive will be extracted only once into the {@code destination}.
+ * version. Archive will be extracted only once into the {@code destination}, and the extracted files are recorded in
+ * a manifest that is used to validate the cached distribution.
  *
  * @author Dmytro Nosan
  * @since 3.0.0
@@ -52,6 +54,13 @@ public final class ArchiveArtifact implements Artifact {
 	@Nullable
 	private Path destination;
 
+	@Nullable
+	private ArtifactStore store;
+
+	private Predicate<? super ArchiveEntry> entryFilter = ArchiveEntryFilters.all();
+
+	private int extractParallelism = Runtime.getRuntime().availableProcessors();
+
 	/**
 	 * Constructs a new {@link ArchiveArtifact} with the specified archive resource and Cassandra's version.
 	 *
@@ -114,31 +123,112 @@ public final class ArchiveArtifact implements Artifact {
 		this.destination = destination;
 	}
 
+	/**
+	 * Returns the store that deduplicates the extracted files. Defaults to {@code null}.
+	 *
+	 * @return the store, or {@code null}
+	 * @since 3.1.0
+	 */
+	@Nullable
+	public ArtifactStore getStore() {
+		return this.store;
+	}
+
+	/**
+	 * Sets the store that deduplicates the extracted files. Identical files of different distributions are hard-linked
+	 * to the same stored object, and the least recently used distributions are evicted once the store exceeds its
+	 * maximum size. A distribution that has been resolved by a running JVM is not evicted.
+	 *
+	 * @param store the store, or {@code null} to disable deduplication
+	 * @since 3.1.0
+	 */
+	public void setStore(@Nullable ArtifactStore store) {
+		this.store = store;
+	}
+
+	/**
+	 * Returns the filter used to select the archive entries to extract. Defaults to {@link ArchiveEntryFilters#all()}.
+	 *
+	 * @return the filter
+	 * @since 3.1.0
+	 */
+	public Predicate<? super ArchiveEntry> getEntryFilter() {
+		return this.entryFilter;
+	}
+
+	/**
+	 * Sets the filter used to select the archive entries to extract. Entries that do not match are never written to
+	 * disk. Distributions extracted with different filters are kept in different directories. Note that {@code
+	 * cqlsh}, {@code cassandra-stress} and the {@code sstable} tools are not available if their directories are
+	 * skipped.
+	 *
+	 * @param entryFilter the filter, e.g. {@link ArchiveEntryFilters#runtimeOnly()} to extract only the entries
+	 * required to run Cassandra
+	 * @since 3.1.0
+	 */
+	public void setEntryFilter(Predicate<? super ArchiveEntry> entryFilter) {
+		this.entryFilter = Objects.requireNonNull(entryFilter, "'entryFilter' must not be null");
+	}
+
+	/**
+	 * Maximum number of threads used to extract an archive file. Defaults to the number of available processors.
+	 *
+	 * @return the parallelism level
+	 * @since 3.1.0
+	 */
+	public int getExtractParallelism() {
+		return this.extractParallelism;
+	}
+
+	/**
+	 * Sets the maximum number of threads used to extract an archive file. {@code 1} means a single-threaded
+	 * extraction.
+	 *
+	 * @param extractParallelism the parallelism level
+	 * @see ArchiveResource#extract(Path, int, Predicate)
+	 * @since 3.1.0
+	 */
+	public void setExtractParallelism(int extractParallelism) {
+		if (extractParallelism < 1) {
+			throw new IllegalArgumentException("'extractParallelism' must be greater than 0");
+		}
+		this.extractParallelism = extractParallelism;
+	}
+
 	@Override
 	public Distribution getDistribution() throws IOException {
 		Path destination = getRealDestination();
 
 		Artifact artifact = new DefaultArtifact(this.version, destination);
 
-		if (!Files.exists(destination.resolve(".extracted"))) {
+		if (this.store != null) {
+			Files.createDirectories(destination);
+			this.store.lease(destination);
+		}
+		if (!DistributionManifest.isValid(destination)) {
 			Files.createDirectories(destination);
 			Path lockFile = destination.resolve(".lock");
 			try (FileLock fileLock = FileLock.of(lockFile)) {
 				if (!fileLock.tryLock(30, TimeUnit.SECONDS)) {
 					throw new IllegalStateException("File lock cannot be acquired for a file '" + lockFile + "'");
 				}
-				if (!Files.exists(destination.resolve(".extracted"))) {
+				if (!DistributionManifest.isValid(destination)) {
+					DistributionManifest.reset(destination);
 					log.info("Extracts '{}' into '{}' directory", this.archiveResource, destination);
 					ArchiveResource archiveResource = createArchiveResource();
-					archiveResource.extract(destination);
+					archiveResource.extract(destination, this.extractParallelism, this.entryFilter);
 					Distribution distribution = artifact.getDistribution();
-					FileUtils.createIfNotExists(destination.resolve(".extracted"));
-					return distribution;
+					DistributionManifest.complete(destination, distribution.getDirectory(), null, this.store);
+					return DistributionManifest.withDigest(distribution, destination);
 				}
 			}
 		}
 
-		return artifact.getDistribution();
+		Distribution distribution = DistributionManifest.withDigest(artifact.getDistribution(), destination);
+		if (this.store != null) {
+			this.store.touch(destination);
+		}
+		return distribution;
 	}
 
 	private ArchiveResource createArchiveResource() {
@@ -156,7 +246,8 @@ public final class ArchiveArtifact implements Artifact {
 		if (destination == null) {
 			throw new IllegalStateException("'destination' must not be null");
 		}
-		return destination.resolve(".embedded-cassandra/artifact/local/" + this.version);
+		return destination.resolve(".embedded-cassandra/artifact/local/" + this.version
+				+ ArchiveEntryFilters.getDestinationSuffix(this.entryFilter));
 	}
 
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.apache.commons.compress.archivers.ArchiveEntry;
+
+/**
+ * Factory methods for filters used to select the entries that are extracted from Cassandra's archive. Each filter
+ * extracts into its own destination directory, which is derived from {@link Object#toString()} of the filter. The
+ * filters returned by this class have a stable {@code toString()}, custom filters should return a stable identifier as
+ * well, otherwise the archive is extracted again by every JVM.
+ *
+ * @author Dmytro Nosan
+ * @see RemoteArtifact#setEntryFilter(Predicate)
+ * @see ArchiveArtifact#setEntryFilter(Predicate)
+ * @since 3.1.0
+ */
+public final class ArchiveEntryFilters {
+
+	private static final String[] RUNTIME_EXCLUDED_DIRECTORIES = {"doc", "javadoc", "pylib", "tools"};
+
+	private static final Predicate<ArchiveEntry> ALL = new NamedFilter("all", entry -> true);
+
+	private ArchiveEntryFilters() {
+	}
+
+	/**
+	 * Returns a filter that accepts all entries.
+	 *
+	 * @return the filter
+	 */
+	public static Predicate<ArchiveEntry> all() {
+		return ALL;
+	}
+
+	/**
+	 * Returns a filter that accepts only entries required to run Cassandra. Entries under the {@code doc},
+	 * {@code javadoc}, {@code pylib} and {@code tools} directories of Cassandra's home are skipped.
+	 *
+	 * @return the filter
+	 */
+	public static Predicate<ArchiveEntry> runtimeOnly() {
+		return excludeDirectories(RUNTIME_EXCLUDED_DIRECTORIES);
+	}
+
+	/**
+	 * Returns a filter that skips entries under the given directories of Cassandra's home. Cassandra's home is the
+	 * top-level directory of the archive, e.g. {@code apache-cassandra-4.0/doc} is skipped for the {@code doc}
+	 * directory.
+	 *
+	 * @param directories the names of the directories to skip
+	 * @return the filter
+	 */
+	public static Predicate<ArchiveEntry> excludeDirectories(String... directories) {
+		Objects.requireNonNull(directories, "'directories' must not be null");
+		Set<String> names = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(directories)));
+		return new NamedFilter("exclude-directories" + names, entry -> {
+			String[] segments = entry.getName().replace('\\', '/').split("/");
+			int start = (segments.length > 0 && (segments[0].equals(".") || segments[0].isEmpty())) ? 1 : 0;
+			return segments.length - start < 2 || !names.contains(segments[start + 1]);
+		});
+	}
+
+	/**
+	 * Returns the suffix of the destination directory the archive is extracted into with the given filter. The whole
+	 * archive is extracted into the destination directory itself.
+	 *
+	 * @param filter the filter
+	 * @return the suffix, or an empty string for {@link #all()}
+	 */
+	static String getDestinationSuffix(Predicate<?> filter) {
+		if (filter == ALL) {
+			return "";
+		}
+		return "-" + ArtifactStore.sha256(filter.toString()).substring(0, 8);
+	}
+
+	private static final class NamedFilter implements Predicate<ArchiveEntry> {
+
+		private final String name;
+
+		private final Predicate<ArchiveEntry> delegate;
+
+		NamedFilter(String name, Predicate<ArchiveEntry> delegate) {
+			this.name = name;
+			this.delegate = delegate;
+		}
+
+		@Override
+		public boolean test(ArchiveEntry entry) {
+			return this.delegate.test(entry);
+		}
+
+		@Override
+		public String toString() {
+			return this.name;
+		}
+
+	}
+
+}
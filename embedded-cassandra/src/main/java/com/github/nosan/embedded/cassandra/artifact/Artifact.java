@@ -19,6 +19,7 @@ package com.github.nosan.embedded.cassandra.artifact;
 import java.io.IOException;
 import java.nio.file.Path;
 
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
 import com.github.nosan.embedded.cassandra.api.Version;
 
 /**
@@ -82,6 +83,18 @@ public interface Artifact {
 		 */
 		Version getVersion();
 
+		/**
+		 * Returns a digest of the contents of Cassandra's directory, if known. Distributions with the same digest
+		 * have the same files.
+		 *
+		 * @return the digest, or {@code null}
+		 * @since 3.1.0
+		 */
+		@Nullable
+		default String getDigest() {
+			return null;
+		}
+
 	}
 
 }
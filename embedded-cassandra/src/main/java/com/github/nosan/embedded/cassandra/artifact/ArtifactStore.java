@@ -0,0 +1,455 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLockInterruptionException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.commons.FileLock;
+import com.github.nosan.embedded.cassandra.commons.util.FileUtils;
+import com.github.nosan.embedded.cassandra.commons.util.StringUtils;
+
+/**
+ * Content-addressable store shared by the extracted distributions of {@link RemoteArtifact} and {@link
+ * ArchiveArtifact}. Files with the same {@code SHA-256} digest are kept once in the store and hard-linked into every
+ * distribution, so identical jars of different versions share both disk space and page cache. The store also keeps a
+ * last-use stamp of every registered distribution and, once the stored objects exceed {@link #getMaxSize() the maximum
+ * size}, evicts the least recently used distributions.
+ * <pre>
+ * ArtifactStore store = new ArtifactStore(Paths.get(System.getProperty("user.home"), ".embedded-cassandra/store"));
+ * store.setMaxSize(1024 * 1024 * 1024);
+ * RemoteArtifact artifact = new RemoteArtifact(Version.of("3.11.6"));
+ * artifact.setStore(store);
+ * </pre>
+ * The store must be located on the same file store as the distributions, otherwise files are not deduplicated. All
+ * changes are made under a {@link FileLock}, hence the store can be shared between JVMs. A distribution resolved by a
+ * JVM holds a shared lock on its {@code .in-use} file until that JVM exits and is never evicted meanwhile. Eviction
+ * removes only the files recorded in the manifest of a distribution, other files in its destination are kept.
+ *
+ * @author Dmytro Nosan
+ * @since 3.1.0
+ */
+public final class ArtifactStore {
+
+	private static final Logger log = LoggerFactory.getLogger(ArtifactStore.class);
+
+	private static final String IN_USE = ".in-use";
+
+	private static final Map<Path, java.nio.channels.FileLock> LEASES = new ConcurrentHashMap<>();
+
+	private final Path directory;
+
+	private long maxSize = Long.MAX_VALUE;
+
+	/**
+	 * Constructs a new {@link ArtifactStore} located in the given directory.
+	 *
+	 * @param directory the directory of the store
+	 */
+	public ArtifactStore(Path directory) {
+		this.directory = Objects.requireNonNull(directory, "'directory' must not be null");
+	}
+
+	/**
+	 * Returns the directory of the store.
+	 *
+	 * @return the directory
+	 */
+	public Path getDirectory() {
+		return this.directory;
+	}
+
+	/**
+	 * Maximum size of the stored objects in bytes. Defaults to {@link Long#MAX_VALUE}.
+	 *
+	 * @return the maximum size
+	 */
+	public long getMaxSize() {
+		return this.maxSize;
+	}
+
+	/**
+	 * Sets the maximum size of the stored objects in bytes. Once it is exceeded, the least recently used distributions
+	 * are evicted. The most recently registered distribution is never evicted.
+	 *
+	 * @param maxSize the maximum size
+	 */
+	public void setMaxSize(long maxSize) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("'maxSize' must be greater than 0");
+		}
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Returns the total size of the stored objects in bytes.
+	 *
+	 * @return the size
+	 * @throws IOException if the store cannot be read
+	 */
+	public long getSize() throws IOException {
+		Path objects = this.directory.resolve("objects");
+		if (!Files.exists(objects)) {
+			return 0;
+		}
+		try (Stream<Path> stream = Files.walk(objects)) {
+			long size = 0;
+			for (Path path : (Iterable<Path>) stream::iterator) {
+				BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+				if (attributes.isRegularFile()) {
+					size += attributes.size();
+				}
+			}
+			return size;
+		}
+	}
+
+	/**
+	 * Returns the distributions registered in the store, the least recently used first.
+	 *
+	 * @return the destination directories of the distributions
+	 * @throws IOException if the store cannot be read
+	 */
+	public List<Path> getDistributions() throws IOException {
+		return getRecords().stream().map(record -> record.destination).collect(Collectors.toList());
+	}
+
+	/**
+	 * Prunes the store. Records of distributions that no longer exist are removed, the least recently used
+	 * distributions are evicted while the store exceeds {@link #getMaxSize() the maximum size}, and objects that are
+	 * no longer referenced by any distribution are deleted.
+	 *
+	 * @throws IOException if the store cannot be pruned
+	 */
+	public void prune() throws IOException {
+		withLock(() -> prune(null));
+	}
+
+	/**
+	 * Marks the distribution in the given destination as in use by this JVM. A shared lock is held on the {@code
+	 * .in-use} file of the destination until this JVM exits, hence no store evicts the distribution meanwhile. The
+	 * lease has to be taken before the distribution is validated, as an eviction that is in progress holds an
+	 * exclusive lock on the same file.
+	 *
+	 * @param destination the destination directory
+	 * @throws IOException if the lease cannot be taken
+	 */
+	void lease(Path destination) throws IOException {
+		Path file = destination.toAbsolutePath().normalize().resolve(IN_USE);
+		synchronized (LEASES) {
+			if (LEASES.containsKey(file)) {
+				return;
+			}
+			FileChannel channel = FileChannel.open(FileUtils.createIfNotExists(file), StandardOpenOption.READ,
+					StandardOpenOption.WRITE);
+			try {
+				long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+				java.nio.channels.FileLock lock;
+				while ((lock = channel.tryLock(0, Long.MAX_VALUE, true)) == null) {
+					if (System.nanoTime() - deadline > 0) {
+						throw new IllegalStateException("Shared lock cannot be acquired for a file '" + file + "'");
+					}
+					Thread.sleep(100);
+				}
+				LEASES.put(file, lock);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				channel.close();
+				throw new FileLockInterruptionException();
+			}
+			catch (IOException | RuntimeException ex) {
+				channel.close();
+				throw ex;
+			}
+		}
+	}
+
+	/**
+	 * Updates the last-use stamp of the distribution in the given destination.
+	 *
+	 * @param destination the destination directory
+	 * @throws IOException if the stamp cannot be written
+	 */
+	void touch(Path destination) throws IOException {
+		withLock(() -> writeRecord(destination));
+	}
+
+	/**
+	 * Registers the distribution in the given destination. The files of the distribution are replaced with hard links
+	 * to the stored objects, the manifest is written into the destination, and then the least recently used
+	 * distributions are evicted if the store exceeds {@link #getMaxSize() the maximum size}. All of this is done under
+	 * one lock, hence a concurrent prune never collects the objects of a distribution that is being registered.
+	 *
+	 * @param destination the destination directory
+	 * @param manifest the manifest of the distribution
+	 * @throws IOException if the store cannot be updated
+	 */
+	void register(Path destination, DistributionManifest manifest) throws IOException {
+		withLock(() -> {
+			deduplicate(destination, manifest);
+			// linked files carry the metadata of the stored objects
+			manifest.refresh(destination).write(destination);
+			writeRecord(destination);
+			prune(destination);
+		});
+	}
+
+	private void deduplicate(Path destination, DistributionManifest manifest) throws IOException {
+		long saved = 0;
+		for (DistributionManifest.Entry entry : manifest.getEntries()) {
+			Path file = destination.resolve(entry.getPath());
+			Path object = getObject(entry.getDigest());
+			try {
+				if (!Files.exists(object)) {
+					Files.createDirectories(object.getParent());
+					Files.createLink(object, file);
+				}
+				else if (!Files.isSameFile(object, file) && Files.size(object) == entry.getSize()
+						&& Files.isExecutable(object) == Files.isExecutable(file)) {
+					Path link = file.resolveSibling(file.getFileName() + ".link");
+					Files.deleteIfExists(link);
+					Files.createLink(link, object);
+					Files.move(link, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+					saved += entry.getSize();
+				}
+			}
+			catch (UnsupportedOperationException ex) {
+				log.warn("Files of '" + destination + "' cannot be linked into the store '" + this.directory
+						+ "'. Hard links are not supported", ex);
+				return;
+			}
+			catch (FileSystemException ex) {
+				if (!isCrossDevice(ex)) {
+					throw ex;
+				}
+				log.warn("Files of '" + destination + "' cannot be linked into the store '" + this.directory
+						+ "'. Make sure they are located on the same file store", ex);
+				return;
+			}
+		}
+		log.info("Distribution '{}' has been deduplicated. {} bytes are shared", destination, saved);
+	}
+
+	private static boolean isCrossDevice(FileSystemException ex) {
+		// EXDEV on Unix, ERROR_NOT_SAME_DEVICE on Windows
+		String reason = Objects.toString(ex.getReason(), "").toLowerCase(Locale.ROOT);
+		return reason.contains("cross-device") || reason.contains("different disk drive");
+	}
+
+	private void prune(@Nullable Path keep) throws IOException {
+		Path kept = (keep != null) ? keep.toAbsolutePath().normalize() : null;
+		List<Record> records = new ArrayList<>();
+		for (Record record : getRecords()) {
+			if (Files.exists(record.destination.resolve(".extracted"))) {
+				records.add(record);
+			}
+			else {
+				Files.deleteIfExists(record.file);
+			}
+		}
+		long size = collectGarbage(records);
+		for (Record record : new ArrayList<>(records)) {
+			if (size <= this.maxSize) {
+				break;
+			}
+			if (record.destination.equals(kept)) {
+				continue;
+			}
+			if (evict(record)) {
+				records.remove(record);
+				size = collectGarbage(records);
+			}
+		}
+	}
+
+	private boolean evict(Record record) throws IOException {
+		Path destination = record.destination;
+		if (LEASES.containsKey(destination.resolve(IN_USE))) {
+			log.info("Distribution '{}' is in use and cannot be evicted", destination);
+			return false;
+		}
+		try (FileLock fileLock = FileLock.of(destination.resolve(".lock"));
+				FileLock inUse = FileLock.of(destination.resolve(IN_USE))) {
+			if (!fileLock.tryLock(0, TimeUnit.MILLISECONDS) || !inUse.tryLock(0, TimeUnit.MILLISECONDS)) {
+				log.info("Distribution '{}' is in use and cannot be evicted", destination);
+				return false;
+			}
+			log.info("Evicts the least recently used distribution '{}'", destination);
+			DistributionManifest.reset(destination);
+		}
+		Files.deleteIfExists(record.file);
+		return true;
+	}
+
+	private long collectGarbage(List<Record> records) throws IOException {
+		Set<String> digests = new HashSet<>();
+		for (Record record : records) {
+			try {
+				DistributionManifest manifest = DistributionManifest.of(record.destination);
+				if (manifest != null) {
+					manifest.getEntries().forEach(entry -> digests.add(entry.getDigest()));
+				}
+			}
+			catch (IOException ex) {
+				log.warn("Manifest of '" + record.destination + "' cannot be read", ex);
+			}
+		}
+		Path objects = this.directory.resolve("objects");
+		if (!Files.exists(objects)) {
+			return 0;
+		}
+		long size = 0;
+		try (Stream<Path> stream = Files.find(objects, 2, (path, attributes) -> attributes.isRegularFile())) {
+			for (Path object : stream.collect(Collectors.toList())) {
+				if (digests.contains(object.getFileName().toString())) {
+					size += Files.size(object);
+				}
+				else {
+					Files.deleteIfExists(object);
+				}
+			}
+		}
+		return size;
+	}
+
+	private List<Record> getRecords() throws IOException {
+		Path distributions = this.directory.resolve("distributions");
+		if (!Files.exists(distributions)) {
+			return new ArrayList<>();
+		}
+		List<Record> records = new ArrayList<>();
+		try (Stream<Path> stream = Files.list(distributions)) {
+			for (Path file : stream.collect(Collectors.toList())) {
+				if (!file.getFileName().toString().endsWith(".tmp")) {
+					Record record = readRecord(file);
+					if (record != null) {
+						records.add(record);
+					}
+				}
+			}
+		}
+		records.sort(Comparator.comparingLong(record -> record.lastUsed));
+		return records;
+	}
+
+	@Nullable
+	private Record readRecord(Path file) {
+		try (InputStream is = Files.newInputStream(file)) {
+			Properties properties = new Properties();
+			properties.load(is);
+			return new Record(file, this.directory.getFileSystem().getPath(properties.getProperty("destination")),
+					Long.parseLong(properties.getProperty("last-used")));
+		}
+		catch (Exception ex) {
+			log.warn("Record '" + file + "' is corrupted and has been ignored", ex);
+			return null;
+		}
+	}
+
+	private void writeRecord(Path destination) throws IOException {
+		Path path = destination.toAbsolutePath().normalize();
+		Path file = this.directory.resolve("distributions").resolve(sha256(path.toString()));
+		Files.createDirectories(file.getParent());
+		Properties properties = new Properties();
+		properties.setProperty("destination", path.toString());
+		properties.setProperty("last-used", Long.toString(System.currentTimeMillis()));
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (OutputStream os = Files.newOutputStream(tmp)) {
+			properties.store(os, null);
+		}
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private Path getObject(String digest) {
+		return this.directory.resolve("objects").resolve(digest.substring(0, 2)).resolve(digest);
+	}
+
+	private void withLock(LockCallback callback) throws IOException {
+		Files.createDirectories(this.directory);
+		Path lockFile = this.directory.resolve(".lock");
+		try (FileLock fileLock = FileLock.of(lockFile)) {
+			if (!fileLock.tryLock(2, TimeUnit.MINUTES)) {
+				throw new IllegalStateException("File lock cannot be acquired for a file '" + lockFile + "'");
+			}
+			callback.run();
+		}
+	}
+
+	static String sha256(String value) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return StringUtils.toHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 algorithm is not available", ex);
+		}
+	}
+
+	@FunctionalInterface
+	private interface LockCallback {
+
+		void run() throws IOException;
+
+	}
+
+	private static final class Record {
+
+		private final Path file;
+
+		private final Path destination;
+
+		private final long lastUsed;
+
+		Record(Path file, Path destination, long lastUsed) {
+			this.file = file;
+			this.destination = destination;
+			this.lastUsed = lastUsed;
+		}
+
+	}
+
+}
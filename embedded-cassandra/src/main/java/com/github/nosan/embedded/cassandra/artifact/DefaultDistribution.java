@@ -20,6 +20,7 @@ import java.nio.file.Path;
 import java.util.Objects;
 import java.util.StringJoiner;
 
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
 import com.github.nosan.embedded.cassandra.api.Version;
 
 /**
@@ -34,6 +35,9 @@ public final class DefaultDistribution implements Artifact.Distribution {
 
 	private final Path directory;
 
+	@Nullable
+	private final String digest;
+
 	/**
 	 * Constructs a new {@link DefaultDistribution} with the specified version and directory.
 	 *
@@ -41,8 +45,21 @@ public final class DefaultDistribution implements Artifact.Distribution {
 	 * @param directory Cassandra's directory
 	 */
 	public DefaultDistribution(Version version, Path directory) {
+		this(version, directory, null);
+	}
+
+	/**
+	 * Constructs a new {@link DefaultDistribution} with the specified version, directory and digest.
+	 *
+	 * @param version Cassandra's version
+	 * @param directory Cassandra's directory
+	 * @param digest the digest of the contents of Cassandra's directory, if known
+	 * @since 3.1.0
+	 */
+	public DefaultDistribution(Version version, Path directory, @Nullable String digest) {
 		this.version = Objects.requireNonNull(version, "'version' must not be null");
 		this.directory = Objects.requireNonNull(directory, "'directory' must not be null");
+		this.digest = digest;
 	}
 
 	@Override
@@ -55,11 +72,18 @@ public final class DefaultDistribution implements Artifact.Distribution {
 		return this.version;
 	}
 
+	@Override
+	@Nullable
+	public String getDigest() {
+		return this.digest;
+	}
+
 	@Override
 	public String toString() {
 		return new StringJoiner(", ", DefaultDistribution.class.getSimpleName() + "[", "]")
 				.add("version=" + this.version)
 				.add("directory=" + this.directory)
+				.add("digest=" + this.digest)
 				.toString();
 	}
 
@@ -0,0 +1,409 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.commons.util.FileUtils;
+import com.github.nosan.embedded.cassandra.commons.util.StringUtils;
+
+/**
+ * Manifest of an extracted distribution. It records the size, the modification time and the {@code SHA-256} digest
+ * of every file, along with the {@code SHA-512} digest of the archive, if known. A cached distribution is validated by
+ * comparing the file metadata with the manifest, hence the files are not re-read.
+ *
+ * @author Dmytro Nosan
+ */
+final class DistributionManifest {
+
+	private static final Logger log = LoggerFactory.getLogger(DistributionManifest.class);
+
+	private static final String MANIFEST = ".manifest";
+
+	private static final String EXTRACTED = ".extracted";
+
+	private static final String ARCHIVE = "archive-sha512";
+
+	@Nullable
+	private final String archiveDigest;
+
+	private final List<Entry> entries;
+
+	private DistributionManifest(@Nullable String archiveDigest, List<Entry> entries) {
+		this.archiveDigest = archiveDigest;
+		this.entries = Collections.unmodifiableList(entries);
+	}
+
+	/**
+	 * Whether the distribution in the given destination has been extracted and still matches its manifest. A
+	 * distribution extracted without a manifest is trusted as is.
+	 *
+	 * @param destination the destination directory
+	 * @return {@code true} if the distribution is valid
+	 */
+	static boolean isValid(Path destination) {
+		if (!Files.exists(destination.resolve(EXTRACTED))) {
+			return false;
+		}
+		Path file = destination.resolve(MANIFEST);
+		if (!Files.exists(file)) {
+			return true;
+		}
+		try {
+			for (Entry entry : load(file).entries) {
+				Path path = destination.resolve(entry.path);
+				if (!Files.isRegularFile(path) || Files.size(path) != entry.size
+						|| Files.getLastModifiedTime(path).toMillis() != entry.lastModified) {
+					log.warn("Distribution in '{}' does not match its manifest. '{}' has been changed", destination,
+							path);
+					return false;
+				}
+			}
+			return true;
+		}
+		catch (IOException ex) {
+			log.warn("Manifest '" + file + "' cannot be read", ex);
+			return false;
+		}
+	}
+
+	/**
+	 * Marks the distribution extracted into the given destination as valid. A manifest of the given Cassandra's home
+	 * directory is written, and then the {@code .extracted} marker is created. If a store is given, the distribution
+	 * is {@link ArtifactStore#register(Path, DistributionManifest) registered} in it instead, which deduplicates the
+	 * files before the manifest is written.
+	 *
+	 * @param destination the destination directory
+	 * @param directory Cassandra's home directory within the destination
+	 * @param archiveDigest the {@code SHA-512} digest of the archive, if known
+	 * @param store the store to deduplicate the files with, if any
+	 * @throws IOException if the manifest cannot be written
+	 */
+	static void complete(Path destination, Path directory, @Nullable String archiveDigest,
+			@Nullable ArtifactStore store) throws IOException {
+		DistributionManifest manifest = create(destination, directory, archiveDigest);
+		if (store != null) {
+			store.register(destination, manifest);
+		}
+		else {
+			manifest.write(destination);
+		}
+	}
+
+	/**
+	 * Loads the manifest of the distribution in the given destination.
+	 *
+	 * @param destination the destination directory
+	 * @return the manifest, or {@code null} if there is no manifest
+	 * @throws IOException if the manifest cannot be read
+	 */
+	@Nullable
+	static DistributionManifest of(Path destination) throws IOException {
+		Path file = destination.resolve(MANIFEST);
+		return Files.exists(file) ? load(file) : null;
+	}
+
+	/**
+	 * Removes the {@code .extracted} marker, the manifest and the files listed in the manifest from the given
+	 * destination, so that the distribution can be extracted again. Directories that become empty are removed as
+	 * well, any other file in the destination is left untouched.
+	 *
+	 * @param destination the destination directory
+	 * @throws IOException if the files cannot be deleted
+	 */
+	static void reset(Path destination) throws IOException {
+		Files.deleteIfExists(destination.resolve(EXTRACTED));
+		Path file = destination.resolve(MANIFEST);
+		if (Files.exists(file)) {
+			try {
+				for (Entry entry : load(file).entries) {
+					Path path = destination.resolve(entry.path);
+					Files.deleteIfExists(path);
+					deleteEmptyParents(destination, path);
+				}
+			}
+			catch (IOException ex) {
+				log.warn("Manifest '" + file + "' cannot be read", ex);
+			}
+			Files.deleteIfExists(file);
+		}
+	}
+
+	/**
+	 * Writes this manifest into the given destination, and then creates the {@code .extracted} marker.
+	 *
+	 * @param destination the destination directory
+	 * @throws IOException if the manifest cannot be written
+	 */
+	void write(Path destination) throws IOException {
+		save(destination.resolve(MANIFEST));
+		FileUtils.createIfNotExists(destination.resolve(EXTRACTED));
+	}
+
+	/**
+	 * Creates a manifest of the given directory. Paths are relative to the given destination.
+	 *
+	 * @param destination the destination directory
+	 * @param directory the directory within the destination
+	 * @param archiveDigest the {@code SHA-512} digest of the archive, if known
+	 * @return the manifest
+	 * @throws IOException if the files cannot be read
+	 */
+	static DistributionManifest create(Path destination, Path directory, @Nullable String archiveDigest)
+			throws IOException {
+		MessageDigest digest = createDigest();
+		List<Entry> entries = new ArrayList<>();
+		try (Stream<Path> stream = Files.find(directory, Integer.MAX_VALUE,
+				(path, attributes) -> attributes.isRegularFile())) {
+			for (Path path : stream.sorted().collect(Collectors.toList())) {
+				BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+				entries.add(new Entry(destination.relativize(path).toString().replace('\\', '/'), attributes.size(),
+						attributes.lastModifiedTime().toMillis(), digest(path, digest)));
+			}
+		}
+		return new DistributionManifest(archiveDigest, entries);
+	}
+
+	/**
+	 * Loads a manifest from the given file.
+	 *
+	 * @param file the manifest file
+	 * @return the manifest
+	 * @throws IOException if the file cannot be read or is malformed
+	 */
+	static DistributionManifest load(Path file) throws IOException {
+		String archiveDigest = null;
+		List<Entry> entries = new ArrayList<>();
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.startsWith(ARCHIVE + " ")) {
+					archiveDigest = line.substring(ARCHIVE.length() + 1);
+				}
+				else if (!line.isEmpty()) {
+					String[] values = line.split(" ", 4);
+					if (values.length != 4) {
+						throw new IOException("Manifest '" + file + "' is malformed: '" + line + "'");
+					}
+					try {
+						entries.add(new Entry(values[3], Long.parseLong(values[1]), Long.parseLong(values[2]),
+								values[0]));
+					}
+					catch (NumberFormatException ex) {
+						throw new IOException("Manifest '" + file + "' is malformed: '" + line + "'", ex);
+					}
+				}
+			}
+		}
+		return new DistributionManifest(archiveDigest, entries);
+	}
+
+	/**
+	 * Returns the {@code SHA-512} digest of the archive.
+	 *
+	 * @return the digest, or {@code null} if unknown
+	 */
+	@Nullable
+	String getArchiveDigest() {
+		return this.archiveDigest;
+	}
+
+	/**
+	 * Returns a {@code SHA-256} digest of the archive digest and of the paths and the digests of all files.
+	 * Distributions with the same digest have the same files.
+	 *
+	 * @return the digest
+	 */
+	String getDigest() {
+		MessageDigest digest = createDigest();
+		digest.update(String.valueOf(this.archiveDigest).getBytes(StandardCharsets.UTF_8));
+		for (Entry entry : this.entries) {
+			digest.update(("\n" + entry.path + " " + entry.digest).getBytes(StandardCharsets.UTF_8));
+		}
+		return StringUtils.toHex(digest.digest());
+	}
+
+	/**
+	 * Returns the given distribution along with the {@link #getDigest() digest} of the manifest in the given
+	 * destination. The distribution is returned as is if there is no manifest.
+	 *
+	 * @param distribution the distribution
+	 * @param destination the destination directory
+	 * @return the distribution with the digest
+	 * @throws IOException if the manifest cannot be read
+	 */
+	static Artifact.Distribution withDigest(Artifact.Distribution distribution, Path destination) throws IOException {
+		DistributionManifest manifest = of(destination);
+		if (manifest == null) {
+			return distribution;
+		}
+		return new DefaultDistribution(distribution.getVersion(), distribution.getDirectory(), manifest.getDigest());
+	}
+
+	/**
+	 * Returns the files of the distribution.
+	 *
+	 * @return the entries
+	 */
+	List<Entry> getEntries() {
+		return this.entries;
+	}
+
+	/**
+	 * Returns a copy of this manifest with the size and the modification time of every file re-read from the given
+	 * destination. Digests are kept as is.
+	 *
+	 * @param destination the destination directory
+	 * @return the refreshed manifest
+	 * @throws IOException if the files cannot be read
+	 */
+	DistributionManifest refresh(Path destination) throws IOException {
+		List<Entry> entries = new ArrayList<>(this.entries.size());
+		for (Entry entry : this.entries) {
+			BasicFileAttributes attributes = Files.readAttributes(destination.resolve(entry.path),
+					BasicFileAttributes.class);
+			entries.add(new Entry(entry.path, attributes.size(), attributes.lastModifiedTime().toMillis(),
+					entry.digest));
+		}
+		return new DistributionManifest(this.archiveDigest, entries);
+	}
+
+	/**
+	 * Saves this manifest into the given file.
+	 *
+	 * @param file the manifest file
+	 * @throws IOException if the file cannot be written
+	 */
+	void save(Path file) throws IOException {
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+			if (this.archiveDigest != null) {
+				writer.write(ARCHIVE + " " + this.archiveDigest);
+				writer.newLine();
+			}
+			for (Entry entry : this.entries) {
+				writer.write(entry.digest + " " + entry.size + " " + entry.lastModified + " " + entry.path);
+				writer.newLine();
+			}
+		}
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static void deleteEmptyParents(Path destination, Path path) throws IOException {
+		Path parent = path.getParent();
+		while (parent != null && !parent.equals(destination) && parent.startsWith(destination)) {
+			try {
+				Files.deleteIfExists(parent);
+			}
+			catch (DirectoryNotEmptyException ex) {
+				return;
+			}
+			parent = parent.getParent();
+		}
+	}
+
+	private static String digest(Path file, MessageDigest digest) throws IOException {
+		digest.reset();
+		try (InputStream is = Files.newInputStream(file)) {
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = is.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+			}
+		}
+		return StringUtils.toHex(digest.digest());
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 algorithm is not available", ex);
+		}
+	}
+
+	/**
+	 * A file of the distribution.
+	 */
+	static final class Entry {
+
+		private final String path;
+
+		private final long size;
+
+		private final long lastModified;
+
+		private final String digest;
+
+		Entry(String path, long size, long lastModified, String digest) {
+			this.path = path;
+			this.size = size;
+			this.lastModified = lastModified;
+			this.digest = digest;
+		}
+
+		/**
+		 * Returns the path relative to the destination directory.
+		 *
+		 * @return the path
+		 */
+		String getPath() {
+			return this.path;
+		}
+
+		/**
+		 * Returns the size of the file.
+		 *
+		 * @return the size
+		 */
+		long getSize() {
+			return this.size;
+		}
+
+		/**
+		 * Returns the hex-encoded {@code SHA-256} digest of the file.
+		 *
+		 * @return the digest
+		 */
+		String getDigest() {
+			return this.digest;
+		}
+
+	}
+
+}
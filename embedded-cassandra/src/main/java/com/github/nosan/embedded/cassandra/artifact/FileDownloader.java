@@ -0,0 +1,837 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.commons.io.FileSystemResource;
+import com.github.nosan.embedded.cassandra.commons.io.Resource;
+import com.github.nosan.embedded.cassandra.commons.io.UrlResource;
+import com.github.nosan.embedded.cassandra.commons.util.DaemonThreadFactory;
+import com.github.nosan.embedded.cassandra.commons.util.StringUtils;
+
+/**
+ * Downloads a file from the given {@link URL} into a directory. If the server accepts byte ranges ({@code
+ * Accept-Ranges: bytes}), the file is split into chunks that are fetched concurrently and written into a pre-sized
+ * {@code .part} file with positional {@link FileChannel} writes. Otherwise, or if the server ignores range requests,
+ * the file is downloaded with a single stream.
+ * <p>
+ * Range downloads are resumable: the progress of every chunk is recorded in a {@code .part.journal} file, hence a
+ * failed or interrupted download is resumed by the next attempt, provided that the file has not been changed: the
+ * strong {@code ETag} (or {@code Last-Modified}) and the length have to match, even if the download is resumed from
+ * another mirror.
+ * <p>
+ * Alternatively, the file can be {@link #stream(URL, ProgressListener, StreamCallback) streamed} straight to a
+ * consumer without being stored on disk.
+ *
+ * @author Dmytro Nosan
+ */
+final class FileDownloader {
+
+	private static final Logger log = LoggerFactory.getLogger(FileDownloader.class);
+
+	private static final int MIN_CHUNK_SIZE = 1024 * 1024;
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final int MAX_TEXT_SIZE = 64 * 1024;
+
+	private static final long JOURNAL_INTERVAL = 4 * 1024 * 1024;
+
+	private static final ThreadFactory THREAD_FACTORY = new DaemonThreadFactory("file-downloader");
+
+	private final Duration readTimeout;
+
+	private final Duration connectTimeout;
+
+	private final Proxy proxy;
+
+	private final int connections;
+
+	private final long minThroughput;
+
+	FileDownloader(Duration readTimeout, Duration connectTimeout, Proxy proxy, int connections) {
+		this(readTimeout, connectTimeout, proxy, connections, 0);
+	}
+
+	private FileDownloader(Duration readTimeout, Duration connectTimeout, Proxy proxy, int connections,
+			long minThroughput) {
+		this.readTimeout = readTimeout;
+		this.connectTimeout = connectTimeout;
+		this.proxy = proxy;
+		this.connections = connections;
+		this.minThroughput = minThroughput;
+	}
+
+	/**
+	 * Returns a copy of this downloader that aborts a {@link #download(URL, Path, ProgressListener) download} with a
+	 * {@link SlowDownloadException} if its throughput over a {@code 10} seconds window drops below the given value.
+	 * The progress of an aborted range download is kept, hence it can be resumed from another mirror.
+	 *
+	 * @param minThroughput the minimum throughput in bytes per second, or {@code 0} to disable the check
+	 * @return the downloader
+	 */
+	FileDownloader withMinThroughput(long minThroughput) {
+		return new FileDownloader(this.readTimeout, this.connectTimeout, this.proxy, this.connections,
+				minThroughput);
+	}
+
+	/**
+	 * Downloads the file from the given {@link URL} into the given directory.
+	 *
+	 * @param url the URL
+	 * @param directory the directory to download the file into
+	 * @param progressListener the listener to track the progress
+	 * @return the downloaded file and its {@code SHA-512} digest
+	 * @throws IOException in the case of I/O errors
+	 */
+	Download download(URL url, Path directory, ProgressListener progressListener) throws IOException {
+		String fileName = getFileName(url);
+		Path file = directory.resolve(fileName);
+		Path partFile = directory.resolve(fileName + ".part");
+		Path journalFile = directory.resolve(fileName + ".part.journal");
+		Files.createDirectories(directory);
+		URLConnection connection = connect(url, Collections.emptyMap());
+		long totalSize = connection.getContentLengthLong();
+		String validator = getValidator(connection);
+		MessageDigest digest = createDigest();
+		ThroughputMonitor monitor = new ThroughputMonitor(url, this.minThroughput);
+		progressListener.start();
+		if (isRangeSupported(connection, totalSize)) {
+			Journal journal = (validator != null) ? Journal.load(journalFile) : null;
+			boolean resume = journal != null && journal.matches(url, validator, totalSize) && Files.exists(partFile);
+			if (resume) {
+				log.info("Resumes the download of '{}' from '{}'", url, partFile);
+				journal = journal.withSource(url, validator);
+			}
+			else {
+				Files.deleteIfExists(journalFile);
+				journal = new Journal(url, validator, totalSize, getChunks(totalSize));
+			}
+			try {
+				download(connection, resume, partFile, journal, journalFile, monitor, progressListener);
+				// chunks arrive out of order, hence the digest is computed once the file is complete
+				digest(partFile, digest);
+			}
+			catch (RangeNotSupportedException ex) {
+				log.warn("Range requests have failed for URL '" + url + "'. Falls back to a single stream", ex);
+				Files.deleteIfExists(journalFile);
+				download(connect(url, Collections.emptyMap()), partFile, totalSize, digest, monitor,
+						progressListener);
+			}
+		}
+		else {
+			download(connection, partFile, totalSize, digest, monitor, progressListener);
+		}
+		if (Thread.interrupted()) {
+			throw new ClosedByInterruptException();
+		}
+		Files.move(partFile, file, StandardCopyOption.REPLACE_EXISTING);
+		Files.deleteIfExists(journalFile);
+		progressListener.finish();
+		return new Download(new FileSystemResource(file), Files.size(file), StringUtils.toHex(digest.digest()));
+	}
+
+	/**
+	 * Streams the file from the given {@link URL} to the given callback without storing it. The {@code SHA-512}
+	 * digest of the received bytes is computed on the fly. Bytes left unread by the callback are drained, hence the
+	 * digest always covers the whole file.
+	 *
+	 * @param url the URL
+	 * @param progressListener the listener to track the progress
+	 * @param callback the callback that consumes the file
+	 * @return the streamed file and its {@code SHA-512} digest
+	 * @throws IOException in the case of I/O errors, or if the stream ends prematurely
+	 */
+	Download stream(URL url, ProgressListener progressListener, StreamCallback callback) throws IOException {
+		String fileName = getFileName(url);
+		URLConnection connection = connect(url, Collections.emptyMap());
+		long totalSize = connection.getContentLengthLong();
+		MessageDigest digest = createDigest();
+		long readBytes;
+		progressListener.start();
+		try (InputStream is = connection.getInputStream()) {
+			ProgressInputStream stream = new ProgressInputStream(new DigestInputStream(is, digest), totalSize,
+					progressListener);
+			callback.accept(new StreamResource(url, fileName, stream));
+			byte[] buffer = new byte[BUFFER_SIZE];
+			while (stream.read(buffer) != -1) {
+				// drains the remaining bytes, e.g. archive padding
+			}
+			readBytes = stream.readBytes;
+			if (totalSize > 0 && readBytes != totalSize) {
+				throw new IOException("Premature end of stream. Expected '" + totalSize + "' bytes, but was '"
+						+ readBytes + "'");
+			}
+		}
+		if (Thread.interrupted()) {
+			throw new ClosedByInterruptException();
+		}
+		progressListener.finish();
+		return new Download(new UrlResource(url), readBytes, StringUtils.toHex(digest.digest()));
+	}
+
+	/**
+	 * Reads the given {@link URL} as a {@code UTF-8} string, e.g. a checksum file.
+	 *
+	 * @param url the URL
+	 * @return the content
+	 * @throws IOException in the case of I/O errors, or if the content is too large
+	 */
+	String read(URL url) throws IOException {
+		URLConnection connection = connect(url, Collections.emptyMap());
+		try (InputStream is = connection.getInputStream()) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = is.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+				if (out.size() > MAX_TEXT_SIZE) {
+					throw new IOException("Content of '" + url + "' exceeds " + MAX_TEXT_SIZE + " bytes");
+				}
+			}
+			return new String(out.toByteArray(), StandardCharsets.UTF_8);
+		}
+	}
+
+	private boolean isRangeSupported(URLConnection connection, long totalSize) {
+		if (!(connection instanceof HttpURLConnection) || totalSize <= 0) {
+			return false;
+		}
+		String acceptRanges = connection.getHeaderField("Accept-Ranges");
+		return acceptRanges != null && acceptRanges.trim().equalsIgnoreCase("bytes");
+	}
+
+	private int getChunks(long totalSize) {
+		return (int) Math.max(1, Math.min(this.connections, totalSize / MIN_CHUNK_SIZE));
+	}
+
+	private void download(URLConnection connection, Path file, long totalSize, MessageDigest digest,
+			ThroughputMonitor monitor, ProgressListener progressListener) throws IOException {
+		digest.reset();
+		try (InputStream is = connection.getInputStream(); OutputStream os = Files.newOutputStream(file)) {
+			byte[] buffer = new byte[BUFFER_SIZE];
+			long readBytes = 0;
+			int read;
+			while ((read = is.read(buffer)) != -1) {
+				os.write(buffer, 0, read);
+				digest.update(buffer, 0, read);
+				monitor.update(read);
+				readBytes += read;
+				if (totalSize > 0 && readBytes > 0) {
+					progressListener.update(readBytes, totalSize);
+				}
+			}
+		}
+	}
+
+	private void download(URLConnection connection, boolean resume, Path file, Journal journal, Path journalFile,
+			ThroughputMonitor monitor, ProgressListener progressListener) throws IOException {
+		URL url = connection.getURL();
+		AtomicLong readBytes = new AtomicLong(journal.getDownloaded());
+		List<Chunk> chunks = new ArrayList<>();
+		for (Chunk chunk : journal.chunks) {
+			if (!chunk.isCompleted() && (resume || chunk.position > 0)) {
+				chunks.add(chunk);
+			}
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, chunks.size()), THREAD_FACTORY);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+			if (!resume) {
+				channel.truncate(0);
+				channel.write(ByteBuffer.allocate(1), journal.size - 1);
+				journal.save(journalFile);
+			}
+			List<Future<?>> futures = new ArrayList<>();
+			for (Chunk chunk : chunks) {
+				futures.add(executor.submit(() -> {
+					Map<String, String> headers = new LinkedHashMap<>();
+					headers.put("Range", "bytes=" + chunk.position + "-" + chunk.end);
+					if (journal.validator != null) {
+						headers.put("If-Range", journal.validator);
+					}
+					HttpURLConnection rangeConnection = (HttpURLConnection) connect(url, this.readTimeout,
+							this.connectTimeout, this.proxy, headers);
+					int status = rangeConnection.getResponseCode();
+					if (status == HttpURLConnection.HTTP_OK) {
+						rangeConnection.disconnect();
+						throw new RangeNotSupportedException("Range request to URL '" + url + "' has been ignored");
+					}
+					if (status != HttpURLConnection.HTTP_PARTIAL) {
+						rangeConnection.disconnect();
+						throw new IOException("HTTP Status '" + status + "' is invalid for a range request to URL '"
+								+ url + "'");
+					}
+					write(rangeConnection, channel, chunk, journal, journalFile, readBytes, monitor,
+							progressListener);
+					return null;
+				}));
+			}
+			if (!resume) {
+				// the first chunk is read from the already opened connection
+				write(connection, channel, journal.chunks.get(0), journal, journalFile, readBytes, monitor,
+						progressListener);
+			}
+			((HttpURLConnection) connection).disconnect();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new ClosedByInterruptException();
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			throw new IOException("URL '" + url + "' cannot be downloaded", cause);
+		}
+		finally {
+			executor.shutdownNow();
+			// the remaining chunks stop on the closed channel, wait for them so the journal is saved last
+			awaitTermination(executor);
+			journal.close(journalFile);
+		}
+	}
+
+	private void awaitTermination(ExecutorService executor) {
+		long timeout = this.readTimeout.toMillis() + this.connectTimeout.toMillis();
+		try {
+			executor.awaitTermination((timeout > 0) ? timeout : Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void write(URLConnection connection, FileChannel channel, Chunk chunk, Journal journal,
+			Path journalFile, AtomicLong readBytes, ThroughputMonitor monitor, ProgressListener progressListener)
+			throws IOException {
+		try (InputStream is = connection.getInputStream()) {
+			byte[] buffer = new byte[BUFFER_SIZE];
+			long unsaved = 0;
+			while (!chunk.isCompleted()) {
+				int read = is.read(buffer, 0, (int) Math.min(buffer.length, chunk.end - chunk.position + 1));
+				if (read == -1) {
+					throw new IOException("Premature end of stream. Expected '" + (chunk.end - chunk.start + 1)
+							+ "' bytes, but was '" + (chunk.position - chunk.start) + "'");
+				}
+				ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+				long position = chunk.position;
+				while (byteBuffer.hasRemaining()) {
+					position += channel.write(byteBuffer, position);
+				}
+				chunk.position = position;
+				unsaved += read;
+				if (unsaved >= JOURNAL_INTERVAL) {
+					unsaved = 0;
+					channel.force(false);
+					journal.save(journalFile);
+				}
+				monitor.update(read);
+				long bytes = readBytes.addAndGet(read);
+				synchronized (progressListener) {
+					progressListener.update(bytes, journal.size);
+				}
+			}
+		}
+	}
+
+	private URLConnection connect(URL url, Map<String, String> headers) throws IOException {
+		int maxRedirects = 10;
+		URL target = url;
+		for (; ; ) {
+			URLConnection connection = connect(target, this.readTimeout, this.connectTimeout, this.proxy, headers);
+			if (connection instanceof HttpURLConnection) {
+				HttpURLConnection httpConnection = (HttpURLConnection) connection;
+				httpConnection.setInstanceFollowRedirects(false);
+				int status = httpConnection.getResponseCode();
+				if (status >= 300 && status <= 307 && status != 306 && status != 304) {
+					if (maxRedirects < 0) {
+						throw new IOException("Too many redirects for URL '" + url + "'");
+					}
+					String location = httpConnection.getHeaderField("Location");
+					if (location != null) {
+						httpConnection.disconnect();
+						maxRedirects--;
+						target = new URL(url, location);
+						continue;
+					}
+				}
+				if (status == HttpURLConnection.HTTP_OK) {
+					return connection;
+				}
+				throw new IOException("HTTP Status '" + status + "' is invalid for URL '" + url + "'");
+			}
+			return connection;
+		}
+
+	}
+
+	private static URLConnection connect(URL url, Duration readTimeout, Duration connectTimeout, Proxy proxy,
+			Map<String, String> headers) throws IOException {
+		URLConnection connection = url.openConnection(proxy);
+		connection.setConnectTimeout(Math.toIntExact(connectTimeout.toMillis()));
+		connection.setReadTimeout(Math.toIntExact(readTimeout.toMillis()));
+		headers.forEach(connection::setRequestProperty);
+		return connection;
+	}
+
+	@Nullable
+	private static String getValidator(URLConnection connection) {
+		String etag = connection.getHeaderField("ETag");
+		if (StringUtils.hasText(etag) && !etag.startsWith("W/")) {
+			return etag;
+		}
+		String lastModified = connection.getHeaderField("Last-Modified");
+		return StringUtils.hasText(lastModified) ? lastModified : null;
+	}
+
+	private static void digest(Path file, MessageDigest digest) throws IOException {
+		try (InputStream is = Files.newInputStream(file)) {
+			byte[] buffer = new byte[BUFFER_SIZE];
+			int read;
+			while ((read = is.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+			}
+		}
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-512");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-512 algorithm is not available", ex);
+		}
+	}
+
+	private static String getFileName(URL url) {
+		String fileName = new UrlResource(url).getFileName();
+		if (!StringUtils.hasText(fileName)) {
+			throw new IllegalArgumentException(
+					String.format("There is no way to determine a file name from a '%s'", url));
+		}
+		return fileName;
+	}
+
+	/**
+	 * Listener to track the progress of a download.
+	 */
+	interface ProgressListener {
+
+		void start();
+
+		void update(long readBytes, long totalBytes);
+
+		void finish();
+
+	}
+
+	/**
+	 * A downloaded file and its {@code SHA-512} digest.
+	 */
+	static final class Download {
+
+		private final Resource resource;
+
+		private final long size;
+
+		private final String digest;
+
+		Download(Resource resource, long size, String digest) {
+			this.resource = resource;
+			this.size = size;
+			this.digest = digest;
+		}
+
+		/**
+		 * Returns the downloaded file, or the source {@link URL} if the file was streamed.
+		 *
+		 * @return the resource
+		 */
+		Resource getResource() {
+			return this.resource;
+		}
+
+		/**
+		 * Returns the size of the file.
+		 *
+		 * @return the size in bytes
+		 */
+		long getSize() {
+			return this.size;
+		}
+
+		/**
+		 * Returns the hex-encoded {@code SHA-512} digest of the file.
+		 *
+		 * @return the digest
+		 */
+		String getDigest() {
+			return this.digest;
+		}
+
+	}
+
+	/**
+	 * Callback that consumes a streamed file.
+	 */
+	@FunctionalInterface
+	interface StreamCallback {
+
+		/**
+		 * Consumes the given file. The {@link Resource#getInputStream() stream} of the resource can be opened only
+		 * once and closing it does not close the connection.
+		 *
+		 * @param resource the streamed file
+		 * @throws IOException in the case of I/O errors
+		 */
+		void accept(Resource resource) throws IOException;
+
+	}
+
+	private static final class ProgressInputStream extends FilterInputStream {
+
+		private final long totalSize;
+
+		private final ProgressListener progressListener;
+
+		private long readBytes;
+
+		ProgressInputStream(InputStream in, long totalSize, ProgressListener progressListener) {
+			super(in);
+			this.totalSize = totalSize;
+			this.progressListener = progressListener;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int read = super.read();
+			if (read != -1) {
+				update(1);
+			}
+			return read;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int read = super.read(b, off, len);
+			if (read > 0) {
+				update(read);
+			}
+			return read;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			// skipped bytes must still go through the digest
+			byte[] buffer = new byte[(int) Math.min(BUFFER_SIZE, Math.max(n, 0))];
+			int read = (n > 0) ? read(buffer, 0, buffer.length) : 0;
+			return Math.max(read, 0);
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+
+		@Override
+		public void close() {
+			// the connection is closed by FileDownloader
+		}
+
+		private void update(int read) {
+			this.readBytes += read;
+			if (this.totalSize > 0) {
+				this.progressListener.update(this.readBytes, this.totalSize);
+			}
+		}
+
+	}
+
+	private static final class StreamResource implements Resource {
+
+		private final URL url;
+
+		private final String fileName;
+
+		private final AtomicReference<InputStream> stream;
+
+		StreamResource(URL url, String fileName, InputStream stream) {
+			this.url = url;
+			this.fileName = fileName;
+			this.stream = new AtomicReference<>(stream);
+		}
+
+		@Override
+		public String getFileName() {
+			return this.fileName;
+		}
+
+		@Override
+		public boolean exists() {
+			return true;
+		}
+
+		@Override
+		public URL toURL() {
+			return this.url;
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			InputStream stream = this.stream.getAndSet(null);
+			if (stream == null) {
+				throw new IOException("Stream of '" + this.url + "' has already been consumed");
+			}
+			return stream;
+		}
+
+		@Override
+		public String toString() {
+			return "StreamResource[url=" + this.url + "]";
+		}
+
+	}
+
+	private static final class Chunk {
+
+		private final long start;
+
+		private final long end;
+
+		private volatile long position;
+
+		Chunk(long start, long end, long position) {
+			this.start = start;
+			this.end = end;
+			this.position = position;
+		}
+
+		boolean isCompleted() {
+			return this.position > this.end;
+		}
+
+	}
+
+	private static final class Journal {
+
+		private final String url;
+
+		@Nullable
+		private final String validator;
+
+		private final long size;
+
+		private final List<Chunk> chunks;
+
+		private boolean closed;
+
+		Journal(URL url, @Nullable String validator, long size, int chunks) {
+			this.url = url.toString();
+			this.validator = validator;
+			this.size = size;
+			this.chunks = new ArrayList<>();
+			long chunkSize = (size + chunks - 1) / chunks;
+			for (int i = 0; i < chunks; i++) {
+				long start = i * chunkSize;
+				this.chunks.add(new Chunk(start, Math.min(size, start + chunkSize) - 1, start));
+			}
+		}
+
+		private Journal(String url, @Nullable String validator, long size, List<Chunk> chunks) {
+			this.url = url;
+			this.validator = validator;
+			this.size = size;
+			this.chunks = chunks;
+		}
+
+		@Nullable
+		static Journal load(Path file) {
+			if (!Files.isRegularFile(file)) {
+				return null;
+			}
+			try (InputStream is = Files.newInputStream(file)) {
+				Properties properties = new Properties();
+				properties.load(is);
+				int count = Integer.parseInt(properties.getProperty("chunks"));
+				List<Chunk> chunks = new ArrayList<>();
+				for (int i = 0; i < count; i++) {
+					String[] chunk = properties.getProperty("chunk." + i).split(",");
+					chunks.add(new Chunk(Long.parseLong(chunk[0]), Long.parseLong(chunk[1]),
+							Long.parseLong(chunk[2])));
+				}
+				return new Journal(properties.getProperty("url"), properties.getProperty("validator"),
+						Long.parseLong(properties.getProperty("size")), chunks);
+			}
+			catch (Exception ex) {
+				log.warn("Download journal '" + file + "' is corrupted and has been ignored", ex);
+				return null;
+			}
+		}
+
+		boolean matches(URL url, @Nullable String validator, long size) {
+			// a download started from another mirror is resumed only if the mirror serves the very same file,
+			// otherwise the bytes of two different files would be spliced together
+			return this.validator != null && this.validator.equals(validator) && this.size == size;
+		}
+
+		Journal withSource(URL url, String validator) {
+			return new Journal(url.toString(), validator, this.size, this.chunks);
+		}
+
+		long getDownloaded() {
+			long downloaded = 0;
+			for (Chunk chunk : this.chunks) {
+				downloaded += chunk.position - chunk.start;
+			}
+			return downloaded;
+		}
+
+		synchronized void save(Path file) throws IOException {
+			if (this.closed || this.validator == null) {
+				// the download cannot be resumed without a validator
+				return;
+			}
+			Properties properties = new Properties();
+			properties.setProperty("url", this.url);
+			properties.setProperty("validator", this.validator);
+			properties.setProperty("size", Long.toString(this.size));
+			properties.setProperty("chunks", Integer.toString(this.chunks.size()));
+			for (int i = 0; i < this.chunks.size(); i++) {
+				Chunk chunk = this.chunks.get(i);
+				properties.setProperty("chunk." + i, chunk.start + "," + chunk.end + "," + chunk.position);
+			}
+			Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+			try (OutputStream os = Files.newOutputStream(tmp)) {
+				properties.store(os, null);
+			}
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+
+		/**
+		 * Saves this journal for the last time. Chunks that are still running, e.g. because they did not stop in
+		 * time, cannot overwrite it afterwards, or recreate it once it has been deleted.
+		 *
+		 * @param file the journal file
+		 * @throws IOException if the journal cannot be saved
+		 */
+		synchronized void close(Path file) throws IOException {
+			save(file);
+			this.closed = true;
+		}
+
+	}
+
+	/**
+	 * Thrown if the throughput of a download drops below the minimum.
+	 */
+	static final class SlowDownloadException extends IOException {
+
+		SlowDownloadException(String message) {
+			super(message);
+		}
+
+	}
+
+	private static final class ThroughputMonitor {
+
+		private static final long WINDOW = TimeUnit.SECONDS.toNanos(10);
+
+		private final URL url;
+
+		private final long minThroughput;
+
+		private long windowStart = System.nanoTime();
+
+		private long windowBytes;
+
+		ThroughputMonitor(URL url, long minThroughput) {
+			this.url = url;
+			this.minThroughput = minThroughput;
+		}
+
+		synchronized void update(long bytes) throws SlowDownloadException {
+			if (this.minThroughput <= 0) {
+				return;
+			}
+			this.windowBytes += bytes;
+			long now = System.nanoTime();
+			long elapsed = now - this.windowStart;
+			if (elapsed >= WINDOW) {
+				long throughput = this.windowBytes * TimeUnit.SECONDS.toNanos(1) / elapsed;
+				if (throughput < this.minThroughput) {
+					throw new SlowDownloadException("Throughput of '" + this.url + "' is " + throughput
+							+ " bytes/s, which is below the minimum of " + this.minThroughput + " bytes/s");
+				}
+				this.windowStart = now;
+				this.windowBytes = 0;
+			}
+		}
+
+	}
+
+	private static final class RangeNotSupportedException extends IOException {
+
+		RangeNotSupportedException(String message) {
+			super(message);
+		}
+
+	}
+
+}
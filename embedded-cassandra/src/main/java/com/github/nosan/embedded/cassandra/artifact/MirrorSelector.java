@@ -0,0 +1,277 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.commons.FileLock;
+import com.github.nosan.embedded.cassandra.commons.util.DaemonThreadFactory;
+
+/**
+ * Orders mirror URLs by their expected download time. All candidates are probed concurrently with a {@code HEAD}
+ * request, and the measured latency is blended with the latency and throughput statistics remembered from previous
+ * runs. Unreachable mirrors are moved to the end, keeping their original order.
+ *
+ * @author Dmytro Nosan
+ */
+final class MirrorSelector {
+
+	private static final Logger log = LoggerFactory.getLogger(MirrorSelector.class);
+
+	private static final ThreadFactory THREAD_FACTORY = new DaemonThreadFactory("mirror-selector");
+
+	private static final double ALPHA = 0.5;
+
+	private final Path statsFile;
+
+	private final Duration timeout;
+
+	private final Proxy proxy;
+
+	MirrorSelector(Path statsFile, Duration timeout, Proxy proxy) {
+		this.statsFile = statsFile;
+		this.timeout = timeout;
+		this.proxy = proxy;
+	}
+
+	/**
+	 * Probes the given URLs and returns them ordered by the expected download time, the fastest first.
+	 *
+	 * @param urls the URLs
+	 * @return the ordered URLs
+	 * @throws IOException if the probes have been interrupted
+	 */
+	List<URL> select(List<URL> urls) throws IOException {
+		if (urls.size() < 2) {
+			return urls;
+		}
+		List<Probe> probes = probe(urls);
+		Properties stats = updateStats(properties -> {
+			for (Probe probe : probes) {
+				if (probe.latency >= 0) {
+					update(properties, probe.url, "latency", probe.latency);
+				}
+			}
+		});
+		List<Probe> ordered = probes.stream().sorted(Comparator.comparing((Probe probe) -> probe.latency < 0)
+				.thenComparingDouble(probe -> getScore(stats, probe))).collect(Collectors.toList());
+		log.info("Mirrors are ordered by the expected download time: {}",
+				ordered.stream().map(probe -> probe.url).collect(Collectors.toList()));
+		return ordered.stream().map(probe -> probe.url).collect(Collectors.toList());
+	}
+
+	/**
+	 * Remembers the throughput of a successful download from the given URL.
+	 *
+	 * @param url the URL
+	 * @param bytes the number of downloaded bytes
+	 * @param elapsed the time the download took
+	 */
+	void recordSuccess(URL url, long bytes, Duration elapsed) {
+		long millis = Math.max(1, elapsed.toMillis());
+		updateStats(stats -> update(stats, url, "throughput", bytes * 1000 / millis));
+	}
+
+	/**
+	 * Remembers that a download from the given URL has failed.
+	 *
+	 * @param url the URL
+	 */
+	void recordFailure(URL url) {
+		updateStats(stats -> update(stats, url, "latency", this.timeout.toMillis()));
+	}
+
+	private List<Probe> probe(List<URL> urls) throws IOException {
+		ExecutorService executor = Executors.newFixedThreadPool(urls.size(), THREAD_FACTORY);
+		try {
+			List<Callable<Probe>> tasks = new ArrayList<>();
+			for (URL url : urls) {
+				tasks.add(() -> probe(url));
+			}
+			List<Future<Probe>> futures = executor.invokeAll(tasks, this.timeout.toMillis() * 2,
+					TimeUnit.MILLISECONDS);
+			List<Probe> probes = new ArrayList<>();
+			for (int i = 0; i < urls.size(); i++) {
+				Future<Probe> future = futures.get(i);
+				try {
+					probes.add(future.isCancelled() ? new Probe(urls.get(i), -1, -1) : future.get());
+				}
+				catch (ExecutionException ex) {
+					probes.add(new Probe(urls.get(i), -1, -1));
+				}
+			}
+			return probes;
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Mirrors probing has been interrupted", ex);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private Probe probe(URL url) {
+		long start = System.nanoTime();
+		try {
+			URLConnection connection = url.openConnection(this.proxy);
+			int timeout = Math.toIntExact(this.timeout.toMillis());
+			connection.setConnectTimeout(timeout);
+			connection.setReadTimeout(timeout);
+			if (!(connection instanceof HttpURLConnection)) {
+				return new Probe(url, 0, -1);
+			}
+			HttpURLConnection httpConnection = (HttpURLConnection) connection;
+			httpConnection.setRequestMethod("HEAD");
+			int status = httpConnection.getResponseCode();
+			long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			long size = httpConnection.getContentLengthLong();
+			httpConnection.disconnect();
+			if (status >= 400) {
+				log.debug("Mirror '{}' has responded with HTTP Status '{}'", url, status);
+				return new Probe(url, -1, -1);
+			}
+			return new Probe(url, latency, size);
+		}
+		catch (IOException ex) {
+			log.debug("Mirror '" + url + "' cannot be probed", ex);
+			return new Probe(url, -1, -1);
+		}
+	}
+
+	private static double getScore(Properties stats, Probe probe) {
+		double score = get(stats, probe.url, "latency", probe.latency);
+		double throughput = get(stats, probe.url, "throughput", -1);
+		if (throughput > 0 && probe.size > 0) {
+			score += probe.size * 1000 / throughput;
+		}
+		return score;
+	}
+
+	private static double get(Properties stats, URL url, String name, double defaultValue) {
+		String value = stats.getProperty(getKey(url) + "." + name);
+		try {
+			return (value != null) ? Double.parseDouble(value) : defaultValue;
+		}
+		catch (NumberFormatException ex) {
+			return defaultValue;
+		}
+	}
+
+	private static void update(Properties stats, URL url, String name, double value) {
+		double previous = get(stats, url, name, value);
+		stats.setProperty(getKey(url) + "." + name, Double.toString(ALPHA * value + (1 - ALPHA) * previous));
+	}
+
+	private static String getKey(URL url) {
+		return url.getProtocol() + "://" + url.getAuthority();
+	}
+
+	private Properties updateStats(Consumer<Properties> updater) {
+		// concurrent JVMs update the same file, hence read-modify-write is done under a lock
+		Path lockFile = this.statsFile.resolveSibling(this.statsFile.getFileName() + ".lock");
+		try {
+			Files.createDirectories(lockFile.getParent());
+			try (FileLock fileLock = FileLock.of(lockFile)) {
+				if (fileLock.tryLock(10, TimeUnit.SECONDS)) {
+					Properties stats = loadStats();
+					updater.accept(stats);
+					saveStats(stats);
+					return stats;
+				}
+				log.warn("Mirror statistics '{}' are locked and have not been updated", this.statsFile);
+			}
+		}
+		catch (IOException ex) {
+			log.warn("Mirror statistics '" + this.statsFile + "' cannot be locked", ex);
+		}
+		Properties stats = loadStats();
+		updater.accept(stats);
+		return stats;
+	}
+
+	private Properties loadStats() {
+		Properties stats = new Properties();
+		if (Files.isRegularFile(this.statsFile)) {
+			try (InputStream is = Files.newInputStream(this.statsFile)) {
+				stats.load(is);
+			}
+			catch (IOException ex) {
+				log.warn("Mirror statistics '" + this.statsFile + "' cannot be read", ex);
+			}
+		}
+		return stats;
+	}
+
+	private void saveStats(Properties stats) {
+		try {
+			Files.createDirectories(this.statsFile.getParent());
+			Path tmp = Files.createTempFile(this.statsFile.getParent(), this.statsFile.getFileName().toString(),
+					".tmp");
+			try (OutputStream os = Files.newOutputStream(tmp)) {
+				stats.store(os, null);
+			}
+			Files.move(tmp, this.statsFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException ex) {
+			log.warn("Mirror statistics '" + this.statsFile + "' cannot be saved", ex);
+		}
+	}
+
+	private static final class Probe {
+
+		private final URL url;
+
+		private final long latency;
+
+		private final long size;
+
+		Probe(URL url, long latency, long size) {
+			this.url = url;
+			this.latency = latency;
+			this.size = size;
+		}
+
+	}
+
+}
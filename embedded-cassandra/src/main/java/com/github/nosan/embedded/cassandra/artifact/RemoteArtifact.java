@@ -17,23 +17,24 @@
 package com.github.nosan.embedded.cassandra.artifact;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
 import java.net.Proxy;
 import java.net.URL;
-import java.net.URLConnection;
 import java.nio.channels.ClosedByInterruptException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
+import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,15 +42,15 @@ import com.github.nosan.embedded.cassandra.annotations.Nullable;
 import com.github.nosan.embedded.cassandra.api.Version;
 import com.github.nosan.embedded.cassandra.commons.FileLock;
 import com.github.nosan.embedded.cassandra.commons.io.ArchiveResource;
-import com.github.nosan.embedded.cassandra.commons.io.FileSystemResource;
 import com.github.nosan.embedded.cassandra.commons.io.Resource;
-import com.github.nosan.embedded.cassandra.commons.io.UrlResource;
 import com.github.nosan.embedded.cassandra.commons.util.FileUtils;
-import com.github.nosan.embedded.cassandra.commons.util.StringUtils;
 
 /**
  * An {@link Artifact} that downloads an archive from the {@code Internet} and then extracts it to the {@code
- * destination} directory. Archive will be extracted and downloaded only once.
+ * destination} directory. Archive will be extracted and downloaded only once. An interrupted download is resumed by
+ * the next attempt if the server supports range requests. The {@code SHA-512} digest of the archive is verified
+ * against the {@code .sha512} file published next to it, and the extracted files are recorded in a manifest that is
+ * used to validate the cached distribution.
  *
  * @author Dmytro Nosan
  * @since 3.0.0
@@ -71,6 +72,23 @@ public final class RemoteArtifact implements Artifact {
 	@Nullable
 	private Path destination;
 
+	private int connections = 4;
+
+	private boolean streamingEnabled;
+
+	private boolean mirrorSelectionEnabled;
+
+	private long minThroughput;
+
+	@Nullable
+	private ArtifactStore store;
+
+	private Predicate<? super ArchiveEntry> entryFilter = ArchiveEntryFilters.all();
+
+	private int extractParallelism = Runtime.getRuntime().availableProcessors();
+
+	private final List<Consumer<? super ArchiveResource>> archiveResourceCustomizers = new ArrayList<>();
+
 	/**
 	 * Constructs a new {@link RemoteArtifact} with the specified version.
 	 *
@@ -202,11 +220,196 @@ public final class RemoteArtifact implements Artifact {
 		this.connectTimeout = Objects.requireNonNull(connectTimeout, "'connectTimeout' must not be null");
 	}
 
+	/**
+	 * Maximum number of concurrent connections used to download an archive file. Defaults to {@code 4}.
+	 *
+	 * @return the number of connections
+	 * @since 3.1.0
+	 */
+	public int getConnections() {
+		return this.connections;
+	}
+
+	/**
+	 * Sets the maximum number of concurrent connections used to download an archive file. If the server accepts byte
+	 * ranges, the archive file is split into chunks that are downloaded concurrently; otherwise, a single connection
+	 * is used. {@code 1} disables range requests.
+	 *
+	 * @param connections the number of connections
+	 * @since 3.1.0
+	 */
+	public void setConnections(int connections) {
+		if (connections < 1) {
+			throw new IllegalArgumentException("'connections' must be greater than 0");
+		}
+		this.connections = connections;
+	}
+
+	/**
+	 * Whether an archive file is extracted while it is being downloaded. Defaults to {@code false}.
+	 *
+	 * @return {@code true} if streaming is enabled
+	 * @since 3.1.0
+	 */
+	public boolean isStreamingEnabled() {
+		return this.streamingEnabled;
+	}
+
+	/**
+	 * Sets whether an archive file should be extracted while it is being downloaded. If enabled, the HTTP stream is
+	 * piped through the decompressor straight into the extractor and no archive file is stored on disk. The archive is
+	 * extracted into a staging directory which is moved into the {@code destination} only once the whole file has
+	 * been received. Streamed downloads use a single connection and cannot be resumed.
+	 *
+	 * @param streamingEnabled {@code true} if streaming should be enabled
+	 * @since 3.1.0
+	 */
+	public void setStreamingEnabled(boolean streamingEnabled) {
+		this.streamingEnabled = streamingEnabled;
+	}
+
+	/**
+	 * Whether URLs are ordered by the expected download time instead of the {@link UrlFactory} order. Defaults to
+	 * {@code false}.
+	 *
+	 * @return {@code true} if mirror selection is enabled
+	 * @since 3.1.0
+	 */
+	public boolean isMirrorSelectionEnabled() {
+		return this.mirrorSelectionEnabled;
+	}
+
+	/**
+	 * Sets whether URLs should be ordered by the expected download time. If enabled, all URLs from the {@link
+	 * UrlFactory} are probed concurrently with a {@code HEAD} request and the download starts with the fastest one.
+	 * Latency and throughput of every mirror are remembered in {@code mirrors.properties} next to the {@code
+	 * destination}, and taken into account by later runs.
+	 *
+	 * @param mirrorSelectionEnabled {@code true} if mirror selection should be enabled
+	 * @since 3.1.0
+	 */
+	public void setMirrorSelectionEnabled(boolean mirrorSelectionEnabled) {
+		this.mirrorSelectionEnabled = mirrorSelectionEnabled;
+	}
+
+	/**
+	 * Minimum throughput of a download in bytes per second. Defaults to {@code 0}, that is, disabled.
+	 *
+	 * @return the minimum throughput
+	 * @since 3.1.0
+	 */
+	public long getMinThroughput() {
+		return this.minThroughput;
+	}
+
+	/**
+	 * Sets the minimum throughput of a download in bytes per second. If the throughput over a {@code 10} seconds window
+	 * drops below this value, the download is abandoned and continues from the next URL. Range downloads are resumed
+	 * from the progress made so far. The last URL is never abandoned. {@code 0} disables the check.
+	 *
+	 * @param minThroughput the minimum throughput
+	 * @since 3.1.0
+	 */
+	public void setMinThroughput(long minThroughput) {
+		if (minThroughput < 0) {
+			throw new IllegalArgumentException("'minThroughput' must not be negative");
+		}
+		this.minThroughput = minThroughput;
+	}
+
+	/**
+	 * Returns the store that deduplicates the extracted files. Defaults to {@code null}.
+	 *
+	 * @return the store, or {@code null}
+	 * @since 3.1.0
+	 */
+	@Nullable
+	public ArtifactStore getStore() {
+		return this.store;
+	}
+
+	/**
+	 * Sets the store that deduplicates the extracted files. Identical files of different distributions are hard-linked
+	 * to the same stored object, and the least recently used distributions are evicted once the store exceeds its
+	 * maximum size. A distribution that has been resolved by a running JVM is not evicted.
+	 *
+	 * @param store the store, or {@code null} to disable deduplication
+	 * @since 3.1.0
+	 */
+	public void setStore(@Nullable ArtifactStore store) {
+		this.store = store;
+	}
+
+	/**
+	 * Returns the filter used to select the archive entries to extract. Defaults to {@link ArchiveEntryFilters#all()}.
+	 *
+	 * @return the filter
+	 * @since 3.1.0
+	 */
+	public Predicate<? super ArchiveEntry> getEntryFilter() {
+		return this.entryFilter;
+	}
+
+	/**
+	 * Sets the filter used to select the archive entries to extract. Entries that do not match are never written to
+	 * disk. Distributions extracted with different filters are kept in different directories. Note that {@code
+	 * cqlsh}, {@code cassandra-stress} and the {@code sstable} tools are not available if their directories are
+	 * skipped.
+	 *
+	 * @param entryFilter the filter, e.g. {@link ArchiveEntryFilters#runtimeOnly()} to extract only the entries
+	 * required to run Cassandra
+	 * @since 3.1.0
+	 */
+	public void setEntryFilter(Predicate<? super ArchiveEntry> entryFilter) {
+		this.entryFilter = Objects.requireNonNull(entryFilter, "'entryFilter' must not be null");
+	}
+
+	/**
+	 * Maximum number of threads used to extract an archive file. Defaults to the number of available processors.
+	 *
+	 * @return the parallelism level
+	 * @since 3.1.0
+	 */
+	public int getExtractParallelism() {
+		return this.extractParallelism;
+	}
+
+	/**
+	 * Sets the maximum number of threads used to extract an archive file. {@code 1} means a single-threaded
+	 * extraction.
+	 *
+	 * @param extractParallelism the parallelism level
+	 * @see ArchiveResource#extract(Path, int, Predicate)
+	 * @since 3.1.0
+	 */
+	public void setExtractParallelism(int extractParallelism) {
+		if (extractParallelism < 1) {
+			throw new IllegalArgumentException("'extractParallelism' must be greater than 0");
+		}
+		this.extractParallelism = extractParallelism;
+	}
+
+	/**
+	 * Customizers applied to every {@link ArchiveResource} created for a downloaded archive, before it is extracted.
+	 * For instance, {@link ArchiveResource#setDecompressor(String, String, ArchiveResource.Decompressor)} allows
+	 * extracting {@code .tar.zst} archives served by a {@link UrlFactory} of an internal mirror.
+	 *
+	 * @return the customizers
+	 * @since 3.1.0
+	 */
+	public List<Consumer<? super ArchiveResource>> getArchiveResourceCustomizers() {
+		return this.archiveResourceCustomizers;
+	}
+
 	@Override
 	public Distribution getDistribution() throws IOException {
 		Path destination = getRealDestination();
 		Artifact artifact = new DefaultArtifact(this.version, destination);
-		if (!Files.exists(destination.resolve(".extracted"))) {
+		if (this.store != null) {
+			Files.createDirectories(destination);
+			this.store.lease(destination);
+		}
+		if (!DistributionManifest.isValid(destination)) {
 			Files.createDirectories(destination);
 			Path lockFile = destination.resolve(".lock");
 			try (FileLock fileLock = FileLock.of(lockFile)) {
@@ -215,18 +418,49 @@ public final class RemoteArtifact implements Artifact {
 					throw new IllegalStateException("File lock cannot be acquired for a file '" + lockFile + "'");
 				}
 				log.info("The lock to the file '{}' was acquired", lockFile);
-				if (!Files.exists(destination.resolve(".extracted"))) {
-					Resource resource = download();
-					log.info("Extracts '{}' into '{}' directory", resource, destination);
-					ArchiveResource archiveResource = new ArchiveResource(resource);
-					archiveResource.extract(destination);
+				if (!DistributionManifest.isValid(destination)) {
+					DistributionManifest.reset(destination);
+					String digest;
+					if (this.streamingEnabled) {
+						digest = stream(destination);
+					}
+					else {
+						FileDownloader.Download download = download(destination, (downloader, url, checksum) -> {
+							FileDownloader.Download result = downloader.download(url, destination,
+									new DefaultProgressListener(url, this.version));
+							try {
+								checksum.verify(url, result.getDigest());
+							}
+							catch (IOException ex) {
+								Files.deleteIfExists(result.getResource().toPath());
+								throw ex;
+							}
+							return result;
+						});
+						Resource resource = download.getResource();
+						log.info("Extracts '{}' into '{}' directory", resource, destination);
+						ArchiveResource archiveResource = createArchiveResource(resource);
+						archiveResource.extract(destination, this.extractParallelism, this.entryFilter);
+						Files.deleteIfExists(resource.toPath());
+						digest = download.getDigest();
+					}
 					Distribution distribution = artifact.getDistribution();
-					FileUtils.createIfNotExists(destination.resolve(".extracted"));
-					return distribution;
+					DistributionManifest.complete(destination, distribution.getDirectory(), digest, this.store);
+					return DistributionManifest.withDigest(distribution, destination);
 				}
 			}
 		}
-		return artifact.getDistribution();
+		Distribution distribution = DistributionManifest.withDigest(artifact.getDistribution(), destination);
+		if (this.store != null) {
+			this.store.touch(destination);
+		}
+		return distribution;
+	}
+
+	private ArchiveResource createArchiveResource(Resource resource) {
+		ArchiveResource archiveResource = new ArchiveResource(resource);
+		this.archiveResourceCustomizers.forEach(customizer -> customizer.accept(archiveResource));
+		return archiveResource;
 	}
 
 	private Path getRealDestination() {
@@ -237,21 +471,72 @@ public final class RemoteArtifact implements Artifact {
 		if (destination == null) {
 			throw new IllegalStateException("'destination' must not be null");
 		}
-		return destination.resolve(".embedded-cassandra/artifact/remote/" + this.version);
+		return destination.resolve(".embedded-cassandra/artifact/remote/" + this.version
+				+ ArchiveEntryFilters.getDestinationSuffix(this.entryFilter));
+	}
+
+	private String stream(Path destination) throws IOException {
+		Path staging = destination.resolve(".staging");
+		try {
+			FileDownloader.Download download = download(destination, (downloader, url, checksum) -> {
+				FileUtils.delete(staging);
+				log.info("Extracts '{}' into '{}' directory", url, destination);
+				FileDownloader.Download result = downloader.stream(url, new DefaultProgressListener(url, this.version),
+						resource -> createArchiveResource(resource).extract(staging, this.extractParallelism,
+								this.entryFilter));
+				checksum.verify(url, result.getDigest());
+				return result;
+			});
+			try (Stream<Path> stream = Files.list(staging)) {
+				for (Path source : (Iterable<Path>) stream::iterator) {
+					Path target = destination.resolve(source.getFileName().toString());
+					FileUtils.delete(target);
+					Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+				}
+			}
+			return download.getDigest();
+		}
+		finally {
+			FileUtils.delete(staging);
+		}
 	}
 
-	private Resource download() throws IOException {
+	private FileDownloader.Download download(Path destination, DownloadCallback callback) throws IOException {
 		List<Exception> exceptions = new ArrayList<>();
 		List<URL> urls = this.urlFactory.create(this.version);
-		FileDownloader downloader = new FileDownloader(this.readTimeout, this.connectTimeout, this.proxy);
-		for (URL url : urls) {
+		MirrorSelector mirrorSelector = null;
+		if (this.mirrorSelectionEnabled) {
+			mirrorSelector = new MirrorSelector(destination.resolveSibling("mirrors.properties"), this.connectTimeout,
+					this.proxy);
+			urls = mirrorSelector.select(urls);
+		}
+		FileDownloader downloader = new FileDownloader(this.readTimeout, this.connectTimeout, this.proxy,
+				this.connections);
+		Sha512Checksum checksum = new Sha512Checksum(downloader, urls);
+		for (int i = 0; i < urls.size(); i++) {
+			URL url = urls.get(i);
+			// the last mirror is never abandoned for being slow
+			FileDownloader current = (i < urls.size() - 1) ? downloader.withMinThroughput(this.minThroughput)
+					: downloader;
+			long start = System.nanoTime();
 			try {
-				return downloader.download(url, new DefaultProgressListener(url, this.version));
+				FileDownloader.Download download = callback.download(current, url, checksum);
+				if (mirrorSelector != null) {
+					Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+					mirrorSelector.recordSuccess(url, download.getSize(), elapsed);
+				}
+				return download;
 			}
 			catch (ClosedByInterruptException ex) {
 				throw ex;
 			}
 			catch (Exception ex) {
+				if (ex instanceof FileDownloader.SlowDownloadException) {
+					log.warn("{}. Switches to the next mirror", ex.getMessage());
+				}
+				if (mirrorSelector != null) {
+					mirrorSelector.recordFailure(url);
+				}
 				exceptions.add(ex);
 			}
 		}
@@ -260,17 +545,15 @@ public final class RemoteArtifact implements Artifact {
 		throw ex;
 	}
 
-	private interface ProgressListener {
+	@FunctionalInterface
+	private interface DownloadCallback {
 
-		void start();
-
-		void update(long readBytes, long totalBytes);
-
-		void finish();
+		FileDownloader.Download download(FileDownloader downloader, URL url, Sha512Checksum checksum)
+				throws IOException;
 
 	}
 
-	private static final class DefaultProgressListener implements ProgressListener {
+	private static final class DefaultProgressListener implements FileDownloader.ProgressListener {
 
 		private static final long MB = 1024 * 1024;
 
@@ -306,96 +589,4 @@ public final class RemoteArtifact implements Artifact {
 
 	}
 
-	private static final class FileDownloader {
-
-		private final Duration readTimeout;
-
-		private final Duration connectTimeout;
-
-		private final Proxy proxy;
-
-		FileDownloader(Duration readTimeout, Duration connectTimeout, Proxy proxy) {
-			this.readTimeout = readTimeout;
-			this.connectTimeout = connectTimeout;
-			this.proxy = proxy;
-		}
-
-		Resource download(URL url, ProgressListener progressListener) throws IOException {
-			URLConnection connection = connect(url);
-			try (InputStream is = connection.getInputStream()) {
-				long totalSize = connection.getContentLengthLong();
-				Path tempFile = createTempFile(url);
-				progressListener.start();
-				try (OutputStream os = Files.newOutputStream(tempFile)) {
-					byte[] buffer = new byte[8192];
-					long readBytes = 0;
-					int read;
-					while ((read = is.read(buffer)) != -1) {
-						os.write(buffer, 0, read);
-						readBytes += read;
-						if (totalSize > 0 && readBytes > 0) {
-							progressListener.update(readBytes, totalSize);
-						}
-					}
-				}
-				if (Thread.interrupted()) {
-					throw new ClosedByInterruptException();
-				}
-				progressListener.finish();
-				return new FileSystemResource(tempFile);
-			}
-		}
-
-		private URLConnection connect(URL url) throws IOException {
-			int maxRedirects = 10;
-			URL target = url;
-			for (; ; ) {
-				URLConnection connection = connect(target, this.readTimeout, this.connectTimeout, this.proxy);
-				if (connection instanceof HttpURLConnection) {
-					HttpURLConnection httpConnection = (HttpURLConnection) connection;
-					httpConnection.setInstanceFollowRedirects(false);
-					int status = httpConnection.getResponseCode();
-					if (status >= 300 && status <= 307 && status != 306 && status != 304) {
-						if (maxRedirects < 0) {
-							throw new IOException("Too many redirects for URL '" + url + "'");
-						}
-						String location = httpConnection.getHeaderField("Location");
-						if (location != null) {
-							httpConnection.disconnect();
-							maxRedirects--;
-							target = new URL(url, location);
-							continue;
-						}
-					}
-					if (status == HttpURLConnection.HTTP_OK) {
-						return connection;
-					}
-					throw new IOException("HTTP Status '" + status + "' is invalid for URL '" + url + "'");
-				}
-				return connection;
-			}
-
-		}
-
-		private static URLConnection connect(URL url, Duration readTimeout, Duration connectTimeout, Proxy proxy)
-				throws IOException {
-			URLConnection connection = url.openConnection(proxy);
-			connection.setConnectTimeout(Math.toIntExact(connectTimeout.toMillis()));
-			connection.setReadTimeout(Math.toIntExact(readTimeout.toMillis()));
-			return connection;
-		}
-
-		private static Path createTempFile(URL url) throws IOException {
-			String fileName = new UrlResource(url).getFileName();
-			if (!StringUtils.hasText(fileName)) {
-				throw new IllegalArgumentException(
-						String.format("There is no way to determine a file name from a '%s'", url));
-			}
-			Path tempFile = Files.createTempFile("", "-" + fileName);
-			tempFile.toFile().deleteOnExit();
-			return tempFile;
-		}
-
-	}
-
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+
+/**
+ * Verifies a {@code SHA-512} digest against the Apache {@code .sha512} sidecar file. The sidecar is looked up next to
+ * each of the given URLs, in order, and is fetched only once.
+ *
+ * @author Dmytro Nosan
+ */
+final class Sha512Checksum {
+
+	private static final Logger log = LoggerFactory.getLogger(Sha512Checksum.class);
+
+	private static final Pattern DIGEST = Pattern.compile("[0-9a-fA-F]{128}");
+
+	private final FileDownloader downloader;
+
+	private final List<URL> urls;
+
+	private boolean loaded;
+
+	@Nullable
+	private String expected;
+
+	Sha512Checksum(FileDownloader downloader, List<URL> urls) {
+		this.downloader = downloader;
+		this.urls = urls;
+	}
+
+	/**
+	 * Verifies the given digest of the file downloaded from the given URL. If there is no sidecar file available, the
+	 * digest cannot be verified and a warning is logged.
+	 *
+	 * @param url the URL the file was downloaded from
+	 * @param digest the hex-encoded {@code SHA-512} digest of the file
+	 * @throws IOException if the digest does not match the expected one
+	 */
+	void verify(URL url, String digest) throws IOException {
+		String expected = getExpected(url);
+		if (expected == null) {
+			log.warn("SHA-512 checksum of '{}' cannot be verified. There is no '.sha512' file available", url);
+			return;
+		}
+		if (!expected.equalsIgnoreCase(digest)) {
+			throw new IOException("SHA-512 checksum of '" + url + "' does not match. Expected '" + expected
+					+ "', but was '" + digest + "'");
+		}
+		log.info("SHA-512 checksum of '{}' is verified", url);
+	}
+
+	/**
+	 * Parses the content of a {@code .sha512} file. Both {@code sha512sum} ({@code <hash>  <file>}) and {@code gpg
+	 * --print-md} ({@code <file>: <hash in groups>}) formats are supported.
+	 *
+	 * @param content the content
+	 * @return the lower-case hex digest, or {@code null} if the content has no {@code SHA-512} digest
+	 */
+	@Nullable
+	static String parse(String content) {
+		String text = content.trim();
+		String digest = text.split("\\s+", 2)[0];
+		if (!DIGEST.matcher(digest).matches()) {
+			// the file name may contain ':' but the digest groups never do
+			int index = text.lastIndexOf(':');
+			digest = (index != -1) ? text.substring(index + 1).replaceAll("\\s+", "") : "";
+		}
+		return DIGEST.matcher(digest).matches() ? digest.toLowerCase(Locale.ENGLISH) : null;
+	}
+
+	@Nullable
+	private String getExpected(URL url) {
+		if (!this.loaded) {
+			this.loaded = true;
+			for (URL candidate : getCandidates(url)) {
+				try {
+					String expected = parse(this.downloader.read(new URL(candidate + ".sha512")));
+					if (expected != null) {
+						this.expected = expected;
+						break;
+					}
+				}
+				catch (Exception ex) {
+					log.debug("SHA-512 checksum of '" + candidate + "' cannot be read", ex);
+				}
+			}
+		}
+		return this.expected;
+	}
+
+	private List<URL> getCandidates(URL url) {
+		List<URL> candidates = new ArrayList<>(this.urls);
+		candidates.removeIf(candidate -> candidate.toString().equals(url.toString()));
+		candidates.add(0, url);
+		return candidates;
+	}
+
+}
@@ -54,6 +54,8 @@ class AbstractCassandraNodeTests {
 
 	private final Map<String, Object> environmentVariables = new LinkedHashMap<>();
 
+	private final StartupRecorder recorder = new StartupRecorder();
+
 	private Path workingDirectory;
 
 	@BeforeEach
@@ -109,6 +111,12 @@ class AbstractCassandraNodeTests {
 		});
 	}
 
+	@Test
+	void doStartWithMalformedJmxPort() throws Exception {
+		this.systemProperties.put("cassandra.jmx.local.port", "jmx");
+		start(process -> assertThat(getSystemProperties(process)).containsEntry("cassandra.jmx.local.port", "jmx"));
+	}
+
 	@Test
 	void doStartWithJvmOptions() throws Exception {
 		this.jvmOptions.add("-Xmx512m");
@@ -121,11 +129,19 @@ class AbstractCassandraNodeTests {
 		start(process -> assertThat(process.getEnvironment()).containsEntry("KEY", "VALUE"));
 	}
 
+	@Test
+	void doStartRecordsStartupPhases() throws Exception {
+		start(process -> {
+		});
+		assertThat(this.recorder.report().getDurations()).containsOnlyKeys(StartupReport.Phase.CONFIGURATION,
+				StartupReport.Phase.PROCESS_SPAWN);
+	}
+
 	private void start(RunProcessConsumer consumer) throws IOException, InterruptedException {
 		MockProcess mockProcess = new MockProcess();
 		AbstractCassandraNode node = new AbstractCassandraNode(this.workingDirectory, this.properties, this.jvmOptions,
 				this.systemProperties,
-				this.environmentVariables) {
+				this.environmentVariables, null, this.recorder) {
 
 			@Override
 			protected Process doStart(RunProcess runProcess) throws IOException {
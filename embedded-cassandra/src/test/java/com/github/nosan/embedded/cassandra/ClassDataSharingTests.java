@@ -0,0 +1,200 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ClassDataSharing}.
+ *
+ * @author Dmytro Nosan
+ */
+@DisabledOnOs(OS.WINDOWS)
+class ClassDataSharingTests {
+
+	private final Path javaHome = Paths.get(System.getProperty("java.home"));
+
+	private final int javaVersion = ClassDataSharing.getJavaVersion(this.javaHome);
+
+	@Test
+	void trainingAndReuse(@TempDir Path temporaryFolder) throws Exception {
+		Path jar = createJar(temporaryFolder);
+		ClassDataSharing classDataSharing = new ClassDataSharing(temporaryFolder.resolve("cds"), "key", this.javaHome,
+				this.javaVersion, Collections.singletonList(jar), temporaryFolder.resolve("conf"), Runnable::run);
+		List<String> jvmOptions = classDataSharing.getJvmOptions();
+		assertThat(jvmOptions).hasSize(1).allMatch(option -> option.startsWith("-XX:DumpLoadedClassList="));
+		assertThat(run(classDataSharing, jvmOptions)).contains("probe");
+		classDataSharing.complete().get();
+		Path archive = temporaryFolder.resolve("cds/key.jsa");
+		assertThat(archive).isRegularFile();
+		assertThat(temporaryFolder.resolve("cds")).isDirectoryNotContaining("glob:**.tmp");
+		jvmOptions = new ArrayList<>(classDataSharing.getJvmOptions());
+		assertThat(jvmOptions).containsExactly("-Xshare:auto", "-XX:SharedArchiveFile=" + archive);
+		jvmOptions.add("-Xlog:class+load=info");
+		assertThat(run(classDataSharing, jvmOptions))
+				.anyMatch(line -> line.contains(Probe.class.getName() + " source: shared objects file"));
+	}
+
+	@Test
+	void trainingWithIncompleteClassList(@TempDir Path temporaryFolder) throws Exception {
+		Path jar = createJar(temporaryFolder);
+		ClassDataSharing classDataSharing = new ClassDataSharing(temporaryFolder.resolve("cds"), "key", this.javaHome,
+				this.javaVersion, Collections.singletonList(jar), temporaryFolder.resolve("conf"), Runnable::run);
+		String option = classDataSharing.getJvmOptions().get(0);
+		Path classList = Paths.get(option.substring(option.indexOf('=') + 1));
+		Files.write(classList, "java/lang/Object\njava/lang/Str".getBytes(StandardCharsets.UTF_8));
+		classDataSharing.complete().get();
+		assertThat(temporaryFolder.resolve("cds/key.jsa")).isRegularFile();
+		assertThat(classList).doesNotExist();
+	}
+
+	@Test
+	void trainingWithoutClassList(@TempDir Path temporaryFolder) throws Exception {
+		ClassDataSharing classDataSharing = new ClassDataSharing(temporaryFolder, "key", this.javaHome,
+				this.javaVersion, Collections.singletonList(createJar(temporaryFolder)),
+				temporaryFolder.resolve("conf"), Runnable::run);
+		assertThat(classDataSharing.getJvmOptions()).anyMatch(option -> option.startsWith("-XX:DumpLoadedClassList"));
+		classDataSharing.complete().get();
+		assertThat(temporaryFolder.resolve("key.jsa")).doesNotExist();
+	}
+
+	@Test
+	void trainingWithConfResourceInJar(@TempDir Path temporaryFolder) throws Exception {
+		Path jar = temporaryFolder.resolve("logback.jar");
+		try (JarOutputStream os = new JarOutputStream(Files.newOutputStream(jar))) {
+			os.putNextEntry(new JarEntry("logback.xml"));
+			os.closeEntry();
+		}
+		Files.createDirectories(temporaryFolder.resolve("conf"));
+		Files.createFile(temporaryFolder.resolve("conf/logback.xml"));
+		ClassDataSharing classDataSharing = new ClassDataSharing(temporaryFolder.resolve("cds"), "key", this.javaHome,
+				this.javaVersion, Collections.singletonList(jar), temporaryFolder.resolve("conf"), Runnable::run);
+		String option = classDataSharing.getJvmOptions().get(0);
+		Path classList = Paths.get(option.substring(option.indexOf('=') + 1));
+		Files.write(classList, "java/lang/Object\n".getBytes(StandardCharsets.UTF_8));
+		classDataSharing.complete().get();
+		assertThat(temporaryFolder.resolve("cds/key.jsa")).doesNotExist();
+		assertThat(classList).doesNotExist();
+	}
+
+	@Test
+	void writeInclude(@TempDir Path temporaryFolder) throws Exception {
+		ClassDataSharing classDataSharing = new ClassDataSharing(temporaryFolder.resolve("cds"), "key", this.javaHome,
+				this.javaVersion, Arrays.asList(Paths.get("/cassandra/lib/a.jar"), Paths.get("/cassandra/lib/b.jar")),
+				temporaryFolder.resolve("conf"), Runnable::run);
+		Path workingDirectory = temporaryFolder.resolve("work");
+		Files.createDirectories(workingDirectory.resolve("bin"));
+		Files.write(workingDirectory.resolve("bin/cassandra.in.sh"), Collections.singletonList(
+				"CLASSPATH=\"$CASSANDRA_CONF:$CASSANDRA_HOME/lib/a.jar:$CASSANDRA_HOME/lib/b.jar:/jsr223/c.jar\""));
+		classDataSharing.getJvmOptions();
+		assertThat(classDataSharing.writeInclude(workingDirectory)).isNull();
+		Files.createFile(temporaryFolder.resolve("cds/key.jsa"));
+		classDataSharing.getJvmOptions();
+		Path include = classDataSharing.writeInclude(workingDirectory);
+		assertThat(include).isNotNull();
+		RunProcess runProcess = new RunProcess(workingDirectory, "sh", "-c",
+				". ./cassandra-cds.in.sh; echo \"$CLASSPATH\"");
+		runProcess.putEnvironment("CASSANDRA_HOME", "/home");
+		runProcess.putEnvironment("CASSANDRA_CONF", "/home/conf");
+		List<String> output = new ArrayList<>();
+		assertThat(runProcess.run(output::add)).isZero();
+		assertThat(output).containsExactly("/cassandra/lib/a.jar:/cassandra/lib/b.jar:/home/conf:/jsr223/c.jar");
+	}
+
+	@Test
+	void getClassPath(@TempDir Path temporaryFolder) throws IOException {
+		assertThat(ClassDataSharing.getClassPath(temporaryFolder)).isEmpty();
+		Files.createDirectories(temporaryFolder.resolve("lib/sigar-bin"));
+		Files.createFile(temporaryFolder.resolve("lib/b.jar"));
+		Files.createFile(temporaryFolder.resolve("lib/a.jar"));
+		Files.createFile(temporaryFolder.resolve("lib/licenses.txt"));
+		assertThat(ClassDataSharing.getClassPath(temporaryFolder))
+				.containsExactly(temporaryFolder.resolve("lib/a.jar"), temporaryFolder.resolve("lib/b.jar"));
+	}
+
+	@Test
+	void getJavaVersion(@TempDir Path temporaryFolder) throws IOException {
+		assertThat(ClassDataSharing.getJavaVersion(temporaryFolder)).isEqualTo(-1);
+		Path release = temporaryFolder.resolve("release");
+		Files.write(release, Collections.singletonList("JAVA_VERSION=\"1.8.0_252\""));
+		assertThat(ClassDataSharing.getJavaVersion(temporaryFolder)).isEqualTo(8);
+		Files.write(release, Collections.singletonList("JAVA_VERSION=\"17.0.2\""));
+		assertThat(ClassDataSharing.getJavaVersion(temporaryFolder)).isEqualTo(17);
+		Files.write(release, Collections.singletonList("JAVA_VERSION=\"13\""));
+		assertThat(ClassDataSharing.getJavaVersion(temporaryFolder)).isEqualTo(13);
+	}
+
+	private List<String> run(ClassDataSharing classDataSharing, List<String> jvmOptions) throws Exception {
+		RunProcess runProcess = new RunProcess(null, this.javaHome.resolve("bin/java"));
+		runProcess.addArguments(jvmOptions.toArray());
+		runProcess.addArguments("-cp", classDataSharing.getClassPath(), Probe.class.getName());
+		List<String> output = new ArrayList<>();
+		assertThat(runProcess.run(output::add)).isZero();
+		return output;
+	}
+
+	private static Path createJar(Path directory) throws IOException {
+		Path jar = directory.resolve("probe.jar");
+		String name = Probe.class.getName().replace('.', '/') + ".class";
+		try (JarOutputStream os = new JarOutputStream(Files.newOutputStream(jar));
+				InputStream is = Probe.class.getClassLoader().getResourceAsStream(name)) {
+			os.putNextEntry(new JarEntry(name));
+			copy(is, os);
+			os.closeEntry();
+		}
+		return jar;
+	}
+
+	private static void copy(InputStream is, OutputStream os) throws IOException {
+		byte[] buffer = new byte[8192];
+		int read;
+		while ((read = is.read(buffer)) != -1) {
+			os.write(buffer, 0, read);
+		}
+	}
+
+	/**
+	 * Application class loaded by the training and the reuse runs.
+	 */
+	public static final class Probe {
+
+		public static void main(String[] args) {
+			System.out.println("probe");
+		}
+
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DataSnapshot}.
+ *
+ * @author Dmytro Nosan
+ */
+class DataSnapshotTests {
+
+	@Test
+	void createAndRestore(@TempDir Path temporaryFolder) throws IOException {
+		Path workingDirectory = temporaryFolder.resolve("work");
+		Files.createDirectories(workingDirectory.resolve("data/commitlog"));
+		Files.write(workingDirectory.resolve("data/commitlog/segment.log"), new byte[]{1, 2, 3});
+		DataSnapshot snapshot = new DataSnapshot(temporaryFolder.resolve("snapshots"), "key");
+		assertThat(snapshot.exists()).isFalse();
+		snapshot.create(workingDirectory.resolve("data"));
+		assertThat(snapshot.exists()).isTrue();
+		Path newWorkingDirectory = temporaryFolder.resolve("new-work");
+		Files.createDirectories(newWorkingDirectory.resolve("data"));
+		Files.createFile(newWorkingDirectory.resolve("data/stale"));
+		snapshot.restore(newWorkingDirectory.resolve("data"));
+		assertThat(newWorkingDirectory.resolve("data/commitlog/segment.log")).hasBinaryContent(new byte[]{1, 2, 3});
+		assertThat(newWorkingDirectory.resolve("data/stale")).doesNotExist();
+	}
+
+	@Test
+	void createAndRestoreCompressed(@TempDir Path temporaryFolder) throws IOException {
+		Path workingDirectory = temporaryFolder.resolve("work");
+		Files.createDirectories(workingDirectory.resolve("data/data/system"));
+		Files.createDirectories(workingDirectory.resolve("data/hints"));
+		Files.write(workingDirectory.resolve("data/data/system/table.db"), new byte[]{1, 2, 3});
+		DataSnapshot snapshot = new DataSnapshot(temporaryFolder.resolve("images"), "key", true, null);
+		assertThat(snapshot.exists()).isFalse();
+		snapshot.create(workingDirectory.resolve("data"));
+		assertThat(snapshot.exists()).isTrue();
+		assertThat(temporaryFolder.resolve("images/key/data.tar.gz")).isRegularFile();
+		assertThat(temporaryFolder.resolve("images/key/data")).doesNotExist();
+		Path newWorkingDirectory = temporaryFolder.resolve("new-work");
+		Files.createDirectories(newWorkingDirectory.resolve("data"));
+		Files.createFile(newWorkingDirectory.resolve("data/stale"));
+		snapshot.restore(newWorkingDirectory.resolve("data"));
+		assertThat(newWorkingDirectory.resolve("data/data/system/table.db")).hasBinaryContent(new byte[]{1, 2, 3});
+		assertThat(newWorkingDirectory.resolve("data/hints")).isDirectory();
+		assertThat(newWorkingDirectory.resolve("data/stale")).doesNotExist();
+	}
+
+	@Test
+	void createWithoutNodeIdentity(@TempDir Path temporaryFolder) throws IOException {
+		Path dataDirectory = temporaryFolder.resolve("work/data");
+		Files.createDirectories(dataDirectory.resolve("commitlog"));
+		Files.createDirectories(dataDirectory.resolve("data/system/local-7ad54392bcdd35a684174e047860b377"));
+		Files.createDirectories(dataDirectory.resolve("data/system/peers-37f71aca7dc2383ba70672528af04d4f"));
+		Files.createDirectories(dataDirectory.resolve("data/system_schema/tables-afddfb9dbc1e30688056eed6c302ba09"));
+		Files.write(dataDirectory.resolve("commitlog/segment.log"), new byte[]{1});
+		Files.write(dataDirectory.resolve("data/system/local-7ad54392bcdd35a684174e047860b377/local.db"),
+				new byte[]{2});
+		Files.write(dataDirectory.resolve("data/system/peers-37f71aca7dc2383ba70672528af04d4f/peers.db"),
+				new byte[]{3});
+		Files.write(dataDirectory.resolve("data/system_schema/tables-afddfb9dbc1e30688056eed6c302ba09/tables.db"),
+				new byte[]{4});
+		for (boolean compressed : new boolean[]{false, true}) {
+			DataSnapshot snapshot = new DataSnapshot(temporaryFolder.resolve("images"), "key-" + compressed,
+					compressed, DataSnapshot::isShareable);
+			snapshot.create(dataDirectory);
+			Path newDataDirectory = temporaryFolder.resolve("new-work-" + compressed + "/data");
+			snapshot.restore(newDataDirectory);
+			assertThat(newDataDirectory.resolve("data/system_schema/tables-afddfb9dbc1e30688056eed6c302ba09/tables.db"))
+					.hasBinaryContent(new byte[]{4});
+			assertThat(newDataDirectory.resolve("data/system/local-7ad54392bcdd35a684174e047860b377")).doesNotExist();
+			assertThat(newDataDirectory.resolve("data/system/peers-37f71aca7dc2383ba70672528af04d4f")).doesNotExist();
+			assertThat(newDataDirectory.resolve("commitlog")).doesNotExist();
+		}
+	}
+
+	@Test
+	void shouldNotOverrideSnapshot(@TempDir Path temporaryFolder) throws IOException {
+		Path workingDirectory = temporaryFolder.resolve("work");
+		Files.createDirectories(workingDirectory.resolve("data"));
+		Files.write(workingDirectory.resolve("data/file"), new byte[]{1});
+		DataSnapshot snapshot = new DataSnapshot(temporaryFolder.resolve("snapshots"), "key");
+		snapshot.create(workingDirectory.resolve("data"));
+		Files.write(workingDirectory.resolve("data/file"), new byte[]{2});
+		snapshot.create(workingDirectory.resolve("data"));
+		assertThat(temporaryFolder.resolve("snapshots/key/data/file")).hasBinaryContent(new byte[]{1});
+	}
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DirectoryReaper}.
+ *
+ * @author Dmytro Nosan
+ */
+class DirectoryReaperTests {
+
+	private final DirectoryReaper reaper = new DirectoryReaper(2);
+
+	@Test
+	void deleteDirectory(@TempDir Path temporaryFolder) throws Exception {
+		Path directory = temporaryFolder.resolve("work");
+		Files.createDirectories(directory.resolve("a").resolve("b"));
+		Files.createFile(directory.resolve("a").resolve("b").resolve("file.txt"));
+		Files.createFile(directory.resolve("file.txt"));
+		Path target = Files.createFile(temporaryFolder.resolve("target.txt"));
+		Files.createSymbolicLink(directory.resolve("link"), target);
+		this.reaper.delete(directory).get(10, TimeUnit.SECONDS);
+		assertThat(directory).doesNotExist();
+		assertThat(target).exists();
+		assertThat(temporaryFolder.resolve(".embedded-cassandra-trash")).isEmptyDirectory();
+	}
+
+	@Test
+	void pathCanBeReusedImmediately(@TempDir Path temporaryFolder) throws Exception {
+		Path directory = temporaryFolder.resolve("work");
+		Files.createDirectories(directory.resolve("a"));
+		Files.createFile(directory.resolve("a").resolve("file.txt"));
+		this.reaper.delete(directory);
+		assertThat(directory).doesNotExist();
+		Files.createDirectories(directory);
+		assertThat(this.reaper.await(10000)).isTrue();
+		assertThat(directory).exists();
+		assertThat(temporaryFolder.resolve(".embedded-cassandra-trash")).isEmptyDirectory();
+	}
+
+	@Test
+	void sweepTrashOfExitedJvms(@TempDir Path temporaryFolder) throws Exception {
+		Path trash = temporaryFolder.resolve(".embedded-cassandra-trash");
+		String namespace = (String) ReflectionTestUtils.getField(DirectoryReaper.class, "NAMESPACE");
+		Path exited = Files.createDirectories(
+				trash.resolve("work-" + namespace + "-999999999-" + UUID.randomUUID()).resolve("a"));
+		Path unknown = Files.createDirectories(trash.resolve("work-" + UUID.randomUUID()));
+		Path running = Files.createDirectories(
+				trash.resolve("work-" + namespace + "-" + ProcessHandle.current().pid() + "-" + UUID.randomUUID()));
+		String otherNamespace = namespace.equals("00000000") ? "00000001" : "00000000";
+		Path otherHost = Files.createDirectories(
+				trash.resolve("work-" + otherNamespace + "-999999999-" + UUID.randomUUID()));
+		this.reaper.sweep(temporaryFolder.resolve("work"));
+		assertThat(this.reaper.await(10000)).isTrue();
+		assertThat(exited.getParent()).doesNotExist();
+		try (Stream<Path> stream = Files.list(trash)) {
+			assertThat(stream).containsExactlyInAnyOrder(unknown, running, otherHost);
+		}
+	}
+
+	@Test
+	void deleteNotExists(@TempDir Path temporaryFolder) throws Exception {
+		assertThat(this.reaper.delete(temporaryFolder.resolve("work"))).isCompleted();
+		assertThat(this.reaper.await(1000)).isTrue();
+	}
+
+}
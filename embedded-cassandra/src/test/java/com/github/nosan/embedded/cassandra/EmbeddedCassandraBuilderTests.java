@@ -24,6 +24,8 @@ import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledOnOs;
@@ -80,6 +82,25 @@ class EmbeddedCassandraBuilderTests {
 				temporaryFolder);
 	}
 
+	@Test
+	void testExecutor(@TempDir Path temporaryFolder) {
+		Executor executor = Runnable::run;
+		this.builder.withExecutor(executor);
+		this.builder.withArtifact(() -> new DefaultDistribution(Version.of("4.0-alpha3"), temporaryFolder));
+		Cassandra cassandra = this.builder.create();
+		assertThat(cassandra).hasFieldOrPropertyWithValue("executor", executor);
+	}
+
+	@Test
+	void testStartupListener(@TempDir Path temporaryFolder) {
+		Consumer<StartupReport> startupListener = report -> {
+		};
+		this.builder.withStartupListener(startupListener);
+		this.builder.withArtifact(() -> new DefaultDistribution(Version.of("4.0-alpha3"), temporaryFolder));
+		Cassandra cassandra = this.builder.create();
+		assertThat(cassandra).hasFieldOrPropertyWithValue("startupListener", startupListener);
+	}
+
 	@Test
 	void testJavaHome(@TempDir Path temporaryFolder) {
 		this.builder.withJavaHome(temporaryFolder);
@@ -248,6 +269,15 @@ class EmbeddedCassandraBuilderTests {
 				Collections.singletonMap("rpc_address", localhost.getHostAddress()));
 	}
 
+	@Test
+	void testAsyncTeardownEnabled(@TempDir Path temporaryFolder) {
+		this.builder.withAsyncTeardownEnabled(true);
+		this.builder.withArtifact(() -> new DefaultDistribution(Version.of("4.0-alpha3"), temporaryFolder));
+		Cassandra cassandra = this.builder.create();
+		Object database = ReflectionTestUtils.getField(cassandra, "database");
+		assertThat(ReflectionTestUtils.getField(database, "reaper")).isSameAs(DirectoryReaper.getInstance());
+	}
+
 	@Test
 	@SuppressWarnings("unchecked")
 	void testShutdownHook() throws Exception {
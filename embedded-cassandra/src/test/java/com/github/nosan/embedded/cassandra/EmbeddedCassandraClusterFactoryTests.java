@@ -0,0 +1,117 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.net.InetAddress;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.github.nosan.embedded.cassandra.api.Cassandra;
+import com.github.nosan.embedded.cassandra.api.Version;
+import com.github.nosan.embedded.cassandra.artifact.DefaultDistribution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link EmbeddedCassandraClusterFactory}.
+ *
+ * @author Dmytro Nosan
+ */
+class EmbeddedCassandraClusterFactoryTests {
+
+	private final EmbeddedCassandraClusterFactory clusterFactory = new EmbeddedCassandraClusterFactory();
+
+	@BeforeEach
+	void setUp(@TempDir Path temporaryFolder) {
+		this.clusterFactory.setRegisterShutdownHook(false);
+		this.clusterFactory.setArtifact(() -> new DefaultDistribution(Version.of("4.0-alpha3"), temporaryFolder));
+	}
+
+	@Test
+	void testNodes() throws Exception {
+		this.clusterFactory.setName("cluster");
+		this.clusterFactory.setNodes(2);
+		EmbeddedCassandraCluster cluster = this.clusterFactory.create();
+		assertThat(cluster.getName()).isEqualTo("cluster");
+		assertThat(cluster.getVersion()).isEqualTo(Version.of("4.0-alpha3"));
+		List<Cassandra> nodes = cluster.getNodes();
+		assertThat(nodes).extracting(Cassandra::getName).containsExactly("cluster-node-0", "cluster-node-1");
+		for (int i = 0; i < nodes.size(); i++) {
+			Object node = getNode(nodes.get(i));
+			String address = "127.0.0." + (i + 1);
+			assertThat(node).extracting("properties").asInstanceOf(InstanceOfAssertFactories.MAP)
+					.containsEntry("listen_address", address).containsEntry("rpc_address", address)
+					.containsEntry("auto_bootstrap", false).containsKey("seed_provider");
+			assertThat(node).extracting("systemProperties").asInstanceOf(InstanceOfAssertFactories.MAP)
+					.containsEntry("cassandra.consistent.rangemovement", false)
+					.containsEntry("cassandra.jmx.local.port", 0);
+		}
+		assertThat(getNode(nodes.get(1))).extracting("properties").asInstanceOf(InstanceOfAssertFactories.MAP)
+				.extractingByKey("seed_provider").asString().contains("seeds=127.0.0.1");
+	}
+
+	@Test
+	void testNodeCustomizer() {
+		this.clusterFactory.setNodeCustomizer((index, cassandraFactory) -> {
+			cassandraFactory.getConfigProperties().put("index", index);
+			cassandraFactory.setStartupProfile(StartupProfile.FAST_BOOT);
+		});
+		List<Cassandra> nodes = this.clusterFactory.create().getNodes();
+		assertThat(nodes).hasSize(3);
+		List<Map<String, Object>> properties = nodes.stream().map(EmbeddedCassandraClusterFactoryTests::getNode)
+				.map(EmbeddedCassandraClusterFactoryTests::getProperties)
+				.collect(Collectors.toList());
+		assertThat(properties).extracting((Map<String, Object> map) -> map.get("index")).containsExactly(0, 1, 2);
+		assertThat(properties).extracting((Map<String, Object> map) -> map.get("num_tokens")).containsOnly(1);
+		assertThat(properties).extracting((Map<String, Object> map) -> map.get("initial_token"))
+				.containsExactly("-9223372036854775808", "-3074457345618258603", "3074457345618258602");
+	}
+
+	@Test
+	void testAddress() throws Exception {
+		this.clusterFactory.setNodes(1);
+		EmbeddedCassandraCluster cluster = this.clusterFactory.create();
+		assertThat(cluster.getAddress()).isNull();
+		assertThat(getNode(cluster.getNodes().get(0))).extracting("properties")
+				.asInstanceOf(InstanceOfAssertFactories.MAP)
+				.containsEntry("rpc_address", InetAddress.getByName("127.0.0.1").getHostAddress());
+	}
+
+	@Test
+	void invalidNodes() {
+		assertThatThrownBy(() -> this.clusterFactory.setNodes(0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> getProperties(Object node) {
+		return (Map<String, Object>) ReflectionTestUtils.getField(node, "properties");
+	}
+
+	private static Object getNode(Cassandra cassandra) {
+		return ReflectionTestUtils.getField(ReflectionTestUtils.getField(cassandra, "database"), "node");
+	}
+
+}
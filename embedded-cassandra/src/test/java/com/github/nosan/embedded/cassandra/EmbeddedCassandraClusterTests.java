@@ -0,0 +1,112 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.nosan.embedded.cassandra.api.Cassandra;
+import com.github.nosan.embedded.cassandra.api.CassandraException;
+import com.github.nosan.embedded.cassandra.api.Version;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link EmbeddedCassandraCluster}.
+ *
+ * @author Dmytro Nosan
+ */
+class EmbeddedCassandraClusterTests {
+
+	private final List<String> events = new CopyOnWriteArrayList<>();
+
+	@Test
+	void startSeedFirstAndStop() {
+		EmbeddedCassandraCluster cluster = new EmbeddedCassandraCluster("cluster", Version.of("4.0-alpha3"),
+				Arrays.asList(new TestCassandra("seed", false), new TestCassandra("node", false)), Runnable::run);
+		cluster.start();
+		assertThat(this.events).containsExactly("seed-start", "node-start");
+		assertThat(cluster.getPort()).isEqualTo(9042);
+		cluster.stop();
+		assertThat(this.events).contains("seed-stop", "node-stop");
+	}
+
+	@Test
+	void rollingRestart() {
+		EmbeddedCassandraCluster cluster = new EmbeddedCassandraCluster("cluster", Version.of("4.0-alpha3"),
+				Arrays.asList(new TestCassandra("seed", false), new TestCassandra("node", false)), Runnable::run);
+		cluster.restart();
+		assertThat(this.events).containsExactly("seed-start", "node-start");
+		this.events.clear();
+		cluster.restart();
+		assertThat(this.events).containsExactly("seed-stop", "seed-start", "node-stop", "node-start");
+	}
+
+	@Test
+	void stopWhenNodeCannotBeStarted() {
+		EmbeddedCassandraCluster cluster = new EmbeddedCassandraCluster("cluster", Version.of("4.0-alpha3"),
+				Arrays.asList(new TestCassandra("seed", false), new TestCassandra("node", true)), Runnable::run);
+		assertThatThrownBy(cluster::start).isInstanceOf(CassandraException.class).hasMessageContaining("node");
+		assertThat(this.events).contains("seed-stop", "node-stop");
+	}
+
+	private final class TestCassandra implements Cassandra {
+
+		private final String name;
+
+		private final boolean fail;
+
+		TestCassandra(String name, boolean fail) {
+			this.name = name;
+			this.fail = fail;
+		}
+
+		@Override
+		public void start() {
+			if (this.fail) {
+				throw new CassandraException("Unable to start " + this.name);
+			}
+			EmbeddedCassandraClusterTests.this.events.add(this.name + "-start");
+		}
+
+		@Override
+		public void stop() {
+			EmbeddedCassandraClusterTests.this.events.add(this.name + "-stop");
+		}
+
+		@Override
+		public String getName() {
+			return this.name;
+		}
+
+		@Override
+		public Version getVersion() {
+			return Version.of("4.0-alpha3");
+		}
+
+		@Override
+		public int getPort() {
+			return 9042;
+		}
+
+	}
+
+}
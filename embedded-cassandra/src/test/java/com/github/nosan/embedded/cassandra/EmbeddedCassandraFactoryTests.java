@@ -21,10 +21,14 @@ import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
+import org.assertj.core.api.InstanceOfAssertFactories;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledOnOs;
 import org.junit.jupiter.api.condition.OS;
@@ -34,12 +38,17 @@ import org.slf4j.LoggerFactory;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import com.github.nosan.embedded.cassandra.api.Cassandra;
+import com.github.nosan.embedded.cassandra.api.CassandraCreationException;
 import com.github.nosan.embedded.cassandra.api.Version;
+import com.github.nosan.embedded.cassandra.api.connection.CassandraConnectionFactory;
+import com.github.nosan.embedded.cassandra.api.cql.CqlDataSet;
 import com.github.nosan.embedded.cassandra.artifact.Artifact;
 import com.github.nosan.embedded.cassandra.artifact.DefaultDistribution;
 import com.github.nosan.embedded.cassandra.commons.io.FileSystemResource;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Tests for {@link EmbeddedCassandraFactory}.
@@ -81,6 +90,210 @@ class EmbeddedCassandraFactoryTests {
 				temporaryFolder);
 	}
 
+	@Test
+	void testExecutor(@TempDir Path temporaryFolder) {
+		Executor executor = Runnable::run;
+		this.cassandraFactory.setExecutor(executor);
+		assertThat(this.cassandraFactory.getExecutor()).isEqualTo(executor);
+		this.cassandraFactory.setArtifact(() -> new DefaultDistribution(Version.of("4.0-alpha3"), temporaryFolder));
+		Cassandra cassandra = this.cassandraFactory.create();
+		assertThat(cassandra).hasFieldOrPropertyWithValue("executor", executor);
+	}
+
+	@Test
+	void testStartupListener(@TempDir Path temporaryFolder) {
+		Consumer<StartupReport> startupListener = report -> {
+		};
+		this.cassandraFactory.setStartupListener(startupListener);
+		assertThat(this.cassandraFactory.getStartupListener()).isEqualTo(startupListener);
+		this.cassandraFactory.setArtifact(() -> new DefaultDistribution(Version.of("4.0-alpha3"), temporaryFolder));
+		Cassandra cassandra = this.cassandraFactory.create();
+		assertThat(cassandra).hasFieldOrPropertyWithValue("startupListener", startupListener);
+		Object database = ReflectionTestUtils.getField(cassandra, "database");
+		assertThat(((CassandraDatabase) database).getStartupReport().getDurations())
+				.containsOnlyKeys(StartupReport.Phase.ARTIFACT_RESOLUTION);
+	}
+
+	@Test
+	void testStartupProfile(@TempDir Path temporaryFolder) {
+		assertThat(this.cassandraFactory.getStartupProfile()).isEqualTo(StartupProfile.DEFAULT);
+		this.cassandraFactory.setStartupProfile(StartupProfile.FAST_BOOT);
+		assertThat(this.cassandraFactory.getStartupProfile()).isEqualTo(StartupProfile.FAST_BOOT);
+		this.cassandraFactory.getConfigProperties().put("hinted_handoff_enabled", true);
+		this.cassandraFactory.setArtifact(() -> new DefaultDistribution(Version.of("4.0-alpha3"), temporaryFolder));
+		Cassandra cassandra = this.cassandraFactory.create();
+		Object node = ReflectionTestUtils.getField(ReflectionTestUtils.getField(cassandra, "database"), "node");
+		assertThat(node).extracting("properties").asInstanceOf(InstanceOfAssertFactories.MAP)
+				.containsEntry("hinted_handoff_enabled", true).containsEntry("num_tokens", 1);
+		assertThat(node).extracting("systemProperties").asInstanceOf(InstanceOfAssertFactories.MAP)
+				.containsEntry("cassandra.skip_wait_for_gossip_to_settle", 0);
+	}
+
+	@Test
+	void testClassDataSharingEnabled(@TempDir Path temporaryFolder) throws IOException {
+		this.cassandraFactory.setClassDataSharingEnabled(true);
+		assertThat(this.cassandraFactory.isClassDataSharingEnabled()).isTrue();
+		Path javaHome = Files.createDirectories(temporaryFolder.resolve("java"));
+		Files.write(javaHome.resolve("release"), Collections.singletonList("JAVA_VERSION=\"14.0.1\""));
+		this.cassandraFactory.setJavaHome(javaHome);
+		Path directory = Files.createDirectories(temporaryFolder.resolve("apache-cassandra-4.0-alpha3"));
+		Files.createDirectories(directory.resolve("lib"));
+		Files.createFile(directory.resolve("lib/apache-cassandra-4.0-alpha3.jar"));
+		this.cassandraFactory.setArtifact(() -> new DefaultDistribution(Version.of("4.0-alpha3"), directory));
+		Cassandra cassandra = this.cassandraFactory.create();
+		Object node = ReflectionTestUtils.getField(ReflectionTestUtils.getField(cassandra, "database"), "node");
+		assertThat(node).extracting("classDataSharing").isInstanceOf(ClassDataSharing.class)
+				.hasFieldOrPropertyWithValue("classPath",
+						Collections.singletonList(directory.resolve("lib/apache-cassandra-4.0-alpha3.jar")));
+		Files.write(javaHome.resolve("release"), Collections.singletonList("JAVA_VERSION=\"1.8.0_252\""));
+		cassandra = this.cassandraFactory.create();
+		node = ReflectionTestUtils.getField(ReflectionTestUtils.getField(cassandra, "database"), "node");
+		assertThat(node).extracting("classDataSharing").isNull();
+	}
+
+	@Test
+	void testStorageModeMemory(@TempDir Path temporaryFolder) throws IOException {
+		Path memoryDirectory = Files.createDirectories(temporaryFolder.resolve("shm"));
+		this.cassandraFactory.setStorageMode(StorageMode.MEMORY);
+		this.cassandraFactory.setMemoryDirectory(memoryDirectory);
+		assertThat(this.cassandraFactory.getStorageMode()).isEqualTo(StorageMode.MEMORY);
+		assertThat(this.cassandraFactory.getMemoryDirectory()).isEqualTo(memoryDirectory);
+		this.cassandraFactory.getConfigProperties().put("commitlog_directory", "commitlog");
+		this.cassandraFactory.setArtifact(() -> new DefaultDistribution(Version.of("4.0-alpha3"), temporaryFolder));
+		Cassandra cassandra = this.cassandraFactory.create();
+		Object database = ReflectionTestUtils.getField(cassandra, "database");
+		Path dataDirectory = (Path) ReflectionTestUtils.getField(database, "dataDirectory");
+		assertThat(dataDirectory).hasParentRaw(memoryDirectory).doesNotExist();
+		assertThat(ReflectionTestUtils.getField(database, "node")).extracting("properties")
+				.asInstanceOf(InstanceOfAssertFactories.MAP)
+				.containsEntry("data_file_directories", Collections.singletonList(dataDirectory.resolve("data")
+						.toString()))
+				.containsEntry("commitlog_directory", "commitlog")
+				.containsEntry("hints_directory", dataDirectory.resolve("hints").toString())
+				.containsEntry("cdc_raw_directory", dataDirectory.resolve("cdc_raw").toString());
+	}
+
+	@Test
+	void testStorageModeMemoryNotExists(@TempDir Path temporaryFolder) {
+		this.cassandraFactory.setStorageMode(StorageMode.MEMORY);
+		this.cassandraFactory.setMemoryDirectory(temporaryFolder.resolve("shm"));
+		this.cassandraFactory.setWorkingDirectory(temporaryFolder.resolve("work"));
+		this.cassandraFactory.setArtifact(() -> new DefaultDistribution(Version.of("4.0-alpha3"), temporaryFolder));
+		Cassandra cassandra = this.cassandraFactory.create();
+		Object database = ReflectionTestUtils.getField(cassandra, "database");
+		assertThat(ReflectionTestUtils.getField(database, "dataDirectory"))
+				.isEqualTo(temporaryFolder.resolve("work").resolve("data"));
+		assertThat(ReflectionTestUtils.getField(database, "node")).extracting("properties")
+				.asInstanceOf(InstanceOfAssertFactories.MAP).doesNotContainKey("data_file_directories");
+	}
+
+	@Test
+	void testAsyncTeardownEnabled(@TempDir Path temporaryFolder) {
+		assertThat(this.cassandraFactory.isAsyncTeardownEnabled()).isFalse();
+		this.cassandraFactory.setArtifact(() -> new DefaultDistribution(Version.of("4.0-alpha3"), temporaryFolder));
+		Object database = ReflectionTestUtils.getField(this.cassandraFactory.create(), "database");
+		assertThat(ReflectionTestUtils.getField(database, "reaper")).isNull();
+		this.cassandraFactory.setAsyncTeardownEnabled(true);
+		assertThat(this.cassandraFactory.isAsyncTeardownEnabled()).isTrue();
+		database = ReflectionTestUtils.getField(this.cassandraFactory.create(), "database");
+		assertThat(ReflectionTestUtils.getField(database, "reaper")).isSameAs(DirectoryReaper.getInstance());
+	}
+
+	@Test
+	void testFileParallelism(@TempDir Path temporaryFolder) {
+		assertThat(this.cassandraFactory.getFileParallelism()).isEqualTo(Runtime.getRuntime().availableProcessors());
+		assertThatIllegalArgumentException().isThrownBy(() -> this.cassandraFactory.setFileParallelism(0));
+		this.cassandraFactory.setFileParallelism(2);
+		this.cassandraFactory.setArtifact(() -> new DefaultDistribution(Version.of("4.0-alpha3"), temporaryFolder));
+		Object database = ReflectionTestUtils.getField(this.cassandraFactory.create(), "database");
+		assertThat(database).hasFieldOrPropertyWithValue("parallelism", 2);
+	}
+
+	@Test
+	void testWorkingDirectoryTemplateEnabled(@TempDir Path temporaryFolder) {
+		assertThat(this.cassandraFactory.isWorkingDirectoryTemplateEnabled()).isFalse();
+		this.cassandraFactory.setArtifact(() -> new DefaultDistribution(Version.of("4.0-alpha3"), temporaryFolder));
+		Object database = ReflectionTestUtils.getField(this.cassandraFactory.create(), "database");
+		assertThat(ReflectionTestUtils.getField(database, "template")).isNull();
+		this.cassandraFactory.setWorkingDirectoryTemplateEnabled(true);
+		assertThat(this.cassandraFactory.isWorkingDirectoryTemplateEnabled()).isTrue();
+		database = ReflectionTestUtils.getField(this.cassandraFactory.create(), "database");
+		Object template = ReflectionTestUtils.getField(database, "template");
+		Path templates = Paths.get(System.getProperty("user.home"), ".embedded-cassandra", "templates");
+		assertThat(template).isNotNull().extracting("directory").isInstanceOfSatisfying(Path.class,
+				directory -> assertThat(directory).hasParentRaw(templates));
+		this.cassandraFactory.setArtifact(
+				() -> new DefaultDistribution(Version.of("4.0-alpha3"), temporaryFolder, "digest"));
+		database = ReflectionTestUtils.getField(this.cassandraFactory.create(), "database");
+		assertThat(ReflectionTestUtils.getField(database, "template")).extracting("directory")
+				.isNotEqualTo(ReflectionTestUtils.getField(template, "directory"));
+	}
+
+	@Test
+	void testKeepDataWithoutWorkingDirectory(@TempDir Path temporaryFolder) {
+		assertThat(this.cassandraFactory.isKeepData()).isFalse();
+		this.cassandraFactory.setKeepData(true);
+		assertThat(this.cassandraFactory.isKeepData()).isTrue();
+		this.cassandraFactory.setArtifact(() -> new DefaultDistribution(Version.of("4.0-alpha3"), temporaryFolder));
+		assertThatThrownBy(this.cassandraFactory::create).isInstanceOf(CassandraCreationException.class)
+				.hasStackTraceContaining("Working directory must be set if the data should be kept");
+	}
+
+	@Test
+	void testKeepDataStorageModeMemory(@TempDir Path temporaryFolder) throws IOException {
+		Path memoryDirectory = Files.createDirectories(temporaryFolder.resolve("shm"));
+		this.cassandraFactory.setKeepData(true);
+		this.cassandraFactory.setStorageMode(StorageMode.MEMORY);
+		this.cassandraFactory.setMemoryDirectory(memoryDirectory);
+		this.cassandraFactory.setWorkingDirectory(temporaryFolder.resolve("work"));
+		this.cassandraFactory.setArtifact(() -> new DefaultDistribution(Version.of("4.0-alpha3"), temporaryFolder));
+		Object database = ReflectionTestUtils.getField(this.cassandraFactory.create(), "database");
+		Path dataDirectory = (Path) ReflectionTestUtils.getField(database, "dataDirectory");
+		assertThat(dataDirectory).hasParentRaw(memoryDirectory);
+		database = ReflectionTestUtils.getField(this.cassandraFactory.create(), "database");
+		assertThat(database).hasFieldOrPropertyWithValue("dataDirectory", dataDirectory);
+	}
+
+	@Test
+	void testCqlDataSet(@TempDir Path temporaryFolder) {
+		CqlDataSet dataSet = CqlDataSet.ofStrings("CREATE KEYSPACE test");
+		CassandraConnectionFactory connectionFactory = cassandra -> {
+			throw new UnsupportedOperationException();
+		};
+		this.cassandraFactory.setCqlDataSet(dataSet);
+		this.cassandraFactory.setCassandraConnectionFactory(connectionFactory);
+		assertThat(this.cassandraFactory.getCqlDataSet()).isEqualTo(dataSet);
+		assertThat(this.cassandraFactory.getCassandraConnectionFactory()).isEqualTo(connectionFactory);
+		this.cassandraFactory.setArtifact(() -> new DefaultDistribution(Version.of("4.0-alpha3"), temporaryFolder));
+		Cassandra cassandra = this.cassandraFactory.create();
+		assertThat(cassandra).hasFieldOrPropertyWithValue("dataSet", dataSet)
+				.hasFieldOrPropertyWithValue("connectionFactory", connectionFactory);
+	}
+
+	@Test
+	void testSnapshotDirectory(@TempDir Path temporaryFolder) {
+		this.cassandraFactory.setSnapshotDirectory(temporaryFolder);
+		assertThat(this.cassandraFactory.getSnapshotDirectory()).isEqualTo(temporaryFolder);
+		this.cassandraFactory.setArtifact(() -> new DefaultDistribution(Version.of("4.0-alpha3"), temporaryFolder));
+		Cassandra cassandra = this.cassandraFactory.create();
+		Object database = ReflectionTestUtils.getField(cassandra, "database");
+		assertThat(ReflectionTestUtils.getField(database, "snapshot")).isInstanceOf(DataSnapshot.class);
+	}
+
+	@Test
+	void testGoldenImageEnabled(@TempDir Path temporaryFolder) throws IOException {
+		this.cassandraFactory.setGoldenImageEnabled(true);
+		assertThat(this.cassandraFactory.isGoldenImageEnabled()).isTrue();
+		Path directory = Files.createDirectories(temporaryFolder.resolve("apache-cassandra-4.0-alpha3"));
+		this.cassandraFactory.setArtifact(() -> new DefaultDistribution(Version.of("4.0-alpha3"), directory));
+		Cassandra cassandra = this.cassandraFactory.create();
+		Object database = ReflectionTestUtils.getField(cassandra, "database");
+		Object goldenImage = ReflectionTestUtils.getField(database, "goldenImage");
+		assertThat(goldenImage).isInstanceOf(DataSnapshot.class);
+		assertThat((Path) ReflectionTestUtils.getField(goldenImage, "directory"))
+				.hasParentRaw(Paths.get(System.getProperty("user.home"), ".embedded-cassandra", "golden-images"));
+	}
+
 	@Test
 	void testJavaHome(@TempDir Path temporaryFolder) {
 		this.cassandraFactory.setJavaHome(temporaryFolder);
@@ -16,16 +16,19 @@
 
 package com.github.nosan.embedded.cassandra;
 
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import com.github.nosan.embedded.cassandra.annotations.Nullable;
 import com.github.nosan.embedded.cassandra.api.Cassandra;
 import com.github.nosan.embedded.cassandra.api.CassandraFactory;
 import com.github.nosan.embedded.cassandra.api.connection.CassandraConnection;
+import com.github.nosan.embedded.cassandra.api.connection.ClusterCassandraConnection;
 import com.github.nosan.embedded.cassandra.api.connection.ClusterCassandraConnectionFactory;
 import com.github.nosan.embedded.cassandra.api.cql.CqlDataSet;
 import com.github.nosan.embedded.cassandra.commons.io.ClassPathResource;
@@ -194,6 +197,28 @@ class EmbeddedCassandraTests {
 		});
 	}
 
+	@Test
+	void testSuccessWhenKeepData(@TempDir Path temporaryFolder) throws Throwable {
+		this.cassandraFactory.setKeepData(true);
+		this.cassandraFactory.setWorkingDirectory(temporaryFolder.resolve("work"));
+		this.cassandraFactory.setCqlDataSet(CqlDataSet.ofClasspaths("schema.cql"));
+		ClusterCassandraConnectionFactory clusterFactory = new ClusterCassandraConnectionFactory();
+		this.runner.run((cassandra, throwable) -> {
+			assertThat(throwable).doesNotThrowAnyException();
+			try (ClusterCassandraConnection connection = clusterFactory.create(cassandra)) {
+				connection.execute("CREATE TABLE test.users (id int PRIMARY KEY, name text)");
+				connection.execute("INSERT INTO test.users (id, name) VALUES (1, 'user')");
+			}
+		});
+		this.runner.run((cassandra, throwable) -> {
+			assertThat(throwable).doesNotThrowAnyException();
+			try (ClusterCassandraConnection connection = clusterFactory.create(cassandra)) {
+				assertThat(connection.execute("SELECT name FROM test.users WHERE id = 1").one().getString("name"))
+						.isEqualTo("user");
+			}
+		});
+	}
+
 	private interface CassandraConsumer {
 
 		void accept(Cassandra cassandra, @Nullable Throwable throwable) throws Throwable;
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.nosan.embedded.cassandra.commons.io.ClassPathResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link Fingerprint}.
+ *
+ * @author Dmytro Nosan
+ */
+class FingerprintTests {
+
+	@Test
+	void sameValues() throws IOException {
+		String f1 = new Fingerprint().add("4.0").add(new ClassPathResource("cassandra.yaml")).add(null).get();
+		String f2 = new Fingerprint().add("4.0").add(new ClassPathResource("cassandra.yaml")).add(null).get();
+		assertThat(f1).isEqualTo(f2).hasSize(64);
+	}
+
+	@Test
+	void differentValues() {
+		String f1 = new Fingerprint().add("ab").add("c").get();
+		String f2 = new Fingerprint().add("a").add("bc").get();
+		String f3 = new Fingerprint().add(Collections.singletonMap("a", "b")).get();
+		assertThat(f1).isNotEqualTo(f2).isNotEqualTo(f3);
+	}
+
+}
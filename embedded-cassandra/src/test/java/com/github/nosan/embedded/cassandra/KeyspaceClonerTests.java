@@ -0,0 +1,135 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.nio.file.Path;
+
+import com.datastax.driver.core.Row;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.nosan.embedded.cassandra.api.Cassandra;
+import com.github.nosan.embedded.cassandra.api.Version;
+import com.github.nosan.embedded.cassandra.api.connection.CassandraConnection;
+import com.github.nosan.embedded.cassandra.api.connection.ClusterCassandraConnection;
+import com.github.nosan.embedded.cassandra.api.connection.ClusterCassandraConnectionFactory;
+import com.github.nosan.embedded.cassandra.artifact.DefaultDistribution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link KeyspaceCloner}.
+ *
+ * @author Dmytro Nosan
+ */
+class KeyspaceClonerTests {
+
+	private final CassandraConnection connection = new CassandraConnection() {
+
+		@Override
+		public Object execute(String query) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Object execute(String query, Object... values) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Object getConnection() {
+			return this;
+		}
+
+		@Override
+		public void close() {
+		}
+
+	};
+
+	@Test
+	void clonePopulatedKeyspace() {
+		EmbeddedCassandraFactory cassandraFactory = new EmbeddedCassandraFactory();
+		Cassandra cassandra = cassandraFactory.create();
+		cassandra.start();
+		try (ClusterCassandraConnection connection = new ClusterCassandraConnectionFactory().create(cassandra)) {
+			connection.execute("CREATE KEYSPACE template WITH replication = "
+					+ "{'class': 'SimpleStrategy', 'replication_factor': 1}");
+			connection.execute("CREATE TYPE template.address (street text)");
+			connection.execute("CREATE TABLE template.users (id int, version int, name text, removed text, "
+					+ "address frozen<address>, PRIMARY KEY (id, version)) WITH CLUSTERING ORDER BY (version DESC)");
+			connection.execute("CREATE TABLE template.hits (id int PRIMARY KEY, hits counter)");
+			for (int i = 0; i < 10; i++) {
+				connection.execute("INSERT INTO template.users (id, version, name, removed, address) "
+						+ "VALUES (?, 1, ?, 'removed', {street: 'street'})", i, "user" + i);
+				connection.execute("UPDATE template.hits SET hits = hits + 1 WHERE id = ?", i);
+			}
+			connection.execute("ALTER TABLE template.users DROP removed");
+			KeyspaceCloner cloner = new KeyspaceCloner(cassandra, connection, "template");
+			cloner.clone("clone_1");
+			connection.execute("INSERT INTO template.users (id, version, name) VALUES (10, 1, 'user10')");
+			cloner.clone("clone_2");
+			cloner.flush();
+			cloner.clone("clone_3");
+			assertThat(connection.execute("SELECT * FROM clone_1.users").all()).hasSize(10);
+			assertThat(connection.execute("SELECT * FROM clone_2.users").all()).hasSize(10);
+			assertThat(connection.execute("SELECT * FROM clone_3.users").all()).hasSize(11);
+			Row user = connection.execute("SELECT * FROM clone_1.users WHERE id = 1").one();
+			assertThat(user.getString("name")).isEqualTo("user1");
+			assertThat(user.getUDTValue("address").getString("street")).isEqualTo("street");
+			assertThat(user.getColumnDefinitions().contains("removed")).isFalse();
+			assertThat(connection.execute("SELECT hits FROM clone_1.hits WHERE id = 1").one().getLong("hits"))
+					.isEqualTo(1);
+			connection.execute("INSERT INTO clone_1.users (id, version, name) VALUES (1, 1, 'changed')");
+			assertThat(connection.execute("SELECT name FROM template.users WHERE id = 1").one().getString("name"))
+					.isEqualTo("user1");
+		}
+		finally {
+			cassandra.stop();
+		}
+	}
+
+	@Test
+	void notEmbeddedCassandra(@TempDir Path temporaryFolder) {
+		EmbeddedCassandraClusterFactory clusterFactory = new EmbeddedCassandraClusterFactory();
+		clusterFactory.setArtifact(() -> new DefaultDistribution(Version.of("4.0-alpha3"), temporaryFolder));
+		Cassandra cassandra = clusterFactory.create();
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new KeyspaceCloner(cassandra, this.connection, "template"));
+	}
+
+	@Test
+	void notRunning(@TempDir Path temporaryFolder) {
+		EmbeddedCassandraFactory cassandraFactory = new EmbeddedCassandraFactory();
+		cassandraFactory.setArtifact(() -> new DefaultDistribution(Version.of("4.0-alpha3"), temporaryFolder));
+		KeyspaceCloner cloner = new KeyspaceCloner(cassandraFactory.create(), this.connection, "template");
+		assertThatIllegalStateException().isThrownBy(() -> cloner.clone("keyspace"))
+				.withMessageContaining("is not running");
+	}
+
+	@Test
+	void notSupportedVersion(@TempDir Path temporaryFolder) {
+		EmbeddedCassandraFactory cassandraFactory = new EmbeddedCassandraFactory();
+		cassandraFactory.setArtifact(() -> new DefaultDistribution(Version.of("2.2.16"), temporaryFolder));
+		KeyspaceCloner cloner = new KeyspaceCloner(cassandraFactory.create(), this.connection, "template");
+		assertThatIllegalStateException().isThrownBy(() -> cloner.clone("keyspace"))
+				.withMessageContaining("Cassandra 3.0+");
+	}
+
+}
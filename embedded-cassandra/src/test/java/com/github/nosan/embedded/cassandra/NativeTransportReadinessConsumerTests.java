@@ -54,6 +54,19 @@ class NativeTransportReadinessConsumerTests {
 		assertThat(new NativeTransportReadinessConsumer(Version.of("1.0.0")).isReady()).isTrue();
 	}
 
+	@Test
+	void onReadyWhenTransportStarted() {
+		assertThat(this.readiness.onReady()).isNotDone();
+		this.readiness.accept("Starting listening for CQL clients on localhost/127.0.0.1:9042 (unencrypted)");
+		assertThat(this.readiness.onReady()).isDone();
+		assertThat(this.readiness.onReady().join()).isSameAs(this.readiness);
+	}
+
+	@Test
+	void onReadyWhenLowerVersionTwo() {
+		assertThat(new NativeTransportReadinessConsumer(Version.of("1.0.0")).onReady()).isDone();
+	}
+
 	@Test
 	void getPort() throws UnknownHostException {
 		this.readiness.accept("Starting listening for CQL clients on localhost/127.0.0.1:9042 (unencrypted)");
@@ -54,6 +54,20 @@ class RpcTransportReadinessConsumerTests {
 
 	}
 
+	@Test
+	void onReadyWhenRpcNotStarted() {
+		RpcTransportReadinessConsumer readiness = new RpcTransportReadinessConsumer(Version.of("3.11.6"));
+		assertThat(readiness.onReady()).isNotDone();
+		readiness.accept("Not starting RPC server as requested");
+		assertThat(readiness.onReady()).isDone();
+		assertThat(readiness.onReady().join()).isSameAs(readiness);
+	}
+
+	@Test
+	void onReadyWhenVersion4() {
+		assertThat(new RpcTransportReadinessConsumer(Version.of("4.0.0")).onReady()).isDone();
+	}
+
 	@Test
 	void getRpcPort() throws UnknownHostException {
 		this.readiness.accept("ThriftServer.java:116 - Binding thrift service to localhost/127.0.0.1:9160");
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.nosan.embedded.cassandra.StartupReport.Phase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link StartupLogConsumer}.
+ *
+ * @author Dmytro Nosan
+ */
+class StartupLogConsumerTests {
+
+	private final StartupRecorder recorder = new StartupRecorder();
+
+	private final StartupLogConsumer consumer = new StartupLogConsumer(this.recorder, System.nanoTime());
+
+	@Test
+	void recordPhases() {
+		this.consumer.accept("INFO  [main] 2020-04-23 10:00:00,000 YamlConfigurationLoader.java:92 - Configuration");
+		this.consumer.accept("INFO  [main] 2020-04-23 10:00:05,000 Gossiper.java:1 - Waiting for gossip to settle...");
+		this.consumer.accept("INFO  [main] 2020-04-23 10:00:06,500 Gossiper.java:2 - No gossip backlog; proceeding");
+		this.consumer.accept("INFO  [main] 2020-04-23 10:00:07,250 Server.java:159 - Starting listening for CQL "
+				+ "clients on localhost/127.0.0.1:9042 (unencrypted)...");
+		this.consumer.ready();
+		StartupReport report = this.recorder.report();
+		assertThat(report.getDuration(Phase.FIRST_LOG_LINE)).isNotNull();
+		assertThat(report.getDuration(Phase.GOSSIP_SETTLE)).isEqualTo(Duration.ofMillis(1500));
+		assertThat(report.getDuration(Phase.TRANSPORT_READINESS)).isEqualTo(Duration.ofMillis(7250));
+	}
+
+	@Test
+	void recordGossipSettledAfterExtraPolls() {
+		this.consumer.accept("INFO  [main] 2020-04-23T10:00:05.000 Gossiper.java:1 - Waiting for gossip to settle...");
+		this.consumer.accept("INFO  [main] 2020-04-23T10:00:08.000 Gossiper.java:2 - Gossip settled after 2 extra "
+				+ "polls; proceeding");
+		assertThat(this.recorder.report().getDuration(Phase.GOSSIP_SETTLE)).isEqualTo(Duration.ofSeconds(3));
+	}
+
+	@Test
+	void noTimestamps() {
+		this.consumer.accept("Waiting for gossip to settle...");
+		this.consumer.accept("No gossip backlog; proceeding");
+		this.consumer.ready();
+		assertThat(this.recorder.report().getDurations()).containsOnlyKeys(Phase.FIRST_LOG_LINE);
+	}
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.nosan.embedded.cassandra.api.Version;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link StartupProfile}.
+ *
+ * @author Dmytro Nosan
+ */
+class StartupProfileTests {
+
+	private final Map<String, Object> config = new LinkedHashMap<>();
+
+	private final Map<String, Object> systemProperties = new LinkedHashMap<>();
+
+	private final Map<String, Object> configProperties = new LinkedHashMap<>();
+
+	@Test
+	void defaultProfile() {
+		StartupProfile.DEFAULT.configure(Version.of("4.0-alpha3"), this.config, this.systemProperties,
+				this.configProperties);
+		assertThat(this.systemProperties).isEmpty();
+		assertThat(this.configProperties).isEmpty();
+	}
+
+	@Test
+	void fastBootVersion4() {
+		StartupProfile.FAST_BOOT.configure(Version.of("4.0-alpha3"), this.config, this.systemProperties,
+				this.configProperties);
+		assertThat(this.systemProperties).containsEntry("cassandra.skip_wait_for_gossip_to_settle", 0)
+				.containsEntry("cassandra.ring_delay_ms", 1000).containsEntry("cassandra.load_ring_state", false)
+				.containsEntry("cassandra.superuser_setup_delay_ms", 0)
+				.containsEntry("cassandra.skip_schema_check", true);
+		assertThat(this.configProperties).containsEntry("num_tokens", 1).containsEntry("initial_token", 0)
+				.containsEntry("hinted_handoff_enabled", false).containsEntry("auto_bootstrap", false)
+				.containsEntry("auto_snapshot", false);
+	}
+
+	@Test
+	void fastBootVersion3() {
+		StartupProfile.FAST_BOOT.configure(Version.of("3.11.6"), this.config, this.systemProperties,
+				this.configProperties);
+		assertThat(this.systemProperties).containsKey("cassandra.superuser_setup_delay_ms")
+				.doesNotContainKey("cassandra.skip_schema_check");
+	}
+
+	@Test
+	void fastBootVersion21() {
+		StartupProfile.FAST_BOOT.configure(Version.of("2.1.20"), this.config, this.systemProperties,
+				this.configProperties);
+		assertThat(this.systemProperties).containsKey("cassandra.skip_wait_for_gossip_to_settle")
+				.doesNotContainKey("cassandra.superuser_setup_delay_ms");
+	}
+
+	@Test
+	void fastBootShouldNotOverrideProperties() {
+		this.systemProperties.put("cassandra.ring_delay_ms", 30000);
+		this.configProperties.put("num_tokens", 16);
+		this.configProperties.put("hinted_handoff_enabled", true);
+		StartupProfile.FAST_BOOT.configure(Version.of("4.0-alpha3"), this.config, this.systemProperties,
+				this.configProperties);
+		assertThat(this.systemProperties).containsEntry("cassandra.ring_delay_ms", 30000);
+		assertThat(this.configProperties).containsEntry("num_tokens", 16).containsEntry("hinted_handoff_enabled", true)
+				.doesNotContainKey("initial_token");
+	}
+
+	@Test
+	void fastBootShouldNotOverrideConfig() {
+		this.config.put("num_tokens", 256);
+		this.config.put("auto_snapshot", true);
+		StartupProfile.FAST_BOOT.configure(Version.of("4.0-alpha3"), this.config, this.systemProperties,
+				this.configProperties);
+		assertThat(this.configProperties).doesNotContainKeys("num_tokens", "initial_token", "auto_snapshot")
+				.containsEntry("hinted_handoff_enabled", false);
+	}
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+/**
+ * Tests for {@link WorkingDirectoryTemplate}.
+ *
+ * @author Dmytro Nosan
+ */
+class WorkingDirectoryTemplateTests {
+
+	@Test
+	void prepareOnceAndClone(@TempDir Path temporaryFolder) throws IOException {
+		WorkingDirectoryTemplate template = new WorkingDirectoryTemplate(temporaryFolder.resolve("templates"), "key");
+		AtomicInteger count = new AtomicInteger();
+		WorkingDirectoryTemplate.Preparer preparer = directory -> {
+			count.incrementAndGet();
+			Files.createDirectories(directory.resolve("conf"));
+			Files.createDirectories(directory.resolve("lib"));
+			Files.write(directory.resolve("conf/cassandra.yaml"), new byte[]{1});
+			Files.write(directory.resolve("lib/cassandra.jar"), new byte[]{2});
+		};
+		Path first = temporaryFolder.resolve("first");
+		Path second = temporaryFolder.resolve("second");
+		template.cloneInto(first, 2, preparer);
+		template.cloneInto(second, 2, preparer);
+		assertThat(count).hasValue(1);
+		assertThat(template.getDirectory()).isEqualTo(temporaryFolder.resolve("templates/key"));
+		assertThat(second.resolve("conf/cassandra.yaml")).hasBinaryContent(new byte[]{1});
+		assertThat(second.resolve("lib/cassandra.jar")).hasBinaryContent(new byte[]{2});
+		assertThat(Files.isSameFile(first.resolve("lib/cassandra.jar"), second.resolve("lib/cassandra.jar"))).isTrue();
+		Files.write(first.resolve("conf/cassandra.yaml"), new byte[]{3});
+		assertThat(second.resolve("conf/cassandra.yaml")).hasBinaryContent(new byte[]{1});
+		assertThat(template.getDirectory().resolve("conf/cassandra.yaml")).hasBinaryContent(new byte[]{1});
+	}
+
+	@Test
+	void failedPreparation(@TempDir Path temporaryFolder) throws IOException {
+		Path templates = temporaryFolder.resolve("templates");
+		WorkingDirectoryTemplate template = new WorkingDirectoryTemplate(templates, "key");
+		assertThatIOException().isThrownBy(() -> template.cloneInto(temporaryFolder.resolve("work"), 2, directory -> {
+			Files.createDirectories(directory.resolve("conf"));
+			throw new IOException("failed");
+		}));
+		assertThat(templates).isEmptyDirectory();
+	}
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.util.function.Predicate;
+
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ArchiveEntryFilters}.
+ *
+ * @author Dmytro Nosan
+ */
+class ArchiveEntryFiltersTests {
+
+	@Test
+	void runtimeOnly() {
+		Predicate<ArchiveEntry> filter = ArchiveEntryFilters.runtimeOnly();
+		assertThat(filter.test(new TarArchiveEntry("apache-cassandra-3.11.6/"))).isTrue();
+		assertThat(filter.test(new TarArchiveEntry("apache-cassandra-3.11.6/bin/cassandra"))).isTrue();
+		assertThat(filter.test(new TarArchiveEntry("apache-cassandra-3.11.6/lib/"))).isTrue();
+		assertThat(filter.test(new TarArchiveEntry("apache-cassandra-3.11.6/conf/cassandra.yaml"))).isTrue();
+		assertThat(filter.test(new TarArchiveEntry("./apache-cassandra-3.11.6/lib/sigar-bin/x"))).isTrue();
+		assertThat(filter.test(new TarArchiveEntry("apache-cassandra-3.11.6/doc/"))).isFalse();
+		assertThat(filter.test(new TarArchiveEntry("apache-cassandra-3.11.6/javadoc/index.html"))).isFalse();
+		assertThat(filter.test(new TarArchiveEntry("apache-cassandra-3.11.6/pylib/cqlshlib/cql3handling.py")))
+				.isFalse();
+		assertThat(filter.test(new TarArchiveEntry("./apache-cassandra-3.11.6/tools/bin/cassandra-stress")))
+				.isFalse();
+		assertThat(filter.test(new TarArchiveEntry("apache-cassandra-3.11.6/lib/doc/file"))).isTrue();
+	}
+
+	@Test
+	void all() {
+		Predicate<ArchiveEntry> filter = ArchiveEntryFilters.all();
+		assertThat(filter.test(new TarArchiveEntry("apache-cassandra-3.11.6/doc/"))).isTrue();
+	}
+
+	@Test
+	void excludeDirectories() {
+		Predicate<ArchiveEntry> filter = ArchiveEntryFilters.excludeDirectories("conf");
+		assertThat(filter.test(new TarArchiveEntry("apache-cassandra-3.11.6/conf/cassandra.yaml"))).isFalse();
+		assertThat(filter.test(new TarArchiveEntry("apache-cassandra-3.11.6/doc/"))).isTrue();
+	}
+
+	@Test
+	void getDestinationSuffix() {
+		assertThat(ArchiveEntryFilters.getDestinationSuffix(ArchiveEntryFilters.all())).isEmpty();
+		assertThat(ArchiveEntryFilters.getDestinationSuffix(ArchiveEntryFilters.runtimeOnly()))
+				.matches("-[0-9a-f]{8}")
+				.isEqualTo(ArchiveEntryFilters.getDestinationSuffix(ArchiveEntryFilters.runtimeOnly()))
+				.isNotEqualTo(ArchiveEntryFilters.getDestinationSuffix(ArchiveEntryFilters.excludeDirectories("doc")));
+	}
+
+}
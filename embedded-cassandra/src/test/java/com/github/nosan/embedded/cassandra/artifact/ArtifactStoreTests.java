@@ -0,0 +1,147 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.commons.util.FileUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link ArtifactStore}.
+ *
+ * @author Dmytro Nosan
+ */
+class ArtifactStoreTests {
+
+	@TempDir
+	Path temporaryFolder;
+
+	@Test
+	void deduplicate() throws IOException {
+		ArtifactStore store = new ArtifactStore(this.temporaryFolder.resolve("store"));
+		Path first = createDistribution("3.11.6", "shared", "first");
+		Path second = createDistribution("3.11.7", "shared", "second");
+		assertThat(DistributionManifest.isValid(first)).isTrue();
+		assertThat(DistributionManifest.isValid(second)).isTrue();
+		assertThat(Files.isSameFile(first.resolve("apache-cassandra/lib/guava.jar"),
+				second.resolve("apache-cassandra/lib/guava.jar"))).isTrue();
+		assertThat(Files.isSameFile(first.resolve("apache-cassandra/lib/cassandra.jar"),
+				second.resolve("apache-cassandra/lib/cassandra.jar"))).isFalse();
+		assertThat(store.getSize()).isEqualTo("shared".length() + "first".length() + "second".length());
+		assertThat(store.getDistributions()).containsExactly(first.toAbsolutePath(), second.toAbsolutePath());
+	}
+
+	@Test
+	void deduplicateFailsOnMissingFile() throws IOException {
+		ArtifactStore store = new ArtifactStore(this.temporaryFolder.resolve("store"));
+		Path destination = createDistribution("3.11.6", "shared", "first", null);
+		DistributionManifest manifest = DistributionManifest.create(destination,
+				destination.resolve("apache-cassandra"), null);
+		Files.delete(destination.resolve("apache-cassandra/lib/guava.jar"));
+		assertThatThrownBy(() -> store.register(destination, manifest)).isInstanceOf(NoSuchFileException.class);
+	}
+
+	@Test
+	void evictLeastRecentlyUsed() throws Exception {
+		ArtifactStore store = new ArtifactStore(this.temporaryFolder.resolve("store"));
+		store.setMaxSize(17);
+		Path first = createDistribution("3.11.6", "shared", "first", store);
+		Thread.sleep(10);
+		Path second = createDistribution("3.11.7", "shared", "second", store);
+		Thread.sleep(10);
+		store.touch(first);
+		Path third = createDistribution("3.11.8", "shared", "third", store);
+		assertThat(DistributionManifest.isValid(first)).isTrue();
+		assertThat(DistributionManifest.isValid(second)).isFalse();
+		assertThat(second.resolve("apache-cassandra")).doesNotExist();
+		assertThat(DistributionManifest.isValid(third)).isTrue();
+		assertThat(store.getDistributions()).containsExactly(first.toAbsolutePath(), third.toAbsolutePath());
+		assertThat(store.getSize()).isEqualTo("shared".length() + "first".length() + "third".length());
+	}
+
+	@Test
+	void evictKeepsFilesNotOwnedByStore() throws Exception {
+		ArtifactStore store = new ArtifactStore(this.temporaryFolder.resolve("store"));
+		store.setMaxSize(11);
+		Path first = createDistribution("3.11.6", "shared", "first", store);
+		Path template = Files.createDirectories(first.resolve(".templates/template"));
+		Files.write(first.resolve("apache-cassandra/lib/custom.jar"), new byte[0]);
+		Thread.sleep(10);
+		createDistribution("3.11.7", "shared", "second", store);
+		assertThat(DistributionManifest.isValid(first)).isFalse();
+		assertThat(first.resolve("apache-cassandra/lib/guava.jar")).doesNotExist();
+		assertThat(first.resolve("apache-cassandra/lib/custom.jar")).exists();
+		assertThat(template).isDirectory();
+	}
+
+	@Test
+	void evictSkipsLeasedDistribution() throws Exception {
+		ArtifactStore store = new ArtifactStore(this.temporaryFolder.resolve("store"));
+		store.setMaxSize(11);
+		Path first = createDistribution("3.11.6", "shared", "first", store);
+		store.lease(first);
+		Thread.sleep(10);
+		Path second = createDistribution("3.11.7", "shared", "second", store);
+		assertThat(DistributionManifest.isValid(first)).isTrue();
+		assertThat(DistributionManifest.isValid(second)).isTrue();
+		assertThat(store.getDistributions()).containsExactly(first.toAbsolutePath(), second.toAbsolutePath());
+	}
+
+	@Test
+	void pruneRemovesStaleDistributions() throws IOException {
+		ArtifactStore store = new ArtifactStore(this.temporaryFolder.resolve("store"));
+		Path first = createDistribution("3.11.6", "shared", "first", store);
+		Path second = createDistribution("3.11.7", "shared", "second", store);
+		FileUtils.delete(second);
+		store.prune();
+		assertThat(store.getDistributions()).containsExactly(first.toAbsolutePath());
+		assertThat(store.getSize()).isEqualTo("shared".length() + "first".length());
+	}
+
+	@Test
+	void invalidMaxSize() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new ArtifactStore(this.temporaryFolder).setMaxSize(0));
+	}
+
+	private Path createDistribution(String version, String shared, String unique) throws IOException {
+		return createDistribution(version, shared, unique, new ArtifactStore(this.temporaryFolder.resolve("store")));
+	}
+
+	private Path createDistribution(String version, String shared, String unique, @Nullable ArtifactStore store)
+			throws IOException {
+		Path destination = this.temporaryFolder.resolve(version);
+		Path directory = Files.createDirectories(destination.resolve("apache-cassandra/lib"));
+		Files.write(directory.resolve("guava.jar"), shared.getBytes(StandardCharsets.UTF_8));
+		Files.write(directory.resolve("cassandra.jar"), unique.getBytes(StandardCharsets.UTF_8));
+		DistributionManifest.complete(destination, destination.resolve("apache-cassandra"), null, store);
+		return destination;
+	}
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.nosan.embedded.cassandra.api.Version;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DistributionManifest}.
+ *
+ * @author Dmytro Nosan
+ */
+class DistributionManifestTests {
+
+	@TempDir
+	Path destination;
+
+	private Path directory;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		this.directory = Files.createDirectories(this.destination.resolve("apache-cassandra"));
+		Files.createDirectories(this.directory.resolve("lib"));
+		Files.write(this.directory.resolve("lib/cassandra.jar"), "jar".getBytes(StandardCharsets.UTF_8));
+		Files.createDirectories(this.directory.resolve("conf"));
+		Files.write(this.directory.resolve("conf/cassandra.yaml"), "yaml".getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void completeAndLoad() throws IOException {
+		assertThat(DistributionManifest.isValid(this.destination)).isFalse();
+		DistributionManifest.complete(this.destination, this.directory, "abc", null);
+		assertThat(DistributionManifest.isValid(this.destination)).isTrue();
+		DistributionManifest manifest = DistributionManifest.load(this.destination.resolve(".manifest"));
+		assertThat(manifest.getArchiveDigest()).isEqualTo("abc");
+		assertThat(manifest.getEntries()).extracting(DistributionManifest.Entry::getPath)
+				.containsExactly("apache-cassandra/conf/cassandra.yaml", "apache-cassandra/lib/cassandra.jar");
+		assertThat(manifest.getEntries()).extracting(DistributionManifest.Entry::getSize).containsExactly(4L, 3L);
+		assertThat(manifest.getEntries().get(1).getDigest())
+				.isEqualTo("0163f1eea7894350060624d315234d40c508ab251ba121714e234503045faadd");
+	}
+
+	@Test
+	void withDigest() throws IOException {
+		Artifact.Distribution distribution = new DefaultDistribution(Version.of("3.11.6"), this.directory);
+		assertThat(DistributionManifest.withDigest(distribution, this.destination)).isSameAs(distribution);
+		DistributionManifest.complete(this.destination, this.directory, "abc", null);
+		String digest = DistributionManifest.withDigest(distribution, this.destination).getDigest();
+		assertThat(digest).hasSize(64);
+		DistributionManifest.reset(this.destination);
+		Files.createDirectories(this.directory.resolve("lib"));
+		Files.write(this.directory.resolve("lib/cassandra.jar"), "new jar".getBytes(StandardCharsets.UTF_8));
+		DistributionManifest.complete(this.destination, this.directory, "abc", null);
+		assertThat(DistributionManifest.withDigest(distribution, this.destination).getDigest()).isNotEqualTo(digest);
+	}
+
+	@Test
+	void invalidWhenFileChanged() throws IOException {
+		DistributionManifest.complete(this.destination, this.directory, null, null);
+		Path jar = this.directory.resolve("lib/cassandra.jar");
+		FileTime lastModified = Files.getLastModifiedTime(jar);
+		Files.write(jar, "corrupted".getBytes(StandardCharsets.UTF_8));
+		Files.setLastModifiedTime(jar, lastModified);
+		assertThat(DistributionManifest.isValid(this.destination)).isFalse();
+	}
+
+	@Test
+	void invalidWhenFileDeleted() throws IOException {
+		DistributionManifest.complete(this.destination, this.directory, null, null);
+		Files.delete(this.directory.resolve("conf/cassandra.yaml"));
+		assertThat(DistributionManifest.isValid(this.destination)).isFalse();
+	}
+
+	@Test
+	void validWithoutManifest() throws IOException {
+		Files.createFile(this.destination.resolve(".extracted"));
+		assertThat(DistributionManifest.isValid(this.destination)).isTrue();
+	}
+
+	@Test
+	void reset() throws IOException {
+		DistributionManifest.complete(this.destination, this.directory, null, null);
+		DistributionManifest.reset(this.destination);
+		assertThat(this.destination.resolve(".extracted")).doesNotExist();
+		assertThat(this.destination.resolve(".manifest")).doesNotExist();
+		assertThat(this.directory.resolve("lib/cassandra.jar")).doesNotExist();
+		assertThat(DistributionManifest.isValid(this.destination)).isFalse();
+	}
+
+}
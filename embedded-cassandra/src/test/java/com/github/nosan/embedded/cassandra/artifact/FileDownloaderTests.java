@@ -0,0 +1,319 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.nosan.embedded.cassandra.commons.io.Resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+/**
+ * Tests for {@link FileDownloader}.
+ *
+ * @author Dmytro Nosan
+ */
+class FileDownloaderTests {
+
+	private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+
+	private final byte[] content = new byte[5 * 1024 * 1024 + 17];
+
+	private final List<String> ranges = new CopyOnWriteArrayList<>();
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	private final HttpServer httpServer = createHttpServer();
+
+	private volatile String etag = "\"v1\"";
+
+	private volatile boolean failRanges;
+
+	@TempDir
+	Path temporaryFolder;
+
+	private final FileDownloader downloader = new FileDownloader(Duration.ofSeconds(10), Duration.ofSeconds(10),
+			Proxy.NO_PROXY, 4);
+
+	@BeforeEach
+	void setUp() {
+		new Random().nextBytes(this.content);
+		this.httpServer.setExecutor(this.executor);
+		this.httpServer.start();
+		this.httpServer.createContext("/ranges/file.tar.gz", exchange -> send(exchange, true));
+		this.httpServer.createContext("/file.tar.gz", exchange -> send(exchange, false));
+		this.httpServer.createContext("/mirror/file.tar.gz", exchange -> send(exchange, true));
+		this.httpServer.createContext("/invalid/file.tar.gz", exchange -> {
+			exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+			send(exchange, false);
+		});
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.httpServer.stop(0);
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	void downloadRanges() throws IOException {
+		Resource resource = this.downloader.download(getUrl("/ranges/file.tar.gz"), this.temporaryFolder,
+				new TestProgressListener()).getResource();
+		assertThat(resource.getBytes()).isEqualTo(this.content);
+		assertThat(this.ranges).hasSize(3);
+	}
+
+	@Test
+	void downloadSingleStream() throws IOException {
+		TestProgressListener listener = new TestProgressListener();
+		Resource resource = this.downloader.download(getUrl("/file.tar.gz"), this.temporaryFolder, listener)
+				.getResource();
+		assertThat(resource.getBytes()).isEqualTo(this.content);
+		assertThat(this.ranges).isEmpty();
+		assertThat(listener.readBytes).isEqualTo(this.content.length);
+		assertThat(listener.finished).isTrue();
+	}
+
+	@Test
+	void downloadRangesNotSatisfied() throws IOException {
+		Resource resource = this.downloader.download(getUrl("/invalid/file.tar.gz"), this.temporaryFolder,
+				new TestProgressListener()).getResource();
+		assertThat(resource.getBytes()).isEqualTo(this.content);
+	}
+
+	@Test
+	void downloadSingleConnection() throws IOException {
+		FileDownloader downloader = new FileDownloader(Duration.ofSeconds(10), Duration.ofSeconds(10),
+				Proxy.NO_PROXY, 1);
+		Resource resource = downloader.download(getUrl("/ranges/file.tar.gz"), this.temporaryFolder,
+				new TestProgressListener()).getResource();
+		assertThat(resource.getBytes()).isEqualTo(this.content);
+		assertThat(this.ranges).isEmpty();
+	}
+
+	@Test
+	void resumeDownload() throws IOException {
+		URL url = getUrl("/ranges/file.tar.gz");
+		this.failRanges = true;
+		assertThatIOException().isThrownBy(() -> this.downloader.download(url, this.temporaryFolder,
+				new TestProgressListener()));
+		assertThat(this.temporaryFolder.resolve("file.tar.gz.part")).exists();
+		assertThat(this.temporaryFolder.resolve("file.tar.gz.part.journal")).exists();
+		this.failRanges = false;
+		this.ranges.clear();
+		TestProgressListener listener = new TestProgressListener();
+		Resource resource = this.downloader.download(url, this.temporaryFolder, listener).getResource();
+		assertThat(resource.getBytes()).isEqualTo(this.content);
+		assertThat(listener.readBytes).isEqualTo(this.content.length);
+		assertThat(this.ranges).hasSize(3).noneMatch(range -> range.startsWith("bytes=0-"));
+		assertThat(this.temporaryFolder.resolve("file.tar.gz.part")).doesNotExist();
+		assertThat(this.temporaryFolder.resolve("file.tar.gz.part.journal")).doesNotExist();
+	}
+
+	@Test
+	void restartDownloadWhenFileChanged() throws IOException {
+		URL url = getUrl("/ranges/file.tar.gz");
+		this.failRanges = true;
+		assertThatIOException().isThrownBy(() -> this.downloader.download(url, this.temporaryFolder,
+				new TestProgressListener()));
+		this.failRanges = false;
+		this.ranges.clear();
+		this.etag = "\"v2\"";
+		new Random().nextBytes(this.content);
+		Resource resource = this.downloader.download(url, this.temporaryFolder, new TestProgressListener())
+				.getResource();
+		assertThat(resource.getBytes()).isEqualTo(this.content);
+		assertThat(this.ranges).hasSize(3);
+		assertThat(Files.readAllBytes(this.temporaryFolder.resolve("file.tar.gz"))).isEqualTo(this.content);
+	}
+
+	@Test
+	void resumeDownloadFromAnotherMirror() throws IOException {
+		this.failRanges = true;
+		assertThatIOException().isThrownBy(() -> this.downloader.download(getUrl("/ranges/file.tar.gz"),
+				this.temporaryFolder, new TestProgressListener()));
+		this.failRanges = false;
+		this.ranges.clear();
+		Resource resource = this.downloader.download(getUrl("/mirror/file.tar.gz"), this.temporaryFolder,
+				new TestProgressListener()).getResource();
+		assertThat(resource.getBytes()).isEqualTo(this.content);
+		assertThat(this.ranges).hasSize(3).noneMatch(range -> range.startsWith("bytes=0-"));
+	}
+
+	@Test
+	void restartDownloadFromAnotherMirrorWithDifferentValidator() throws IOException {
+		this.failRanges = true;
+		assertThatIOException().isThrownBy(() -> this.downloader.download(getUrl("/ranges/file.tar.gz"),
+				this.temporaryFolder, new TestProgressListener()));
+		this.failRanges = false;
+		this.ranges.clear();
+		this.etag = "\"mirror\"";
+		new Random().nextBytes(this.content);
+		Resource resource = this.downloader.download(getUrl("/mirror/file.tar.gz"), this.temporaryFolder,
+				new TestProgressListener()).getResource();
+		assertThat(resource.getBytes()).isEqualTo(this.content);
+	}
+
+	@Test
+	void stream() throws Exception {
+		TestProgressListener listener = new TestProgressListener();
+		byte[] head = new byte[1024];
+		FileDownloader.Download download = this.downloader.stream(getUrl("/ranges/file.tar.gz"), listener, resource -> {
+			assertThat(resource.getFileName()).isEqualTo("file.tar.gz");
+			try (InputStream is = resource.getInputStream()) {
+				assertThat(is.read(head)).isPositive();
+			}
+			assertThatIOException().isThrownBy(resource::getInputStream);
+		});
+		assertThat(download.getDigest()).isEqualTo(sha512(this.content));
+		assertThat(head).isEqualTo(Arrays.copyOf(this.content, head.length));
+		assertThat(listener.readBytes).isEqualTo(this.content.length);
+		assertThat(listener.finished).isTrue();
+		assertThat(this.ranges).isEmpty();
+		assertThat(this.temporaryFolder).isEmptyDirectory();
+	}
+
+	@Test
+	void downloadDigest() throws Exception {
+		String expected = sha512(this.content);
+		assertThat(this.downloader.download(getUrl("/ranges/file.tar.gz"), this.temporaryFolder,
+				new TestProgressListener()).getDigest()).isEqualTo(expected);
+		assertThat(this.downloader.download(getUrl("/file.tar.gz"), this.temporaryFolder,
+				new TestProgressListener()).getDigest()).isEqualTo(expected);
+	}
+
+	@Test
+	void read() throws IOException {
+		this.httpServer.createContext("/file.tar.gz.sha512", exchange -> {
+			byte[] bytes = "abc  file.tar.gz".getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, bytes.length);
+			exchange.getResponseBody().write(bytes);
+			exchange.close();
+		});
+		assertThat(this.downloader.read(getUrl("/file.tar.gz.sha512"))).isEqualTo("abc  file.tar.gz");
+	}
+
+	private void send(HttpExchange exchange, boolean acceptRanges) throws IOException {
+		String range = exchange.getRequestHeaders().getFirst("Range");
+		if (acceptRanges) {
+			exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+			exchange.getResponseHeaders().add("ETag", this.etag);
+			if (range != null && this.failRanges) {
+				exchange.sendResponseHeaders(HttpURLConnection.HTTP_UNAVAILABLE, -1);
+				exchange.close();
+				return;
+			}
+		}
+		int start = 0;
+		int end = this.content.length - 1;
+		int status = HttpURLConnection.HTTP_OK;
+		if (acceptRanges && range != null) {
+			Matcher matcher = RANGE.matcher(range);
+			assertThat(matcher.matches()).isTrue();
+			this.ranges.add(range);
+			start = Integer.parseInt(matcher.group(1));
+			end = Integer.parseInt(matcher.group(2));
+			status = HttpURLConnection.HTTP_PARTIAL;
+			exchange.getResponseHeaders().add("Content-Range",
+					"bytes " + start + "-" + end + "/" + this.content.length);
+		}
+		exchange.sendResponseHeaders(status, end - start + 1);
+		try (OutputStream os = exchange.getResponseBody()) {
+			os.write(this.content, start, end - start + 1);
+		}
+		catch (IOException ex) {
+			// the client has closed the connection
+		}
+		finally {
+			exchange.close();
+		}
+	}
+
+	private static String sha512(byte[] content) throws NoSuchAlgorithmException {
+		StringBuilder hex = new StringBuilder();
+		for (byte b : MessageDigest.getInstance("SHA-512").digest(content)) {
+			hex.append(String.format("%02x", b));
+		}
+		return hex.toString();
+	}
+
+	private URL getUrl(String path) throws IOException {
+		return new URL(String.format("http:/%s%s", this.httpServer.getAddress(), path));
+	}
+
+	private static HttpServer createHttpServer() {
+		try {
+			return HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private static final class TestProgressListener implements FileDownloader.ProgressListener {
+
+		private long readBytes;
+
+		private boolean finished;
+
+		@Override
+		public void start() {
+		}
+
+		@Override
+		public void update(long readBytes, long totalBytes) {
+			this.readBytes = readBytes;
+		}
+
+		@Override
+		public void finish() {
+			this.finished = true;
+		}
+
+	}
+
+}
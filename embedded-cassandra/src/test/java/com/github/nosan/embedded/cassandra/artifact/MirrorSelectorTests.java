@@ -0,0 +1,171 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link MirrorSelector}.
+ *
+ * @author Dmytro Nosan
+ */
+class MirrorSelectorTests {
+
+	private final HttpServer slowServer = createHttpServer();
+
+	private final HttpServer fastServer = createHttpServer();
+
+	@TempDir
+	Path temporaryFolder;
+
+	@BeforeEach
+	void setUp() {
+		this.slowServer.start();
+		this.fastServer.start();
+		this.slowServer.createContext("/file.tar.gz", exchange -> {
+			try {
+				Thread.sleep(500);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, -1);
+			exchange.close();
+		});
+		this.fastServer.createContext("/file.tar.gz", exchange -> {
+			exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, -1);
+			exchange.close();
+		});
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.slowServer.stop(0);
+		this.fastServer.stop(0);
+	}
+
+	@Test
+	void selectFastestFirst() throws IOException {
+		MirrorSelector selector = createSelector();
+		URL slow = getUrl(this.slowServer, "/file.tar.gz");
+		URL fast = getUrl(this.fastServer, "/file.tar.gz");
+		URL missing = getUrl(this.fastServer, "/missing.tar.gz");
+		assertThat(selector.select(Arrays.asList(missing, slow, fast))).containsExactly(fast, slow, missing);
+		Properties stats = loadStats();
+		assertThat(stats.getProperty("http://" + getAuthority(this.slowServer) + ".latency")).isNotNull();
+		assertThat(stats.getProperty("http://" + getAuthority(this.fastServer) + ".latency")).isNotNull();
+	}
+
+	@Test
+	void selectSingleUrl() throws IOException {
+		URL url = getUrl(this.slowServer, "/file.tar.gz");
+		assertThat(createSelector().select(Collections.singletonList(url))).containsExactly(url);
+		assertThat(this.temporaryFolder.resolve("mirrors.properties")).doesNotExist();
+	}
+
+	@Test
+	void recordSuccess() throws IOException {
+		MirrorSelector selector = createSelector();
+		URL url = getUrl(this.fastServer, "/file.tar.gz");
+		selector.recordSuccess(url, 1000, Duration.ofSeconds(1));
+		selector.recordSuccess(url, 3000, Duration.ofSeconds(1));
+		assertThat(loadStats().getProperty("http://" + getAuthority(this.fastServer) + ".throughput"))
+				.isEqualTo("2000.0");
+	}
+
+	@Test
+	void recordConcurrently() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				URL url = new URL("http://mirror-" + i + ":8080/file.tar.gz");
+				MirrorSelector selector = createSelector();
+				futures.add(executor.submit(() -> selector.recordFailure(url)));
+			}
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		Properties stats = loadStats();
+		for (int i = 0; i < 8; i++) {
+			assertThat(stats.getProperty("http://mirror-" + i + ":8080.latency")).isEqualTo("5000.0");
+		}
+	}
+
+	private MirrorSelector createSelector() {
+		return new MirrorSelector(this.temporaryFolder.resolve("mirrors.properties"), Duration.ofSeconds(5),
+				Proxy.NO_PROXY);
+	}
+
+	private Properties loadStats() throws IOException {
+		Properties properties = new Properties();
+		try (InputStream is = Files.newInputStream(this.temporaryFolder.resolve("mirrors.properties"))) {
+			properties.load(is);
+		}
+		return properties;
+	}
+
+	private static String getAuthority(HttpServer server) {
+		InetSocketAddress address = server.getAddress();
+		return address.getHostString() + ":" + address.getPort();
+	}
+
+	private static URL getUrl(HttpServer server, String path) throws IOException {
+		return new URL("http://" + getAuthority(server) + path);
+	}
+
+	private static HttpServer createHttpServer() {
+		try {
+			return HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+}
@@ -30,8 +30,11 @@ import java.net.URL;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
 
 import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.compress.archivers.ArchiveStreamFactory;
 import org.apache.commons.compress.utils.IOUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -73,6 +76,11 @@ class RemoteArtifactTests {
 			exchange.getResponseBody().write(content);
 			exchange.close();
 		});
+		this.httpServer.createContext("/apache-cassandra-4.0-alpha3-bin.tar.custom", exchange -> {
+			exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, content.length);
+			exchange.getResponseBody().write(content);
+			exchange.close();
+		});
 		this.httpServer.createContext("/dist/apache-cassandra-4.0-alpha3-bin.tar.gz", exchange -> {
 			exchange.getResponseHeaders().put("Location",
 					Collections.singletonList("/apache-cassandra-4.0-alpha3-bin.tar.gz"));
@@ -111,6 +119,22 @@ class RemoteArtifactTests {
 		assertThat(this.output.toString()).contains("Downloaded");
 	}
 
+	@Test
+	void shouldDownloadArtifactCustomArchive(@TempDir Path temporaryFolder) throws Exception {
+		RemoteArtifact artifact = new RemoteArtifact(VERSION);
+		artifact.setDestination(temporaryFolder);
+		artifact.setUrlFactory(version -> Collections.singletonList(new URL(
+				String.format("http:/%s/apache-cassandra-4.0-alpha3-bin.tar.custom", this.httpServer.getAddress()))));
+		AtomicInteger decompressed = new AtomicInteger();
+		artifact.getArchiveResourceCustomizers().add(resource -> resource.setDecompressor(".tar.custom",
+				ArchiveStreamFactory.TAR, is -> {
+					decompressed.incrementAndGet();
+					return new GZIPInputStream(is);
+				}));
+		assertDistribution(artifact.getDistribution());
+		assertThat(decompressed).hasValue(1);
+	}
+
 	@Test
 	void shouldNotDownloadArtifactMaxRedirection(@TempDir Path temporaryFolder) throws Exception {
 		this.httpServer.createContext("/dist/apache-cassandra-4.0-alpha3.zip", exchange -> {
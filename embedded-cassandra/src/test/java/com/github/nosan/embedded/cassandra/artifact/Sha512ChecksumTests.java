@@ -0,0 +1,136 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+/**
+ * Tests for {@link Sha512Checksum}.
+ *
+ * @author Dmytro Nosan
+ */
+class Sha512ChecksumTests {
+
+	private static final String DIGEST = "7ab65bd2c2d1b8e5b8a1e9b6f1c3f0e7d2a1c4b5e6f7a8b9c0d1e2f3a4b5c6d7"
+			+ "e8f9a0b1c2d3e4f5a6b7c8d9e0f1a2b3c4d5e6f7a8b9c0d1e2f3a4b5c6d7e8f9";
+
+	private final HttpServer httpServer = createHttpServer();
+
+	private final AtomicInteger requests = new AtomicInteger();
+
+	private final FileDownloader downloader = new FileDownloader(Duration.ofSeconds(10), Duration.ofSeconds(10),
+			Proxy.NO_PROXY, 1);
+
+	@BeforeEach
+	void setUp() {
+		this.httpServer.start();
+		this.httpServer.createContext("/mirror/file.tar.gz.sha512", exchange -> {
+			this.requests.incrementAndGet();
+			byte[] bytes = (DIGEST.toUpperCase() + " *file.tar.gz\n").getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, bytes.length);
+			exchange.getResponseBody().write(bytes);
+			exchange.close();
+		});
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.httpServer.stop(0);
+	}
+
+	@Test
+	void parseSha512Sum() {
+		assertThat(Sha512Checksum.parse(DIGEST + "  apache-cassandra-4.0-bin.tar.gz\n")).isEqualTo(DIGEST);
+		assertThat(Sha512Checksum.parse(DIGEST)).isEqualTo(DIGEST);
+	}
+
+	@Test
+	void parseGpgPrintMd() {
+		StringBuilder content = new StringBuilder("apache-cassandra-3.11.4-bin.tar.gz:");
+		for (int i = 0; i < DIGEST.length(); i += 8) {
+			content.append((i % 64 == 0) ? "\n " : " ").append(DIGEST, i, i + 8);
+		}
+		assertThat(Sha512Checksum.parse(content.toString().toUpperCase())).isEqualTo(DIGEST);
+	}
+
+	@Test
+	void parseHexFileName() {
+		assertThat(Sha512Checksum.parse(DIGEST + "  cafe\n")).isEqualTo(DIGEST);
+		StringBuilder content = new StringBuilder("cafe:");
+		for (int i = 0; i < DIGEST.length(); i += 8) {
+			content.append(" ").append(DIGEST, i, i + 8);
+		}
+		assertThat(Sha512Checksum.parse(content.toString())).isEqualTo(DIGEST);
+	}
+
+	@Test
+	void parseInvalid() {
+		assertThat(Sha512Checksum.parse("<html>Not Found</html>")).isNull();
+		assertThat(Sha512Checksum.parse(DIGEST.substring(0, 64))).isNull();
+		assertThat(Sha512Checksum.parse(DIGEST.substring(0, 64) + " " + DIGEST.substring(64))).isNull();
+		assertThat(Sha512Checksum.parse("file: " + DIGEST + "ab")).isNull();
+	}
+
+	@Test
+	void verifyFallsBackToOtherMirrors() throws IOException {
+		URL url = getUrl("/missing/file.tar.gz");
+		Sha512Checksum checksum = new Sha512Checksum(this.downloader,
+				Arrays.asList(url, getUrl("/mirror/file.tar.gz")));
+		checksum.verify(url, DIGEST);
+		assertThatIOException().isThrownBy(() -> checksum.verify(url, DIGEST.replace('7', '0')))
+				.withMessageContaining("does not match");
+		assertThat(this.requests).hasValue(1);
+	}
+
+	@Test
+	void verifyWithoutSidecar() throws IOException {
+		URL url = getUrl("/missing/file.tar.gz");
+		new Sha512Checksum(this.downloader, Arrays.asList(url)).verify(url, DIGEST);
+	}
+
+	private URL getUrl(String path) throws IOException {
+		return new URL(String.format("http:/%s%s", this.httpServer.getAddress(), path));
+	}
+
+	private static HttpServer createHttpServer() {
+		try {
+			return HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+}